@@ -11,6 +11,7 @@
     checkstyle
     jacoco
     id("org.openjfx.javafxplugin") version "0.0.13"
+    id("me.champeau.jmh") version "0.7.2"
 }
 javafx {
     version = "17"
@@ -58,6 +59,20 @@ dependencies {
     implementation("org.openjfx:javafx-fxml:20.0.1")
 }
 
+// Benchmarks live in src/jmh/java; run them with ./gradlew jmh. Results are written to
+// build/results/jmh/results.json; -PjmhIncludes=<regex> selects benchmarks. Without a display, add the Monocle headless platform to
+// jvmArgsAppend for the benchmarks that build JavaFX views.
+jmh {
+    jmhVersion.set("1.36")
+    benchmarkMode.set(listOf("thrpt"))
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    project.findProperty("jmhIncludes")?.let { includes.set(listOf(it.toString())) }
+}
+
 application {
     // Define the main class for the application.
     mainClass.set("myproject.minesweeper.App")
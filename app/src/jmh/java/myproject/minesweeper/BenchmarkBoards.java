@@ -0,0 +1,45 @@
+package myproject.minesweeper;
+
+import javafx.application.Platform;
+
+/**
+ * Board parameters shared by the benchmarks.
+ */
+final class BenchmarkBoards {
+
+    /**
+     * The mine density of the custom sizes, close to the EXTREME preset.
+     */
+    static final double CUSTOM_DENSITY = 0.25;
+
+    private BenchmarkBoards() {
+    }
+
+    /**
+     * Parses a benchmark board parameter: the name of a {@link Difficulty}, or a board size that
+     * is filled with mines at {@link #CUSTOM_DENSITY}.
+     *
+     * @param board the parameter value.
+     * @return the board spec.
+     */
+    static BoardSpec spec(String board) {
+        if (Character.isDigit(board.charAt(0))) {
+            return BoardSpec.withDensity(Integer.parseInt(board), CUSTOM_DENSITY);
+        }
+        return Difficulty.valueOf(board).getSpec();
+    }
+
+    /**
+     * Starts the JavaFX toolkit, which the labels of the cell views need, unless it is running.
+     * Without a display, run the benchmarks with the Monocle headless platform.
+     */
+    static void startToolkit() {
+        try {
+            Platform.startup(() -> {
+            });
+        } catch (IllegalStateException e) {
+            // already running
+        }
+    }
+
+}
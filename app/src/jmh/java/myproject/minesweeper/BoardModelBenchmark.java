@@ -0,0 +1,112 @@
+package myproject.minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the headless engine: board construction with mine placement, neighbor counting,
+ * neighbor lookups and win checks on every preset and on large custom sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BoardModelBenchmark {
+
+    @Param({"EASY", "MEDIUM", "HARD", "EXTREME", "100", "1000"})
+    public String board;
+
+    private BoardSpec spec;
+    private BoardModel model;
+    private HexAdjacency adjacency;
+    private long[] mines;
+    private long[] counts;
+    private int[] buffer;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        spec = BenchmarkBoards.spec(board);
+        model = new BoardModel(spec, 42L);
+        model.distributeMines(spec.getMineCount());
+        adjacency = model.getAdjacency();
+        mines = new long[Bits.words(spec.getCellCount())];
+        for (int id : MinePlacer.sample(spec.getCellCount(), spec.getMineCount(),
+                new SplittableRandom(42L))) {
+            Bits.set(mines, id);
+        }
+        counts = new long[Bits.nibbleWords(spec.getCellCount())];
+        buffer = new int[6];
+    }
+
+    /**
+     * Creates a model and places its mines, counts included.
+     */
+    @Benchmark
+    public BoardModel construct() {
+        BoardModel fresh = new BoardModel(spec, seed++);
+        fresh.distributeMines(spec.getMineCount());
+        return fresh;
+    }
+
+    /**
+     * Places the mines of a fresh model, the engine side of {@link GameBoard#distributeMines}.
+     */
+    @Benchmark
+    public BoardModel distributeMines() {
+        BoardModel fresh = new BoardModel(spec, seed);
+        fresh.distributeMines(spec.getMineCount(), new SplittableRandom(seed++));
+        return fresh;
+    }
+
+    /**
+     * Counts the neighboring mines of every cell, the engine side of
+     * {@link GameBoard#labelNeighbors}.
+     */
+    @Benchmark
+    public long[] labelNeighbors() {
+        NeighborCounts.compute(adjacency, mines, spec.getMineCount(), counts);
+        return counts;
+    }
+
+    /**
+     * Visits the neighbors of every cell through the shared index.
+     */
+    @Benchmark
+    public int neighborsFromIndex() {
+        int sum = 0;
+        for (int id = 0; id < adjacency.getCellCount(); id++) {
+            int neighborCount = adjacency.neighbors(id, buffer);
+            for (int i = 0; i < neighborCount; i++) {
+                sum += buffer[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Visits the neighbors of every cell through the allocating {@link BoardModel#getNeighbors}.
+     */
+    @Benchmark
+    public void getNeighbors(Blackhole blackhole) {
+        for (int id = 0; id < model.getCellCount(); id++) {
+            blackhole.consume(model.getNeighbors(id));
+        }
+    }
+
+    @Benchmark
+    public boolean checkWin() {
+        return model.checkWin();
+    }
+
+    /**
+     * Copies the whole board state, as undo and solver search do.
+     */
+    @Benchmark
+    public BoardSnapshot snapshot() {
+        return model.snapshot();
+    }
+
+}
@@ -0,0 +1,59 @@
+package myproject.minesweeper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks the views: building a board of {@link HexCell} nodes and labelling its counts. These
+ * need the JavaFX toolkit, see {@link BenchmarkBoards#startToolkit()}. The boards are built from
+ * models whose mines are placed already, as a game shows them after the first click; a board built
+ * from a spec defers its mines, which would leave every count at zero.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GameBoardBenchmark {
+
+    @Param({"EASY", "MEDIUM", "HARD", "EXTREME", "30"})
+    public String board;
+
+    private BoardSpec spec;
+    private GameBoard gameBoard;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkBoards.startToolkit();
+        spec = BenchmarkBoards.spec(board);
+        gameBoard = new GameBoard(seeded(42L), RenderMode.NODES);
+    }
+
+    @Benchmark
+    public GameBoard construct() {
+        return new GameBoard(seeded(seed++), RenderMode.NODES);
+    }
+
+    /**
+     * Builds a canvas board and paints a screenful of it, which is all a canvas board draws.
+     */
+    @Benchmark
+    public GameBoard constructCanvas() {
+        GameBoard canvasBoard = new GameBoard(seeded(seed++), RenderMode.CANVAS);
+        canvasBoard.updateViewport(800, 650);
+        return canvasBoard;
+    }
+
+    @Benchmark
+    public GameBoard labelNeighbors() {
+        gameBoard.labelNeighbors();
+        return gameBoard;
+    }
+
+    private BoardModel seeded(long boardSeed) {
+        BoardModel model = new BoardModel(spec, boardSeed);
+        model.distributeMines(spec.getMineCount());
+        return model;
+    }
+
+}
@@ -0,0 +1,57 @@
+package myproject.minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import javafx.geometry.Point2D;
+
+/**
+ * Benchmarks the hit test of {@link Controller#handleHexagonClick}: mapping a click in the board
+ * container to board coordinates and finding the cell under it. The board is drawn with
+ * {@link RenderMode#VIEWPORT} so that the large custom sizes can be built, and is placed and
+ * zoomed like a board on screen. Clicks are spread over the whole board, including misses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HitTestBenchmark {
+
+    private static final int CLICKS = 1024;
+
+    @Param({"EASY", "MEDIUM", "HARD", "EXTREME", "100", "1000"})
+    public String board;
+
+    private GameBoard gameBoard;
+    private double[] xs;
+    private double[] ys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkBoards.startToolkit();
+        BoardSpec spec = BenchmarkBoards.spec(board);
+        gameBoard = new GameBoard(spec, 42L, RenderMode.VIEWPORT);
+        gameBoard.setLayoutX(400);
+        gameBoard.setLayoutY(325);
+        gameBoard.zoom(1.5, 400, 325);
+
+        double extent = 1.2 * 2 * spec.getSize() * HexCell.RADIUS * gameBoard.getZoom();
+        SplittableRandom random = new SplittableRandom(42L);
+        xs = new double[CLICKS];
+        ys = new double[CLICKS];
+        for (int i = 0; i < CLICKS; i++) {
+            xs[i] = 400 + random.nextDouble(-extent, extent);
+            ys[i] = 325 + random.nextDouble(-extent, extent);
+        }
+    }
+
+    @Benchmark
+    public int hitTest() {
+        int i = next++ & (CLICKS - 1);
+        Point2D mouse = gameBoard.parentToLocal(xs[i], ys[i]);
+        return gameBoard.cellAt(mouse.getX(), mouse.getY());
+    }
+
+}
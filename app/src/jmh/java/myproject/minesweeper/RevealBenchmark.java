@@ -0,0 +1,35 @@
+package myproject.minesweeper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks the worst case of the reveal cascade: a board without mines, where one click reveals
+ * every cell. Each invocation gets a fresh board, so the sizes are large enough for the timer
+ * overhead of per-invocation setup not to matter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RevealBenchmark {
+
+    @Param({"EXTREME", "100", "1000"})
+    public String board;
+
+    private BoardModel model;
+    private int centre;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        int size = BenchmarkBoards.spec(board).getSize();
+        model = new BoardModel(BoardSpec.of(size, 0), 42L);
+        centre = model.cellId(size - 1, size - 1);
+    }
+
+    @Benchmark
+    public int[] revealCascade() {
+        return model.revealCell(centre);
+    }
+
+}
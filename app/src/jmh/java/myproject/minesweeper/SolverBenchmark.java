@@ -0,0 +1,39 @@
+package myproject.minesweeper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks a whole game played by the {@link AutoSolver}, from the first guess to the end.
+ * Each invocation gets a fresh board with a different seed, so the games differ.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SolverBenchmark {
+
+    @Param({"EASY", "EXTREME", "100"})
+    public String board;
+
+    private BoardSpec spec;
+    private BoardModel model;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setupSpec() {
+        spec = BenchmarkBoards.spec(board);
+    }
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        model = new BoardModel(spec, seed++);
+        model.distributeMines(spec.getMineCount());
+    }
+
+    @Benchmark
+    public AutoSolver.Result autoSolve() {
+        return AutoSolver.play(model);
+    }
+
+}
@@ -10,6 +10,7 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 
 /**
  * JavaFX App
@@ -17,14 +18,28 @@ import java.io.IOException;
 public class App extends Application {
 
     private static Scene scene;
+    private static Controller controller;
 
     @Override
     public void start(Stage stage) throws IOException {
-        scene = new Scene(loadFXML("primary"), 800, 800);
+        FXMLLoader fxmlLoader = new FXMLLoader(App.class.getResource("primary.fxml"));
+        scene = new Scene(fxmlLoader.load(), 800, 800);
+        controller = fxmlLoader.getController();
         stage.setScene(scene);
         stage.show();
     }
 
+    /**
+     * Saves the game in progress and stops the background threads of the game window before the
+     * application exits.
+     */
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
     static void setRoot(String fxml) throws IOException {
         scene.setRoot(loadFXML(fxml));
     }
@@ -34,7 +49,33 @@ public class App extends Application {
         return fxmlLoader.load();
     }
 
-    public static void main(String[] args) {
+    /**
+     * Launches the game window, or with "--replay FILE" replays a move log headlessly, or with
+     * "--server PORT [MAX_SESSIONS]" hosts games for clients of a local {@link GameServer}, or with
+     * "--simulate N [--difficulty D] [--size S --mines M] [--threads K] [--seed S]" plays N games
+     * with the solver and prints their statistics, see {@link Simulation}.
+     *
+     * @param args the command line arguments.
+     * @throws IOException if the replay file cannot be read or the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 2 && args[0].equals("--replay")) {
+            Replay.run(Paths.get(args[1]), System.out);
+            return;
+        }
+        if (args.length >= 2 && args[0].equals("--simulate")) {
+            Simulation.run(args, System.out);
+            return;
+        }
+        if ((args.length == 2 || args.length == 3) && args[0].equals("--server")) {
+            int maxSessions = args.length == 3 ? Integer.parseInt(args[2]) : 10000;
+            SessionManager sessions = new SessionManager(maxSessions);
+            GameServer server = new GameServer(sessions, Integer.parseInt(args[1]));
+            System.out.println("Serving games on port " + server.getPort() + " with "
+                    + sessions.getShardCount() + " shards");
+            server.run();
+            return;
+        }
         launch();
     }
 
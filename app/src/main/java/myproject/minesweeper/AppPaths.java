@@ -0,0 +1,55 @@
+package myproject.minesweeper;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Locations of the files the game writes. Everything lives under ~/.hex-minesweeper unless the
+ * minesweeper.home system property points elsewhere.
+ */
+public final class AppPaths {
+
+    private AppPaths() {
+    }
+
+    /**
+     * Retrieves the directory the game keeps its files in.
+     *
+     * @return the data directory; it may not exist yet.
+     */
+    public static Path dataDir() {
+        String home = System.getProperty("minesweeper.home");
+        if (home != null) {
+            return Paths.get(home);
+        }
+        return Paths.get(System.getProperty("user.home"), ".hex-minesweeper");
+    }
+
+    /**
+     * Retrieves the directory finished games are logged to.
+     *
+     * @return the replay directory; it may not exist yet.
+     */
+    public static Path replayDir() {
+        return dataDir().resolve("replays");
+    }
+
+    /**
+     * Retrieves the file the results of finished games are kept in.
+     *
+     * @return the statistics file; it may not exist yet.
+     */
+    public static Path statsFile() {
+        return dataDir().resolve("stats.csv");
+    }
+
+    /**
+     * Retrieves the file the game in progress is saved to.
+     *
+     * @return the save file; it may not exist yet.
+     */
+    public static Path saveFile() {
+        return dataDir().resolve("autosave.hexsave");
+    }
+
+}
@@ -0,0 +1,131 @@
+package myproject.minesweeper;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Saves the game in progress to one file on a background thread, so a move never waits for the
+ * disk. Saves coalesce: while a save is being written, newer ones replace each other and only the
+ * latest is written next, so a burst of moves costs at most two writes. A discard takes the same
+ * slot as a save, so whichever of them was requested last is what the file ends up with.
+ */
+public class AutoSaver implements AutoCloseable {
+
+    /**
+     * Stands in the pending slot for a delete of the saved game.
+     */
+    private static final Object DISCARD = new Object();
+
+    private final Path file;
+    private final ExecutorService writer;
+    private final AtomicReference<Object> pending = new AtomicReference<>();
+
+    /**
+     * Creates a saver with its own background thread.
+     *
+     * @param file the file the game is saved to.
+     */
+    public AutoSaver(Path file) {
+        this.file = file;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules a save of the game, replacing a save that has not been written yet.
+     *
+     * @param game the game to save.
+     */
+    public void save(SavedGame game) {
+        schedule(game);
+    }
+
+    /**
+     * Deletes the saved game, e.g. when the game is over, replacing a save that has not been
+     * written yet.
+     */
+    public void discard() {
+        schedule(DISCARD);
+    }
+
+    private void schedule(Object request) {
+        if (pending.getAndSet(request) == null) {
+            writer.execute(this::writePending);
+        }
+    }
+
+    /**
+     * Waits until the saves and deletes scheduled so far are done.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public void flush() throws InterruptedException {
+        try {
+            writer.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Loads the saved game, if there is one.
+     *
+     * @return the game, or null if there is no readable save.
+     */
+    public SavedGame load() {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return SavedGame.read(file);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not load the saved game: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves the file the game is saved to.
+     *
+     * @return the save file.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    private void writePending() {
+        Object request = pending.getAndSet(null);
+        if (request == DISCARD) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("Could not delete the saved game: " + e.getMessage());
+            }
+        } else if (request != null) {
+            try {
+                ((SavedGame) request).write(file);
+            } catch (IOException e) {
+                System.err.println("Could not save the game: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes the pending save and stops the background thread.
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
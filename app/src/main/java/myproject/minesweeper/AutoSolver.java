@@ -0,0 +1,118 @@
+package myproject.minesweeper;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Plays a game to the end by following the hints of a {@link Solver}: it reveals the cells known
+ * to be safe, flags the known mines and takes the safest guess when nothing is certain. It stops
+ * when a suggested flag cannot be placed, so a board it cannot change is never played forever.
+ */
+public final class AutoSolver {
+
+    private AutoSolver() {
+    }
+
+    /**
+     * Plays a game shown on a game board, repainting the cells as they change.
+     *
+     * @param board the board to play.
+     * @return how the game went.
+     */
+    public static Result play(GameBoard board) {
+        return play(board.getModel(), board::revealCell, board::toggleFlag);
+    }
+
+    /**
+     * Plays a game on a headless board.
+     *
+     * @param model the board to play.
+     * @return how the game went.
+     */
+    public static Result play(BoardModel model) {
+        return play(model, model::revealCell, model::toggleFlag);
+    }
+
+    private static Result play(BoardModel model, IntConsumer reveal, IntConsumer toggleFlag) {
+        Solver solver = new Solver(model);
+        int moves = 0;
+        int reveals = 0;
+        int guesses = 0;
+        Hint hint;
+        while ((hint = solver.hint()) != null) {
+            int id = hint.getCellId();
+            if (hint.getAction() == MoveAction.FLAG) {
+                boolean flagged = model.isFlagged(id);
+                toggleFlag.accept(id);
+                if (model.isFlagged(id) == flagged) {
+                    break;
+                }
+            } else {
+                if (model.isFlagged(id)) {
+                    toggleFlag.accept(id);
+                }
+                reveal.accept(id);
+                reveals++;
+                if (!hint.isCertain()) {
+                    guesses++;
+                }
+            }
+            moves++;
+        }
+        return new Result(model.isWon(), moves, reveals, guesses);
+    }
+
+    /**
+     * The outcome of an automatically played game.
+     */
+    public static final class Result {
+
+        private final boolean won;
+        private final int moves;
+        private final int reveals;
+        private final int guesses;
+
+        Result(boolean won, int moves, int reveals, int guesses) {
+            this.won = won;
+            this.moves = moves;
+            this.reveals = reveals;
+            this.guesses = guesses;
+        }
+
+        /**
+         * Checks whether the game was won.
+         *
+         * @return true if every safe cell was revealed.
+         */
+        public boolean isWon() {
+            return won;
+        }
+
+        /**
+         * Retrieves the number of reveals and flags played.
+         *
+         * @return the move count.
+         */
+        public int getMoves() {
+            return moves;
+        }
+
+        /**
+         * Retrieves the number of reveals played.
+         *
+         * @return the reveal count.
+         */
+        public int getReveals() {
+            return reveals;
+        }
+
+        /**
+         * Retrieves the number of reveals that were guesses.
+         *
+         * @return the guess count.
+         */
+        public int getGuesses() {
+            return guesses;
+        }
+    }
+
+}
@@ -0,0 +1,162 @@
+package myproject.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * Operations on the packed arrays {@link BoardModel} keeps its cell state in.
+ *
+ * A bitset stores one flag per cell id: bit i is bit (i mod 64) of word i / 64. A nibble array
+ * stores a 4-bit value per cell id, 16 per word: value i is at bits 4 * (i mod 16) to
+ * 4 * (i mod 16) + 3 of word i / 16. Neighbor counts go from 0 to 6, so they fit in a nibble, and
+ * adding one to a count below 15 never carries into the next value.
+ */
+public final class Bits {
+
+    private Bits() {
+    }
+
+    /**
+     * Calculates the number of words of a bitset.
+     *
+     * @param bits the number of bits to store.
+     * @return the number of longs needed.
+     */
+    public static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    /**
+     * Calculates the number of words of a nibble array.
+     *
+     * @param values the number of values to store.
+     * @return the number of longs needed.
+     */
+    public static int nibbleWords(int values) {
+        return (values + 15) >>> 4;
+    }
+
+    /**
+     * Reads a bit.
+     *
+     * @param words the bitset.
+     * @param index the index of the bit.
+     * @return true if the bit is set.
+     */
+    public static boolean get(long[] words, int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Sets a bit.
+     *
+     * @param words the bitset.
+     * @param index the index of the bit.
+     */
+    public static void set(long[] words, int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Clears a bit.
+     *
+     * @param words the bitset.
+     * @param index the index of the bit.
+     */
+    public static void clear(long[] words, int index) {
+        words[index >>> 6] &= ~(1L << index);
+    }
+
+    /**
+     * Counts the set bits.
+     *
+     * @param words the bitset.
+     * @return the number of set bits.
+     */
+    public static int cardinality(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Collects the indices of the set bits, skipping empty words.
+     *
+     * @param words the bitset.
+     * @return the indices of the set bits in increasing order.
+     */
+    public static int[] indices(long[] words) {
+        int[] indices = new int[16];
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            for (long word = words[w]; word != 0; word &= word - 1) {
+                if (count == indices.length) {
+                    indices = Arrays.copyOf(indices, count * 2);
+                }
+                indices[count++] = (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return Arrays.copyOf(indices, count);
+    }
+
+    /**
+     * Finds the first index at or after a start whose bit is set, or clear, skipping whole words
+     * that do not match.
+     *
+     * @param words the bitset.
+     * @param from the index to start at.
+     * @param length the number of bits in use; bits at or beyond it are never reported.
+     * @param set true to look for a set bit, false for a clear one.
+     * @return the index, or length if there is none.
+     */
+    public static int next(long[] words, int from, int length, boolean set) {
+        if (from >= length) {
+            return length;
+        }
+        int w = from >>> 6;
+        long word = (set ? words[w] : ~words[w]) & (-1L << from);
+        while (word == 0) {
+            if (++w >= words.length) {
+                return length;
+            }
+            word = set ? words[w] : ~words[w];
+        }
+        return Math.min(length, (w << 6) + Long.numberOfTrailingZeros(word));
+    }
+
+    /**
+     * Reads a 4-bit value.
+     *
+     * @param words the nibble array.
+     * @param index the index of the value.
+     * @return the value, from 0 to 15.
+     */
+    public static int nibble(long[] words, int index) {
+        return (int) (words[index >>> 4] >>> ((index & 15) << 2)) & 0xF;
+    }
+
+    /**
+     * Writes a 4-bit value.
+     *
+     * @param words the nibble array.
+     * @param index the index of the value.
+     * @param value the value, from 0 to 15.
+     */
+    public static void setNibble(long[] words, int index, int value) {
+        int shift = (index & 15) << 2;
+        int w = index >>> 4;
+        words[w] = (words[w] & ~(0xFL << shift)) | ((long) value << shift);
+    }
+
+    /**
+     * Adds one to a 4-bit value below 15.
+     *
+     * @param words the nibble array.
+     * @param index the index of the value.
+     */
+    public static void incrementNibble(long[] words, int index) {
+        words[index >>> 4] += 1L << ((index & 15) << 2);
+    }
+
+}
@@ -0,0 +1,877 @@
+package myproject.minesweeper;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Headless state of a hexagonal Minesweeper board. The model holds mines, reveal state and flags
+ * in bitsets indexed by a linear cell id, and the neighbor mine counts in a 4-bit packed array
+ * (see {@link Bits}), so a cell costs less than one byte and the board can be created and played
+ * without the JavaFX toolkit. {@link GameBoard} is the view that renders it.
+ *
+ * The whole state can be copied into a {@link BoardSnapshot} and restored from one in time
+ * proportional to the number of words, cells / 64.
+ *
+ * A board can defer its mines to the first reveal with {@link #placeMinesOnFirstReveal()}, so the
+ * first click never hits a mine and creating a board costs nothing but its bitsets.
+ *
+ * Reveals, chords and whole batches of moves share one work queue and evaluate the end of the
+ * game once per call, see {@link #applyBatch(List)}.
+ *
+ * Cells use the same (col, row) coordinates as {@link GameBoard}. The linear id of a cell is its
+ * position when the columns are laid out one after another from left to right: id = colStart[col] +
+ * row. The coordinate mapping and neighbor lookups come from the {@link HexAdjacency} shared by all
+ * boards of the same size.
+ */
+public class BoardModel {
+
+    private final BoardSpec spec;
+    private final long seed;
+    private final int size;
+    private final int cellCount;
+    private final HexAdjacency adjacency;
+    private final int[] neighborBuffer = new int[6];
+    private final int[] chordBuffer = new int[6];
+    private int[] workQueue = new int[64];
+    private final long[] mines;
+    private final long[] revealed;
+    private final long[] flagged;
+    private final long[] counts;
+    private int mineCount;
+    private int placedMines;
+    private volatile int revealedSafeCells;
+    private boolean minesPending;
+    private boolean gameStopped;
+    private boolean won;
+    private int explodedCell = -1;
+
+    /**
+     * Constructs an empty board of the given size. No mines are placed until
+     * {@link #distributeMines(int)} is called.
+     *
+     * @param size the number of cells in the centered column.
+     * @param mineCount the number of mines the game is played with.
+     */
+    public BoardModel(int size, int mineCount) {
+        this(BoardSpec.of(size, mineCount));
+    }
+
+    /**
+     * Constructs an empty board for the given spec with a random seed. No mines are placed until
+     * {@link #distributeMines(int)} is called.
+     *
+     * @param spec the board size and mine count of the game.
+     */
+    public BoardModel(BoardSpec spec) {
+        this(spec, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Constructs an empty board for the given spec. No mines are placed until
+     * {@link #distributeMines(int)} is called; the same spec and seed always give the same mines.
+     *
+     * @param spec the board size and mine count of the game.
+     * @param seed the seed the mines are placed with.
+     */
+    public BoardModel(BoardSpec spec, long seed) {
+        this.spec = spec;
+        this.seed = seed;
+        this.size = spec.getSize();
+        this.mineCount = spec.getMineCount();
+        this.adjacency = HexAdjacency.forSize(size);
+        this.cellCount = adjacency.getCellCount();
+        this.mines = new long[Bits.words(cellCount)];
+        this.revealed = new long[Bits.words(cellCount)];
+        this.flagged = new long[Bits.words(cellCount)];
+        this.counts = new long[Bits.nibbleWords(cellCount)];
+    }
+
+    /**
+     *
+     * @return total number of columns of the board
+     */
+    public int colCount() {
+        return 2 * size - 1;
+    }
+
+    /**
+     *
+     * @param x - the xth column on the board
+     * @return total number of cells in the given column
+     */
+    public int cellCountInCol(int x) {
+        return size + Math.min(x, 2 * size - 2 - x);
+    }
+
+    /**
+     *
+     * @return the number of cells in the longest column (middle)
+     */
+    public int highestColCount() {
+        return 2 * size - 1;
+    }
+
+    /**
+     *
+     * @return total number of cells on the board
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Checks whether a cell at the given coordinates is valid on the game board.
+     *
+     * @param col the column index of the cell.
+     * @param row the row index of the cell.
+     * @return true if the cell is valid, false otherwise.
+     */
+    public boolean isCellValid(int col, int row) {
+        return adjacency.isCellValid(col, row);
+    }
+
+    /**
+     * Converts (col, row) coordinates to a linear cell id.
+     *
+     * @param col the column index of the cell.
+     * @param row the row index of the cell.
+     * @return the linear id of the cell.
+     */
+    public int cellId(int col, int row) {
+        return adjacency.cellId(col, row);
+    }
+
+    /**
+     * Retrieves the column of a linear cell id.
+     *
+     * @param id the linear id of the cell.
+     * @return the column index of the cell.
+     */
+    public int colOf(int id) {
+        return adjacency.colOf(id);
+    }
+
+    /**
+     * Retrieves the row of a linear cell id.
+     *
+     * @param id the linear id of the cell.
+     * @return the row index of the cell.
+     */
+    public int rowOf(int id) {
+        return adjacency.rowOf(id);
+    }
+
+    /**
+     * Retrieves the neighbor index shared by boards of this size.
+     *
+     * @return the neighbor index.
+     */
+    public HexAdjacency getAdjacency() {
+        return adjacency;
+    }
+
+    /**
+     * Retrieves the linear ids of the neighbors of a cell. This allocates the returned array; hot
+     * paths should iterate {@link #getAdjacency()} instead.
+     *
+     * @param id the linear id of the cell.
+     * @return the ids of the neighboring cells.
+     */
+    public int[] getNeighbors(int id) {
+        int[] buffer = new int[6];
+        return Arrays.copyOf(buffer, adjacency.neighbors(id, buffer));
+    }
+
+    /**
+     * Distributes mines randomly on the game board, drawing from the board's seed.
+     *
+     * @param totalMines the total number of mines to be distributed.
+     */
+    public void distributeMines(int totalMines) {
+        distributeMines(totalMines, new SplittableRandom(seed));
+    }
+
+    /**
+     * Distributes mines uniformly at random on the game board using the given generator. On an
+     * empty board this takes exactly totalMines draws, whatever the density. Sparse boards update
+     * the neighbor counts per mine; dense boards recompute them in one {@link NeighborCounts}
+     * pass at the end.
+     *
+     * @param totalMines the total number of mines to be distributed.
+     * @param random the source of randomness.
+     */
+    public void distributeMines(int totalMines, RandomGenerator random) {
+        distributeMines(totalMines, new int[0], random);
+    }
+
+    /**
+     * Distributes the mines of the spec, drawing from the board's seed, so that a given cell opens
+     * the game: no mine is placed on it or, when there are enough other cells, on its neighbors.
+     * The same spec, seed and start cell always give the same mines.
+     *
+     * @param startCell the linear id of the cell the player starts with.
+     */
+    public void distributeMinesAround(int startCell) {
+        distributeMinesAround(spec.getMineCount(), startCell, new SplittableRandom(seed));
+    }
+
+    /**
+     * Distributes mines uniformly at random on the cells outside the start zone of a cell: the
+     * cell and its neighbors, or only the cell if the mines do not fit outside its neighbors.
+     *
+     * @param totalMines the total number of mines to be distributed.
+     * @param startCell the linear id of the cell the player starts with.
+     * @param random the source of randomness.
+     */
+    public void distributeMinesAround(int totalMines, int startCell, RandomGenerator random) {
+        int[] zone = new int[7];
+        int zoneSize = 1 + adjacency.neighbors(startCell, zone);
+        zone[zoneSize - 1] = startCell;
+        int free = cellCount - placedMines;
+        if (totalMines > free - zoneSize) {
+            zone[0] = startCell;
+            zoneSize = totalMines > free - 1 ? 0 : 1;
+        }
+        distributeMines(totalMines, Arrays.copyOf(zone, zoneSize), random);
+    }
+
+    /**
+     * Draws mines with a {@link MinePlacer} and skips the excluded cells. Since the placer draws
+     * each id once, the excluded cells cost at most one extra draw each.
+     */
+    private void distributeMines(int totalMines, int[] excluded, RandomGenerator random) {
+        minesPending = false;
+        MinePlacer placer = new MinePlacer(cellCount, random);
+        int target = Math.min(placedMines + totalMines, cellCount - excluded.length);
+        boolean dense = target > NeighborCounts.DENSE_THRESHOLD * cellCount;
+
+        while (placedMines < target) {
+            int id = placer.next();
+            if (isExcluded(excluded, id)) {
+                continue;
+            }
+            if (dense) {
+                markMine(id);
+            } else {
+                addMine(id);
+            }
+        }
+        if (dense) {
+            NeighborCounts.compute(adjacency, mines, placedMines, counts);
+        }
+    }
+
+    private static boolean isExcluded(int[] excluded, int id) {
+        for (int cell : excluded) {
+            if (cell == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Defers placing the mines of the spec to the first {@link #revealCell(int)}, which then
+     * places them around the revealed cell like {@link #distributeMinesAround(int)}: the first
+     * click opens an empty cell whenever the mines fit outside its neighbors. Does nothing if
+     * mines were placed already.
+     */
+    public void placeMinesOnFirstReveal() {
+        minesPending = placedMines == 0;
+    }
+
+    /**
+     * Checks whether the mines are still waiting for the first reveal.
+     *
+     * @return true if no mines are placed yet and the first reveal will place them.
+     */
+    public boolean hasPendingMines() {
+        return minesPending;
+    }
+
+    /**
+     * Retrieves the number of neighboring cells with mines. The counts are kept up to date as
+     * mines are added, so this is a lookup.
+     *
+     * @param id the linear id of the cell.
+     * @return the count of neighboring cells with mines.
+     */
+    public int neighborMineCount(int id) {
+        return Bits.nibble(counts, id);
+    }
+
+    /**
+     * Determines if the cell contains a mine.
+     *
+     * @param id the linear id of the cell.
+     * @return true if the cell contains a mine, false otherwise.
+     */
+    public boolean hasMine(int id) {
+        return Bits.get(mines, id);
+    }
+
+    /**
+     * Adds a mine to the cell and counts it for its neighbors.
+     *
+     * @param id the linear id of the cell.
+     */
+    public void addMine(int id) {
+        if (!markMine(id)) {
+            return;
+        }
+        int[] buffer = neighborBuffer;
+        int neighborCount = adjacency.neighbors(id, buffer);
+        for (int i = 0; i < neighborCount; i++) {
+            Bits.incrementNibble(counts, buffer[i]);
+        }
+    }
+
+    /**
+     * Sets the mine of a cell without updating the neighbor counts.
+     *
+     * @param id the linear id of the cell.
+     * @return true if the cell had no mine before, false otherwise.
+     */
+    private boolean markMine(int id) {
+        if (Bits.get(mines, id)) {
+            return false;
+        }
+        Bits.set(mines, id);
+        placedMines++;
+        if (Bits.get(revealed, id)) {
+            revealedSafeCells--;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the cell has been revealed.
+     *
+     * @param id the linear id of the cell.
+     * @return true if the cell has been revealed, false otherwise.
+     */
+    public boolean isRevealed(int id) {
+        return Bits.get(revealed, id);
+    }
+
+    /**
+     * Checks if the cell is flagged.
+     *
+     * @param id the linear id of the cell.
+     * @return true if the cell is flagged, false otherwise.
+     */
+    public boolean isFlagged(int id) {
+        return Bits.get(flagged, id);
+    }
+
+    /**
+     * Reveals a single cell. Revealed and flagged cells are left unchanged.
+     *
+     * @param id the linear id of the cell.
+     */
+    public void reveal(int id) {
+        if (Bits.get(revealed, id) || Bits.get(flagged, id)) {
+            return;
+        }
+        Bits.set(revealed, id);
+        if (!Bits.get(mines, id)) {
+            revealedSafeCells++;
+        }
+    }
+
+    /**
+     * Flags the cell if there are flags left.
+     *
+     * @param id the linear id of the cell.
+     */
+    public void flag(int id) {
+        if (mineCount <= 0) {
+            return;
+        }
+        Bits.set(flagged, id);
+        mineCount--;
+    }
+
+    /**
+     * Unflags the cell.
+     *
+     * @param id the linear id of the cell.
+     */
+    public void unflag(int id) {
+        Bits.clear(flagged, id);
+        mineCount++;
+    }
+
+    /**
+     * Toggles the cell's flag state. Revealed cells cannot be flagged.
+     *
+     * @param id the linear id of the cell.
+     */
+    public void toggleFlag(int id) {
+        if (Bits.get(revealed, id)) {
+            return;
+        }
+        if (Bits.get(flagged, id)) {
+            unflag(id);
+        } else {
+            flag(id);
+        }
+    }
+
+    /**
+     * Reveals a given cell and, breadth first, every cell reachable from it through cells with no
+     * neighboring mines. Revealing a mine loses the game, revealing the last safe cell wins it.
+     *
+     * The cascade runs on a primitive work queue instead of recursion, so an empty region of any
+     * size costs one pass over its cells. A cell is marked revealed when it is queued, which makes
+     * the revealed state the visited set. Flagged cells stop the cascade.
+     *
+     * If the mines are pending, they are placed first, around this cell. Placing them also counts
+     * them for their neighbors, per mine on sparse boards and in one pass on dense ones, so the
+     * cascade starts right away on final counts.
+     *
+     * @param id the linear id of the cell to reveal.
+     * @return the ids of the newly revealed cells in reveal order; empty if nothing changed. Cells
+     *         changed by {@link #endGame(boolean)} when the click ends the game are not included.
+     */
+    public int[] revealCell(int id) {
+        int lostOn = explodedCell;
+        int tail = open(id, 0);
+        return endMove(tail, explodedCell != lostOn);
+    }
+
+    /**
+     * Chords on a revealed number: if as many of its neighbors are flagged as it counts mines,
+     * every other covered neighbor is revealed like {@link #revealCell(int)}. A wrong flag makes
+     * the chord reveal a mine and lose the game.
+     *
+     * @param id the linear id of the revealed cell.
+     * @return the ids of the newly revealed cells in reveal order; empty if the cell is covered,
+     *         its flags do not match its count or nothing changed.
+     */
+    public int[] chord(int id) {
+        int lostOn = explodedCell;
+        int tail = chord(id, 0);
+        return endMove(tail, explodedCell != lostOn);
+    }
+
+    /**
+     * Applies many moves in one pass, e.g. the certain moves of a solver or the clicks of a bot.
+     * The moves are applied in order like single moves, but the revealed cells of all of them
+     * are collected in one work queue and the game is won or lost once, at the end. The batch
+     * stops early at the move that decides the game, as the later moves could not have been
+     * made. A stopped game ignores the batch.
+     *
+     * @param commands the moves to make.
+     * @return the ids of the cells whose reveal or flag state changed, so a view can repaint them
+     *         at once; a cell whose flag was toggled more than once is listed more than once.
+     *         Cells changed by {@link #endGame(boolean)} are not included.
+     */
+    public int[] applyBatch(List<MoveCommand> commands) {
+        if (gameStopped) {
+            return new int[0];
+        }
+        int lostOn = explodedCell;
+        int tail = 0;
+        for (MoveCommand command : commands) {
+            int id = command.getCellId();
+            switch (command.getAction()) {
+                case REVEAL:
+                    tail = open(id, tail);
+                    break;
+                case CHORD:
+                    tail = chord(id, tail);
+                    break;
+                case FLAG:
+                    boolean wasFlagged = Bits.get(flagged, id);
+                    toggleFlag(id);
+                    if (Bits.get(flagged, id) != wasFlagged) {
+                        tail = enqueue(tail, id);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown action " + command.getAction());
+            }
+            if (explodedCell != lostOn || checkWin()) {
+                break;
+            }
+        }
+        return endMove(tail, explodedCell != lostOn);
+    }
+
+    /**
+     * Reveals a cell and its cascade, appending the revealed cells to the work queue. A revealed
+     * mine is recorded as the exploded cell and ends the cascade; the caller ends the game.
+     *
+     * @return the new end of the work queue.
+     */
+    private int open(int id, int tail) {
+        if (Bits.get(revealed, id) || Bits.get(flagged, id)) {
+            return tail;
+        }
+        if (minesPending) {
+            distributeMinesAround(spec.getMineCount(), id, new SplittableRandom(seed));
+        }
+
+        Bits.set(revealed, id);
+        int first = tail;
+        tail = enqueue(tail, id);
+        if (Bits.get(mines, id)) {
+            explodedCell = id;
+            return tail;
+        }
+
+        int[] buffer = neighborBuffer;
+        int head = first;
+        while (head < tail) {
+            int current = workQueue[head++];
+            if (Bits.nibble(counts, current) != 0) {
+                continue;
+            }
+            int neighborCount = adjacency.neighbors(current, buffer);
+            for (int i = 0; i < neighborCount; i++) {
+                int neighbor = buffer[i];
+                if (!Bits.get(revealed, neighbor) && !Bits.get(flagged, neighbor)) {
+                    Bits.set(revealed, neighbor);
+                    tail = enqueue(tail, neighbor);
+                }
+            }
+        }
+        revealedSafeCells += tail - first;
+        return tail;
+    }
+
+    /**
+     * Opens the covered, unflagged neighbors of a revealed number whose flags match its count.
+     *
+     * @return the new end of the work queue.
+     */
+    private int chord(int id, int tail) {
+        if (!Bits.get(revealed, id) || Bits.get(mines, id)) {
+            return tail;
+        }
+        int[] buffer = chordBuffer;
+        int neighborCount = adjacency.neighbors(id, buffer);
+        int flags = 0;
+        for (int i = 0; i < neighborCount; i++) {
+            if (Bits.get(flagged, buffer[i])) {
+                flags++;
+            }
+        }
+        if (flags != Bits.nibble(counts, id)) {
+            return tail;
+        }
+        int lostOn = explodedCell;
+        for (int i = 0; i < neighborCount && explodedCell == lostOn; i++) {
+            tail = open(buffer[i], tail);
+        }
+        return tail;
+    }
+
+    /**
+     * Appends a cell to the work queue, doubling it if needed, but never past the cell count.
+     *
+     * @return the new end of the work queue.
+     */
+    private int enqueue(int tail, int id) {
+        if (tail == workQueue.length) {
+            workQueue = Arrays.copyOf(workQueue,
+                    (int) Math.max(tail + 1, Math.min(cellCount, workQueue.length * 2L)));
+        }
+        workQueue[tail] = id;
+        return tail + 1;
+    }
+
+    /**
+     * Ends a move: loses the game if it revealed a mine, otherwise wins it if no safe cell is left.
+     *
+     * @return the cells the move changed, copied from the work queue.
+     */
+    private int[] endMove(int tail, boolean exploded) {
+        int[] changed = Arrays.copyOf(workQueue, tail);
+        if (exploded) {
+            endGame(false);
+        } else if (!gameStopped && checkWin()) {
+            endGame(true);
+        }
+        return changed;
+    }
+
+    /**
+     * Computes the 3BV of the board: the fewest reveals that clear it without flags. Every
+     * opening, a connected region of cells without neighboring mines together with its border,
+     * takes one reveal, and every other safe cell takes one reveal of its own. Only meaningful once
+     * the mines are placed; the cost is one pass over the cells.
+     *
+     * @return the 3BV.
+     */
+    public int get3BV() {
+        long[] opened = new long[mines.length];
+        int[] buffer = neighborBuffer;
+        int clicks = 0;
+        for (int id = 0; id < cellCount; id++) {
+            if (Bits.get(opened, id) || Bits.get(mines, id) || Bits.nibble(counts, id) != 0) {
+                continue;
+            }
+            clicks++;
+            Bits.set(opened, id);
+            int tail = enqueue(0, id);
+            for (int head = 0; head < tail; head++) {
+                int neighborCount = adjacency.neighbors(workQueue[head], buffer);
+                for (int i = 0; i < neighborCount; i++) {
+                    int neighbor = buffer[i];
+                    if (!Bits.get(opened, neighbor)) {
+                        Bits.set(opened, neighbor);
+                        if (Bits.nibble(counts, neighbor) == 0) {
+                            tail = enqueue(tail, neighbor);
+                        }
+                    }
+                }
+            }
+        }
+        for (int w = 0; w < opened.length; w++) {
+            clicks += Long.bitCount(~(opened[w] | mines[w]));
+        }
+        return clicks - (opened.length * 64 - cellCount);
+    }
+
+    /**
+     * Checks whether the player has won the game. The model counts revealed safe cells as they are
+     * revealed, so this does not scan the board.
+     *
+     * @return true if all non-mine cells are revealed, indicating a win; false otherwise.
+     */
+    public boolean checkWin() {
+        return getRemainingSafeCells() == 0;
+    }
+
+    /**
+     * Retrieves the number of safe cells that are still covered.
+     *
+     * @return the count of unrevealed cells without a mine.
+     */
+    public int getRemainingSafeCells() {
+        return cellCount - placedMines - revealedSafeCells;
+    }
+
+    /**
+     * Retrieves the share of safe cells revealed so far. The value is read from a counter kept up
+     * to date by every reveal, so it can be sampled at any time, also from other threads.
+     *
+     * @return the cleared fraction of the board, between 0 and 1.
+     */
+    public double getProgress() {
+        int safeCells = cellCount - placedMines;
+        return safeCells == 0 ? 1.0 : (double) revealedSafeCells / safeCells;
+    }
+
+    /**
+     * Ends the game by revealing all cells or flagging remaining mines, and stops the game. Cells
+     * uncovered to show a lost board do not count towards {@link #getProgress()}.
+     *
+     * @param win true if the game is won, false if it's lost.
+     */
+    public void endGame(boolean win) {
+        for (int w = 0; w < revealed.length; w++) {
+            if (win) {
+                for (long word = mines[w] & ~flagged[w]; word != 0; word &= word - 1) {
+                    flag((w << 6) + Long.numberOfTrailingZeros(word));
+                }
+            } else {
+                revealed[w] |= ~flagged[w];
+            }
+        }
+        if (!win && (cellCount & 63) != 0) {
+            revealed[revealed.length - 1] &= (1L << cellCount) - 1;
+        }
+        won = win;
+        gameStopped = true;
+    }
+
+    /**
+     * Copies the whole state of the board.
+     *
+     * @return the snapshot.
+     */
+    public BoardSnapshot snapshot() {
+        return new BoardSnapshot(spec, mines, revealed, flagged, counts, mineCount, placedMines,
+                revealedSafeCells, minesPending, gameStopped, won, explodedCell);
+    }
+
+    /**
+     * Puts the board back into the state of a snapshot taken from a board of the same size.
+     *
+     * @param snapshot the state to restore.
+     * @throws IllegalArgumentException if the snapshot is of a board of another size.
+     */
+    public void restore(BoardSnapshot snapshot) {
+        if (snapshot.spec.getSize() != size) {
+            throw new IllegalArgumentException(
+                    "Cannot restore " + snapshot.spec + " into a board of size " + size);
+        }
+        System.arraycopy(snapshot.mines, 0, mines, 0, mines.length);
+        System.arraycopy(snapshot.revealed, 0, revealed, 0, revealed.length);
+        System.arraycopy(snapshot.flagged, 0, flagged, 0, flagged.length);
+        System.arraycopy(snapshot.counts, 0, counts, 0, counts.length);
+        mineCount = snapshot.mineCount;
+        placedMines = snapshot.placedMines;
+        revealedSafeCells = snapshot.revealedSafeCells;
+        minesPending = snapshot.minesPending;
+        gameStopped = snapshot.gameStopped;
+        won = snapshot.won;
+        explodedCell = snapshot.explodedCell;
+    }
+
+    /**
+     * Lists the cells whose mine, reveal or flag state changed since a snapshot of this board.
+     *
+     * @param snapshot the earlier state.
+     * @return the ids of the changed cells in increasing order.
+     * @throws IllegalArgumentException if the snapshot is of a board of another size.
+     */
+    public int[] changedSince(BoardSnapshot snapshot) {
+        if (snapshot.spec.getSize() != size) {
+            throw new IllegalArgumentException(
+                    "Cannot compare " + snapshot.spec + " with a board of size " + size);
+        }
+        return BoardSnapshot.changedCells(mines, revealed, flagged, snapshot.mines,
+                snapshot.revealed, snapshot.flagged);
+    }
+
+    /**
+     * Retrieves the live bitset of the mines, for encoders that scan it word by word. It must not
+     * be modified and is only valid on the thread that plays the board.
+     *
+     * @return the bitset, {@link Bits#words(int)} of the cell count words.
+     */
+    long[] mineBits() {
+        return mines;
+    }
+
+    /**
+     * Retrieves the live bitset of the revealed cells, see {@link #mineBits()}.
+     *
+     * @return the bitset.
+     */
+    long[] revealedBits() {
+        return revealed;
+    }
+
+    /**
+     * Retrieves the live bitset of the flagged cells, see {@link #mineBits()}.
+     *
+     * @return the bitset.
+     */
+    long[] flaggedBits() {
+        return flagged;
+    }
+
+    /**
+     * Lists the cells revealed since a copy of the revealed bitset was last updated, and updates
+     * the copy. This lets a follower of the board, like a {@link Solver}, catch up after each move
+     * by scanning one word per 64 cells without taking a snapshot.
+     *
+     * @param seen a bitset of {@link Bits#words(int)} of the cell count words, updated in place.
+     * @return the ids of the newly revealed cells in increasing order.
+     */
+    int[] revealedSince(long[] seen) {
+        for (int w = 0; w < seen.length; w++) {
+            seen[w] = revealed[w] & ~seen[w];
+        }
+        int[] ids = Bits.indices(seen);
+        System.arraycopy(revealed, 0, seen, 0, seen.length);
+        return ids;
+    }
+
+    /**
+     * Creates an independent board in the same state, e.g. for a solver to try moves on.
+     *
+     * @return the copy.
+     */
+    public BoardModel copy() {
+        BoardModel copy = new BoardModel(spec, seed);
+        copy.restore(snapshot());
+        return copy;
+    }
+
+    /**
+     * Retrieves the size and mine count the board was created with.
+     *
+     * @return the board spec.
+     */
+    public BoardSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Retrieves the seed the mines are placed with.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retrieves the size of the game board (number of cells in the centered column).
+     *
+     * @return the size of the game board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Retrieves the number of mines not yet accounted for by a flag.
+     *
+     * @return the count of mines.
+     */
+    public int getMineCount() {
+        return mineCount;
+    }
+
+    /**
+     * Modifies the mine count on the game board by the given value.
+     *
+     * @param n the value to modify the mine count by.
+     */
+    public void setMineCount(int n) {
+        mineCount = mineCount + n;
+    }
+
+    /**
+     * Checks whether the game has been stopped.
+     *
+     * @return true if the game is stopped, false otherwise.
+     */
+    public boolean isGameStopped() {
+        return gameStopped;
+    }
+
+    /**
+     * Sets the game to a stopped state.
+     */
+    public void setGameToStop() {
+        gameStopped = true;
+    }
+
+    /**
+     * Checks whether the game was stopped by revealing every safe cell.
+     *
+     * @return true if the game is won, false otherwise.
+     */
+    public boolean isWon() {
+        return gameStopped && won;
+    }
+
+    /**
+     * Retrieves the mine that ended the game.
+     *
+     * @return the id of the revealed mine, or -1 if no mine was revealed.
+     */
+    public int getExplodedCell() {
+        return explodedCell;
+    }
+
+}
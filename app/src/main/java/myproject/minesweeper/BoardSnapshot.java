@@ -0,0 +1,78 @@
+package myproject.minesweeper;
+
+/**
+ * Immutable copy of the whole state of a {@link BoardModel}: its mine, reveal and flag bitsets,
+ * its packed neighbor counts and its counters. Taking, restoring and comparing snapshots copies
+ * or scans one word per 64 cells, so they are cheap enough for undo and for solvers that try
+ * moves on a copy of the board.
+ */
+public final class BoardSnapshot {
+
+    final BoardSpec spec;
+    final long[] mines;
+    final long[] revealed;
+    final long[] flagged;
+    final long[] counts;
+    final int mineCount;
+    final int placedMines;
+    final int revealedSafeCells;
+    final boolean minesPending;
+    final boolean gameStopped;
+    final boolean won;
+    final int explodedCell;
+
+    BoardSnapshot(BoardSpec spec, long[] mines, long[] revealed, long[] flagged, long[] counts,
+            int mineCount, int placedMines, int revealedSafeCells, boolean minesPending,
+            boolean gameStopped, boolean won, int explodedCell) {
+        this.spec = spec;
+        this.mines = mines.clone();
+        this.revealed = revealed.clone();
+        this.flagged = flagged.clone();
+        this.counts = counts.clone();
+        this.mineCount = mineCount;
+        this.placedMines = placedMines;
+        this.revealedSafeCells = revealedSafeCells;
+        this.minesPending = minesPending;
+        this.gameStopped = gameStopped;
+        this.won = won;
+        this.explodedCell = explodedCell;
+    }
+
+    /**
+     * Retrieves the size and mine count of the board the snapshot was taken of.
+     *
+     * @return the board spec.
+     */
+    public BoardSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Lists the cells whose mine, reveal or flag state differs between two snapshots of boards of
+     * the same size.
+     *
+     * @param other the snapshot to compare with.
+     * @return the ids of the differing cells in increasing order.
+     * @throws IllegalArgumentException if the snapshots are of boards of different sizes.
+     */
+    public int[] diff(BoardSnapshot other) {
+        if (other.spec.getSize() != spec.getSize()) {
+            throw new IllegalArgumentException("Cannot compare " + spec + " with " + other.spec);
+        }
+        return changedCells(mines, revealed, flagged, other.mines, other.revealed, other.flagged);
+    }
+
+    /**
+     * Lists the cells whose bit differs in any of the three pairs of bitsets.
+     */
+    static int[] changedCells(long[] minesA, long[] revealedA, long[] flaggedA, long[] minesB,
+            long[] revealedB, long[] flaggedB) {
+        long[] changed = new long[minesA.length];
+        for (int w = 0; w < changed.length; w++) {
+            changed[w] = (minesA[w] ^ minesB[w]) | (revealedA[w] ^ revealedB[w])
+                    | (flaggedA[w] ^ flaggedB[w]);
+        }
+        return Bits.indices(changed);
+    }
+
+}
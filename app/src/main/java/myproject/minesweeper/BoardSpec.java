@@ -0,0 +1,145 @@
+package myproject.minesweeper;
+
+import java.util.Objects;
+
+/**
+ * Describes the shape of a game: the board size (number of cells in the centered column) and the
+ * number of mines. The {@link Difficulty} values are presets of this class; any other size and
+ * mine count or density can be built with {@link #of(int, int)} and
+ * {@link #withDensity(int, double)}.
+ *
+ * Cells are addressed with int ids, so a board holds at most {@link #MAX_CELLS} cells, which
+ * allows sizes up to {@link #MAX_SIZE} (about 2.1 billion cells).
+ */
+public final class BoardSpec {
+
+    /**
+     * The largest number of cells on a board, the largest array length the JVM allows.
+     */
+    public static final long MAX_CELLS = Integer.MAX_VALUE - 8;
+
+    /**
+     * The largest board size whose cell count does not exceed {@link #MAX_CELLS}.
+     */
+    public static final int MAX_SIZE = 26755;
+
+    private final int size;
+    private final int mineCount;
+
+    private BoardSpec(int size, int mineCount) {
+        this.size = size;
+        this.mineCount = mineCount;
+    }
+
+    /**
+     * Creates a spec with a fixed number of mines.
+     *
+     * @param size the number of cells in the centered column, between 1 and {@link #MAX_SIZE}.
+     * @param mineCount the number of mines; at least one cell must stay safe.
+     * @return the board spec.
+     * @throws IllegalArgumentException if the size or mine count is out of range.
+     */
+    public static BoardSpec of(int size, int mineCount) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException(
+                    "Board size must be between 1 and " + MAX_SIZE + ": " + size);
+        }
+        long cellCount = cellCount(size);
+        if (mineCount < 0 || mineCount >= cellCount) {
+            throw new IllegalArgumentException("Mine count must be between 0 and "
+                    + (cellCount - 1) + " for size " + size + ": " + mineCount);
+        }
+        return new BoardSpec(size, mineCount);
+    }
+
+    /**
+     * Creates a spec whose mine count is the given share of the cells, rounded to the nearest
+     * integer.
+     *
+     * @param size the number of cells in the centered column, between 1 and {@link #MAX_SIZE}.
+     * @param density the share of cells holding a mine, between 0 inclusive and 1 exclusive.
+     * @return the board spec.
+     * @throws IllegalArgumentException if the size or density is out of range.
+     */
+    public static BoardSpec withDensity(int size, double density) {
+        if (!(density >= 0 && density < 1)) {
+            throw new IllegalArgumentException("Mine density must be in [0, 1): " + density);
+        }
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException(
+                    "Board size must be between 1 and " + MAX_SIZE + ": " + size);
+        }
+        long cellCount = cellCount(size);
+        long mines = Math.min(Math.round(density * cellCount), cellCount - 1);
+        return of(size, (int) mines);
+    }
+
+    /**
+     * Calculates the number of cells of a board of the given size: 3s^2 - 3s + 1.
+     *
+     * @param size the number of cells in the centered column.
+     * @return the number of cells.
+     */
+    public static long cellCount(int size) {
+        return 3L * size * size - 3L * size + 1;
+    }
+
+    /**
+     * Retrieves the board size.
+     *
+     * @return the number of cells in the centered column.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Retrieves the number of mines.
+     *
+     * @return the number of mines.
+     */
+    public int getMineCount() {
+        return mineCount;
+    }
+
+    /**
+     * Retrieves the number of cells on the board.
+     *
+     * @return the number of cells.
+     */
+    public int getCellCount() {
+        return (int) cellCount(size);
+    }
+
+    /**
+     * Retrieves the share of cells holding a mine.
+     *
+     * @return the mine density, between 0 and 1.
+     */
+    public double getDensity() {
+        return (double) mineCount / getCellCount();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BoardSpec)) {
+            return false;
+        }
+        BoardSpec other = (BoardSpec) o;
+        return size == other.size && mineCount == other.mineCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(size, mineCount);
+    }
+
+    @Override
+    public String toString() {
+        return "BoardSpec[size=" + size + ", mines=" + mineCount + "]";
+    }
+
+}
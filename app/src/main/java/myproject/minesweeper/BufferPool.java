@@ -0,0 +1,123 @@
+package myproject.minesweeper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.*;
+
+/**
+ * A bounded, thread-safe pool of equally sized direct byte buffers, so encoding a message does
+ * not allocate. Buffers larger than the pooled size can be borrowed as well; they are heap buffers
+ * allocated on demand and dropped when released. Direct memory is only freed when the garbage
+ * collector gets to its buffer, so large messages never hold any; they are written through a
+ * pooled buffer in chunks instead, see {@link #writeTo}.
+ */
+public final class BufferPool {
+
+    private final int bufferSize;
+    private final BlockingQueue<ByteBuffer> free;
+
+    /**
+     * Creates an empty pool; buffers are allocated as they are first needed.
+     *
+     * @param bufferSize the capacity of the pooled buffers.
+     * @param maxPooled the most buffers kept for reuse.
+     */
+    public BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.free = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    /**
+     * Borrows a cleared buffer of the pooled size.
+     *
+     * @return the buffer.
+     */
+    public ByteBuffer acquire() {
+        return acquire(bufferSize);
+    }
+
+    /**
+     * Borrows a cleared buffer of at least the given capacity.
+     *
+     * @param capacity the capacity needed.
+     * @return the buffer, from the pool if the capacity fits, else a new heap buffer.
+     */
+    public ByteBuffer acquire(int capacity) {
+        if (capacity > bufferSize) {
+            return ByteBuffer.allocate(capacity);
+        }
+        ByteBuffer buffer = free.poll();
+        return buffer != null ? buffer.clear() : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Returns a buffer to the pool. Buffers of another size, or beyond the pool's bound, are left
+     * to the garbage collector.
+     *
+     * @param buffer the buffer to return; it must not be used afterwards.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() == bufferSize && buffer.isDirect()) {
+            free.offer(buffer);
+        }
+    }
+
+    /**
+     * Writes the remaining bytes of a buffer to a channel and releases it. A heap buffer is
+     * copied through one pooled direct buffer a chunk at a time, since the channel would
+     * otherwise copy it into a temporary direct buffer of its full size, which the JDK keeps per
+     * thread.
+     *
+     * @param buffer the bytes to write, flipped; released afterwards.
+     * @param channel the channel to write to.
+     * @throws IOException if writing fails.
+     */
+    public void writeTo(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        try {
+            if (buffer.isDirect()) {
+                writeFully(buffer, channel);
+                return;
+            }
+            ByteBuffer chunk = acquire();
+            try {
+                while (buffer.hasRemaining()) {
+                    int length = Math.min(chunk.capacity(), buffer.remaining());
+                    chunk.clear().put(0, buffer, buffer.position(), length).limit(length);
+                    buffer.position(buffer.position() + length);
+                    writeFully(chunk, channel);
+                }
+            } finally {
+                release(chunk);
+            }
+        } finally {
+            release(buffer);
+        }
+    }
+
+    private static void writeFully(ByteBuffer buffer, WritableByteChannel channel)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Retrieves the capacity of the pooled buffers.
+     *
+     * @return the buffer size in bytes.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Counts the buffers ready for reuse.
+     *
+     * @return the number of pooled buffers.
+     */
+    public int getPooledCount() {
+        return free.size();
+    }
+
+}
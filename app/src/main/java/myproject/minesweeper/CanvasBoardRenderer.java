@@ -0,0 +1,169 @@
+package myproject.minesweeper;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+import javafx.scene.transform.Scale;
+
+/**
+ * Draws the visible part of a {@link BoardModel} onto one canvas instead of five scene graph nodes
+ * per cell. The canvas covers only the visible area, with one canvas pixel per screen pixel at the
+ * current zoom, so its texture stays the size of the screen however large the board is; only the
+ * cells in that area are painted, and only the cells that changed are repainted after a move.
+ *
+ * The visible area is given in the board's coordinate space, where the board centre is (0, 0),
+ * as for {@link ViewportBoardRenderer}.
+ */
+public class CanvasBoardRenderer extends Canvas {
+
+    private final BoardModel model;
+    private final HexGeometry geometry;
+    private final Scale pixels = new Scale(1, 1, 0, 0);
+    private final double[] xs = new double[6];
+    private final double[] ys = new double[6];
+    private double minX;
+    private double minY;
+    private double maxX;
+    private double maxY;
+    private double scale = 1;
+    private int paintedCount;
+
+    /**
+     * Creates an empty canvas; nothing is drawn until the first {@link #setViewport} call.
+     *
+     * @param model the board to draw.
+     * @param radius the distance from the centre of a hexagon to its corners.
+     */
+    public CanvasBoardRenderer(BoardModel model, double radius) {
+        this.model = model;
+        this.geometry = HexGeometry.forRadius(radius);
+        getTransforms().add(pixels);
+    }
+
+    /**
+     * Moves and resizes the canvas to a rectangle of the board and repaints it. The canvas is
+     * scaled down by the zoom of the board, so it holds the rectangle at screen resolution.
+     *
+     * @param minX the left edge in board coordinates.
+     * @param minY the top edge in board coordinates.
+     * @param maxX the right edge in board coordinates.
+     * @param maxY the bottom edge in board coordinates.
+     * @param scale the zoom of the board, the screen pixels per board unit.
+     */
+    public void setViewport(double minX, double minY, double maxX, double maxY, double scale) {
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.scale = scale;
+        setLayoutX(minX);
+        setLayoutY(minY);
+        pixels.setX(1 / scale);
+        pixels.setY(1 / scale);
+        setWidth(Math.ceil(Math.max(0, maxX - minX) * scale));
+        setHeight(Math.ceil(Math.max(0, maxY - minY) * scale));
+        repaint();
+    }
+
+    /**
+     * Clears the canvas and paints every cell in the visible area.
+     */
+    public void repaint() {
+        GraphicsContext gc = getGraphicsContext2D();
+        gc.setTransform(1, 0, 0, 1, 0, 0);
+        gc.clearRect(0, 0, getWidth(), getHeight());
+        gc.setTransform(scale, 0, 0, scale, -minX * scale, -minY * scale);
+        paintedCount = 0;
+        geometry.forEachCellIn(model.getAdjacency(), minX, minY, maxX, maxY, this::paintCell);
+    }
+
+    /**
+     * Paints the given cells over their previous image. Cells outside the visible area are
+     * skipped; they are painted when they scroll into view.
+     *
+     * @param ids the linear ids of the changed cells.
+     */
+    public void repaint(int[] ids) {
+        paintedCount = 0;
+        for (int id : ids) {
+            if (isInView(id)) {
+                paintCell(id);
+            }
+        }
+    }
+
+    /**
+     * Checks whether any part of a cell's hexagon may be inside the visible area.
+     *
+     * @param id the linear id of the cell.
+     * @return true if the cell is painted by {@link #repaint()}.
+     */
+    public boolean isInView(int id) {
+        int col = model.colOf(id);
+        double radius = geometry.getRadius();
+        double apothem = geometry.getApothem();
+        double centerX = geometry.centerX(model.getSize(), col);
+        double centerY = geometry.centerY(model.getSize(), col, model.rowOf(id));
+        return centerX + radius >= minX && centerX - radius <= maxX
+                && centerY + apothem >= minY && centerY - apothem <= maxY;
+    }
+
+    /**
+     * Retrieves the number of cells the last repaint drew.
+     *
+     * @return the cells painted by the last {@link #repaint()} or {@link #repaint(int[])}.
+     */
+    public int getPaintedCount() {
+        return paintedCount;
+    }
+
+    /**
+     * Paints one cell: its hexagon, then the mine or count of a revealed cell, or the flag of a
+     * covered one.
+     *
+     * @param id the linear id of the cell.
+     */
+    private void paintCell(int id) {
+        paintedCount++;
+        GraphicsContext gc = getGraphicsContext2D();
+        int col = model.colOf(id);
+        int row = model.rowOf(id);
+        double centerX = geometry.centerX(model.getSize(), col);
+        double centerY = geometry.centerY(model.getSize(), col, row);
+        geometry.corners(centerX, centerY, xs, ys);
+
+        boolean revealed = model.isRevealed(id);
+        if (id == model.getExplodedCell()) {
+            gc.setFill(CellStyles.EXPLODED_FILL);
+        } else {
+            gc.setFill(revealed ? CellStyles.REVEALED_FILL : CellStyles.COVERED_FILL);
+        }
+        gc.fillPolygon(xs, ys, 6);
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(1);
+        gc.strokePolygon(xs, ys, 6);
+
+        double radius = geometry.getRadius();
+        if (revealed) {
+            if (model.hasMine(id)) {
+                gc.drawImage(CellStyles.mineImage(), centerX - radius * 0.70,
+                        centerY - radius * 0.60);
+            } else {
+                int count = model.neighborMineCount(id);
+                if (count > 0) {
+                    gc.setFont(CellStyles.COUNT_FONT);
+                    gc.setTextAlign(TextAlignment.CENTER);
+                    gc.setTextBaseline(VPos.CENTER);
+                    gc.setFill(CellStyles.countColor(count));
+                    gc.fillText(Integer.toString(count), centerX, centerY);
+                }
+            }
+        } else if (model.isFlagged(id)) {
+            gc.drawImage(CellStyles.flagImage(), centerX - (int) radius / 2,
+                    centerY - (int) radius / 2);
+        }
+    }
+
+}
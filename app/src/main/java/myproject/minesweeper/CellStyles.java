@@ -0,0 +1,81 @@
+package myproject.minesweeper;
+
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+/**
+ * The fonts, colors and images shared by every cell view, created once instead of per cell.
+ *
+ * The images are loaded together the first time either is used. They live in a holder class, so
+ * the JVM's class initialization makes the loading happen exactly once even when boards are built
+ * on several threads.
+ */
+public final class CellStyles {
+
+    /**
+     * The font of the neighbor mine counts.
+     */
+    public static final Font COUNT_FONT = Font.font("Arial", FontWeight.BOLD, 20);
+
+    /**
+     * The fill of a revealed cell.
+     */
+    public static final Color REVEALED_FILL = Color.LIGHTGRAY;
+
+    /**
+     * The fill of a covered cell.
+     */
+    public static final Color COVERED_FILL = Color.LIGHTBLUE;
+
+    /**
+     * The fill of the cell whose mine ended the game.
+     */
+    public static final Color EXPLODED_FILL = Color.RED;
+
+    // indexed by count; 6 is the most a hexagon can have
+    private static final Color[] COUNT_COLORS = {null, Color.BLUE, Color.GREEN, Color.RED,
+            Color.PURPLE, Color.MAROON, Color.TURQUOISE};
+
+    private static final class Images {
+        static final Image MINE = load("mine.png");
+        static final Image FLAG = load("flag.png");
+
+        private static Image load(String name) {
+            return new Image(CellStyles.class.getResource(name).toString(), 20, 20, false, false);
+        }
+    }
+
+    private CellStyles() {
+    }
+
+    /**
+     * Picks the text color of a neighbor mine count.
+     *
+     * @param count the number of neighboring mines, from 1 to 6.
+     * @return the color to draw the count in.
+     */
+    public static Color countColor(int count) {
+        return COUNT_COLORS[count];
+    }
+
+    /**
+     * Retrieves the shared mine image.
+     *
+     * @return the mine image.
+     */
+    public static Image mineImage() {
+        return Images.MINE;
+    }
+
+    /**
+     * Retrieves the shared flag image.
+     *
+     * @return the flag image.
+     */
+    public static Image flagImage() {
+        return Images.FLAG;
+    }
+
+}
@@ -1,19 +1,39 @@
 package myproject.minesweeper;
 
+import java.io.IOException;
+import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.geometry.Point2D;
 import javafx.scene.control.*;
 import javafx.scene.input.*;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
+import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
 import javafx.util.Duration;
 
 /**
  * The controller class responsible for handling user interactions and managing the game interface.
+ *
+ * Boards are built off the FX thread: while a game is played, a {@link Prefetcher} builds the
+ * board of the next game with the same settings, views included, and a restart swaps it in.
+ * Boards for changed settings are built in the background too and shown once they are ready.
+ *
+ * The game in progress is saved after every move by an {@link AutoSaver}, off the FX thread, and
+ * resumed when the game is started again. Finished games are recorded in a {@link StatsStore},
+ * whose statistics are shown once the record is in.
+ *
+ * The game time comes from a {@link GameClock}; the timeline only refreshes the timer label. The
+ * engine time of every move and the time from every click to the layout pass that shows its
+ * result are counted in {@link LatencyHistogram}s, shown when the game ends and exported next to
+ * its move log.
  */
 public class Controller {
 
@@ -21,9 +41,46 @@ public class Controller {
      * The default game difficulty level is set to medium.
      */
 
-    private Difficulty gameDifficulty = Difficulty.MEDIUM;
+    Difficulty gameDifficulty = Difficulty.MEDIUM;
 
-    private int seconds = 0;
+    private RenderMode renderMode = RenderMode.NODES;
+
+    private boolean noGuess;
+
+    /**
+     * The pool of no-guess layouts, only kept while no-guess mode is on. Read by the prefetch
+     * thread.
+     */
+    private volatile SolvableBoardPool boardPool;
+
+    private Prefetcher<GameSettings, NewGame> nextGame;
+
+    private AutoSaver autoSaver;
+
+    private StatsStore stats;
+
+    private int restarts;
+
+    private int startCell = -1;
+
+    /**
+     * How often the timer label is checked for a new second.
+     */
+    private static final Duration TIMER_TICK = Duration.millis(100);
+
+    private final GameClock clock = new GameClock();
+
+    private int shownSeconds = -1;
+
+    private LatencyHistogram engineLatency = new LatencyHistogram();
+
+    private LatencyHistogram renderLatency = new LatencyHistogram();
+
+    private long clickNanos = -1;
+
+    private boolean latencyReportPending;
+
+    private final Runnable pulseListener = this::afterPulse;
 
     @FXML
     private Label countDisplay;
@@ -31,6 +88,13 @@ public class Controller {
     @FXML
     private Label timerLabel;
 
+    @FXML
+    private Label progressLabel;
+
+    private Label statsLabel;
+
+    private Label latencyLabel;
+
     private Timeline timeline;
 
     @FXML
@@ -41,47 +105,264 @@ public class Controller {
 
     private GameBoard gameBoard;
 
+    private MoveLog moveLog;
+
+    private Solver solver;
+
+    private double dragX;
+
+    private double dragY;
+
     @FXML
     private Button restartButton;
 
     @FXML
     public ComboBox<String> difficultyDropdown;
 
+    @FXML
+    public ComboBox<String> rendererDropdown;
+
+    @FXML
+    public CheckBox noGuessCheckBox;
+
     /**
      * Initializes the game interface and sets up the initial game state.
      */
     @FXML
     public void initialize() {
-        gameBoard = new GameBoard(gameDifficulty);
-        resetTimer();
-        gameBoard.setLayoutX(400);
-        gameBoard.setLayoutY(325);
-        boardContainer.getChildren().add(gameBoard);
+        nextGame = new Prefetcher<>("board-prefetch", this::newGame);
+        autoSaver = new AutoSaver(AppPaths.saveFile());
+        stats = new StatsStore(AppPaths.statsFile());
+        SavedGame saved = autoSaver.load();
+        if (saved != null) {
+            resume(saved);
+        } else {
+            NewGame game = newGame(currentSettings());
+            gameBoard = game.board;
+            startCell = game.startCell;
+            startMoveLog();
+            resetTimer();
+        }
+        showGameBoard();
         boardContainer.getChildren().add(timerLabel);
         timerLabel.setLayoutX(360);
         boardContainer.setOnMouseClicked(event -> handleHexagonClick(event, gameBoard));
+        boardContainer.setOnMousePressed(event -> {
+            dragX = event.getX();
+            dragY = event.getY();
+        });
+        boardContainer.setOnMouseDragged(event -> {
+            gameBoard.pan(event.getX() - dragX, event.getY() - dragY);
+            dragX = event.getX();
+            dragY = event.getY();
+        });
+        boardContainer.setOnScroll(event -> gameBoard
+                .zoom(event.getDeltaY() > 0 ? 1.1 : 1 / 1.1, event.getX(), event.getY()));
+        Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(boardContainer.widthProperty());
+        clip.heightProperty().bind(boardContainer.heightProperty());
+        boardContainer.setClip(clip);
+        boardContainer.widthProperty().addListener(
+                (observable, oldWidth, newWidth) -> updateViewport());
+        boardContainer.heightProperty().addListener(
+                (observable, oldHeight, newHeight) -> updateViewport());
         difficultyDropdown.getItems().add("easy");
         difficultyDropdown.getItems().add("medium");
         difficultyDropdown.getItems().add("hard");
         difficultyDropdown.getItems().add("extreme");
+        rendererDropdown.getItems().add("nodes");
+        rendererDropdown.getItems().add("canvas");
+        rendererDropdown.getItems().add("viewport");
         countDisplay = new Label(Integer.toString(gameBoard.getMineCount()));
         countDisplay.setFont(Font.font("Arial", 30));
         countDisplay.setLayoutX(10);
         boardContainer.getChildren().add(countDisplay);
+        progressLabel.setFont(Font.font("Arial", 30));
+        progressLabel.setLayoutX(690);
+        boardContainer.getChildren().add(progressLabel);
+        statsLabel = new Label();
+        statsLabel.setFont(Font.font("Arial", 14));
+        statsLabel.setLayoutX(10);
+        statsLabel.setLayoutY(40);
+        boardContainer.getChildren().add(statsLabel);
+        latencyLabel = new Label();
+        latencyLabel.setFont(Font.font("Arial", 14));
+        latencyLabel.setLayoutX(10);
+        latencyLabel.setLayoutY(58);
+        boardContainer.getChildren().add(latencyLabel);
+        boardContainer.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (oldScene != null) {
+                oldScene.removePostLayoutPulseListener(pulseListener);
+            }
+            if (newScene != null) {
+                newScene.addPostLayoutPulseListener(pulseListener);
+            }
+        });
+        displayProgress(gameBoard.getProgress());
+        openStartCell();
+        nextGame.prefetch(currentSettings());
     }
 
     /**
-     * Restarts the game by resetting the game board and timer.
+     * Shows a saved game where it was left: its board, its moves so far and the time on the clock.
+     * Its difficulty becomes the current one if it was played at a preset.
+     *
+     * @param saved the game to resume.
+     */
+    private void resume(SavedGame saved) {
+        gameBoard = new GameBoard(saved.toModel(), renderMode);
+        startCell = -1;
+        for (Difficulty difficulty : Difficulty.values()) {
+            if (difficulty.getSpec().equals(saved.getSpec())) {
+                gameDifficulty = difficulty;
+            }
+        }
+        moveLog = saved.getMoveLog();
+        if (moveLog == null) {
+            startMoveLog();
+        }
+        startTimer(saved.getElapsedMillis());
+    }
+
+    /**
+     * Restarts the game by swapping in the next board and resetting the timer. The board
+     * prefetched for the current settings is shown at once; otherwise the current game stops and
+     * the new board is shown as soon as the background thread has built it.
      */
     public void restartGame() {
+        int restart = ++restarts;
+        CompletableFuture<NewGame> game = nextGame.take(currentSettings());
+        if (game.isDone()) {
+            startGame(game.join());
+            return;
+        }
+        gameBoard.setGameToStop();
+        stopTimer();
+        game.thenAcceptAsync(newGame -> {
+            if (restart == restarts) {
+                startGame(newGame);
+            }
+        }, Platform::runLater);
+    }
+
+    /**
+     * Replaces the shown board with a new game and prefetches the board after it.
+     *
+     * @param game the board of the new game.
+     */
+    private void startGame(NewGame game) {
         boardContainer.getChildren().remove(gameBoard);
-        gameBoard = new GameBoard(gameDifficulty);
+        gameBoard = game.board;
+        startCell = game.startCell;
+        solver = null;
+        statsLabel.setText("");
+        resetLatency();
+        autoSaver.discard();
+        startMoveLog();
         resetTimer();
         timerLabel.setLayoutX(360);
         displayMineCount(gameBoard.getMineCount());
+        displayProgress(gameBoard.getProgress());
+        showGameBoard();
+        openStartCell();
+        nextGame.prefetch(currentSettings());
+    }
+
+    /**
+     * Centres the current game board in the board container, below the labels, and tells it which
+     * area is visible.
+     */
+    private void showGameBoard() {
         gameBoard.setLayoutX(400);
         gameBoard.setLayoutY(325);
-        boardContainer.getChildren().add(gameBoard);
+        boardContainer.getChildren().add(0, gameBoard);
+        updateViewport();
+    }
+
+    /**
+     * Passes the visible size of the board container to the game board. Before the first layout
+     * pass the preferred size is used.
+     */
+    private void updateViewport() {
+        double width = boardContainer.getWidth() > 0 ? boardContainer.getWidth()
+                : boardContainer.getPrefWidth();
+        double height = boardContainer.getHeight() > 0 ? boardContainer.getHeight()
+                : boardContainer.getPrefHeight();
+        gameBoard.updateViewport(width, height);
+    }
+
+    /**
+     * Captures the settings the next game is built with.
+     *
+     * @return the current difficulty, render mode and no-guess mode.
+     */
+    private GameSettings currentSettings() {
+        return new GameSettings(gameDifficulty, renderMode, noGuess);
+    }
+
+    /**
+     * Creates a board for the given settings. In no-guess mode the board is taken from the pool
+     * of pre-generated solvable layouts and remembers its start cell; if no layout can be found,
+     * or the mode was turned off and the pool closed meanwhile, a random board is used. Runs on
+     * the prefetch thread, so it only reads its arguments and the volatile pool.
+     *
+     * @param settings the difficulty, render mode and no-guess mode of the game.
+     * @return the new game.
+     */
+    private NewGame newGame(GameSettings settings) {
+        SolvableBoardPool pool = boardPool;
+        if (settings.noGuess && pool != null) {
+            try {
+                SolvableLayout layout = pool.take(settings.difficulty);
+                return new NewGame(new GameBoard(layout.toModel(), settings.renderMode),
+                        layout.getStartCell());
+            } catch (IllegalStateException e) {
+                System.err.println("Could not generate a no-guess board: " + e.getMessage());
+            }
+        }
+        return new NewGame(new GameBoard(settings.difficulty.getSpec(),
+                ThreadLocalRandom.current().nextLong(), settings.renderMode), -1);
+    }
+
+    /**
+     * Reveals the start cell of a no-guess board, from which the whole board can be deduced.
+     */
+    private void openStartCell() {
+        if (startCell >= 0) {
+            reveal(startCell);
+        }
+    }
+
+    /**
+     * Switches between random boards and boards that can be cleared without guessing, based on
+     * the no-guess check box. Restarts the game in the new mode. The pool of no-guess layouts
+     * only generates while the mode is on, so a player who never turns it on never pays for it.
+     */
+    public void setNoGuess() {
+        noGuess = noGuessCheckBox.isSelected();
+        if (noGuess && boardPool == null) {
+            boardPool = new SolvableBoardPool();
+        } else if (!noGuess && boardPool != null) {
+            boardPool.close();
+            boardPool = null;
+        }
+        restartGame();
+    }
+
+    /**
+     * Sets how the board is drawn based on the selected option in the renderer dropdown. Restarts
+     * the game with the new renderer.
+     */
+    public void setRenderMode() {
+        String rendererSelected = rendererDropdown.getSelectionModel().getSelectedItem();
+        if ("canvas".equals(rendererSelected)) {
+            renderMode = RenderMode.CANVAS;
+        } else if ("viewport".equals(rendererSelected)) {
+            renderMode = RenderMode.VIEWPORT;
+        } else {
+            renderMode = RenderMode.NODES;
+        }
+        restartGame();
     }
 
     /**
@@ -107,29 +388,338 @@ public class Controller {
 
     /**
      * Handles the user's click on a hexagonal cell on the game board. Reveals the cell or toggles a
-     * flag depending on the mouse button clicked.
+     * flag depending on the mouse button clicked; a primary click on a revealed number chords. The
+     * end of a drag that panned the board is not a click, and a stopped game ignores clicks.
      *
      * @param event the MouseEvent representing the user's click.
      * @param gameBoard the GameBoard instance representing the game board.
      */
     public void handleHexagonClick(MouseEvent event, GameBoard gameBoard) {
-        double mouseX = event.getX() - gameBoard.getLayoutX();
-        double mouseY = event.getY() - gameBoard.getLayoutY();
-        for (List<HexCell> col : gameBoard.getCellList()) {
-            for (HexCell cell : col) {
-                if (cell.ifContainsMouseXY(mouseX, mouseY)) {
-                    if (event.getButton() == MouseButton.PRIMARY) {
-                        gameBoard.revealCell(cell);
-                        if (gameBoard.isGameStopped()) {
-                            timeline.stop();
-                        }
-                    } else if (event.getButton() == MouseButton.SECONDARY) {
-                        cell.toggleFlag();
-                        displayMineCount(gameBoard.getMineCount());
-                    }
+        long clickStart = System.nanoTime();
+        if (!event.isStillSincePress() || gameBoard.isGameStopped()) {
+            return;
+        }
+        Point2D mouse = gameBoard.parentToLocal(event.getX(), event.getY());
+        int cellId = gameBoard.cellAt(mouse.getX(), mouse.getY());
+        if (cellId < 0) {
+            return;
+        }
+        if (event.getButton() == MouseButton.PRIMARY && gameBoard.getModel().isRevealed(cellId)) {
+            chord(cellId);
+        } else if (event.getButton() == MouseButton.PRIMARY) {
+            reveal(cellId);
+        } else if (event.getButton() == MouseButton.SECONDARY) {
+            toggleFlag(cellId);
+        } else {
+            return;
+        }
+        clickNanos = clickStart;
+    }
+
+    /**
+     * Runs after the layout pass of every pulse, right before the scene is rendered. Counts the
+     * time since the click that is waiting to be shown, and reports the latencies of a game that
+     * ended since the last pulse, now that its last click is counted.
+     */
+    private void afterPulse() {
+        if (clickNanos >= 0) {
+            renderLatency.record(System.nanoTime() - clickNanos);
+            clickNanos = -1;
+        }
+        if (latencyReportPending) {
+            latencyReportPending = false;
+            latencyLabel.setText("Engine " + engineLatency + "; click to render "
+                    + renderLatency);
+            exportLatency();
+        }
+    }
+
+    /**
+     * Starts counting the latencies of a new game.
+     */
+    private void resetLatency() {
+        engineLatency = new LatencyHistogram();
+        renderLatency = new LatencyHistogram();
+        clickNanos = -1;
+        latencyReportPending = false;
+        latencyLabel.setText("");
+    }
+
+    /**
+     * Plays the move the solver suggests: a cell that is certainly safe, a certain mine to flag,
+     * or, when the revealed numbers leave no certain move, the cell least likely to be a mine.
+     */
+    public void showHint() {
+        Hint hint = solver().hint();
+        if (hint != null) {
+            play(hint);
+        }
+    }
+
+    /**
+     * Plays the solver's moves until the game is over. All moves the solver is certain of are
+     * played as one batch, so the board is repainted once per batch; a guess is played alone.
+     * Stops early if a move neither reveals a cell nor changes the number of flags.
+     */
+    public void autoSolve() {
+        BoardModel model = gameBoard.getModel();
+        while (!gameBoard.isGameStopped()) {
+            int safeCells = model.getRemainingSafeCells();
+            int flagsLeft = model.getMineCount();
+            List<MoveCommand> known = solver().knownMoves();
+            if (!known.isEmpty()) {
+                playBatch(known);
+            } else {
+                Hint hint = solver().hint();
+                if (hint == null) {
+                    return;
                 }
+                play(hint);
+            }
+            if (!model.isGameStopped() && model.getRemainingSafeCells() == safeCells
+                    && model.getMineCount() == flagsLeft) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the solver of the current game board, creating it on first use.
+     *
+     * @return the solver.
+     */
+    private Solver solver() {
+        if (solver == null) {
+            solver = new Solver(gameBoard.getModel());
+        }
+        return solver;
+    }
+
+    /**
+     * Plays a suggested move, removing a flag in the way of a reveal first.
+     *
+     * @param hint the move to play.
+     */
+    private void play(Hint hint) {
+        int cellId = hint.getCellId();
+        if (hint.getAction() == MoveAction.FLAG) {
+            toggleFlag(cellId);
+            return;
+        }
+        if (gameBoard.getModel().isFlagged(cellId)) {
+            toggleFlag(cellId);
+        }
+        reveal(cellId);
+    }
+
+    /**
+     * Reveals a cell, records the move and stops the timer when the game ends.
+     *
+     * @param cellId the linear id of the cell.
+     */
+    private void reveal(int cellId) {
+        boolean wasStopped = gameBoard.isGameStopped();
+        moveLog.append(MoveAction.REVEAL, cellId, System.currentTimeMillis());
+        gameBoard.revealCell(cellId);
+        engineLatency.record(gameBoard.getLastEngineNanos());
+        afterReveal(wasStopped);
+    }
+
+    /**
+     * Chords on a revealed number and records the move.
+     *
+     * @param cellId the linear id of the revealed cell.
+     */
+    private void chord(int cellId) {
+        boolean wasStopped = gameBoard.isGameStopped();
+        moveLog.append(MoveAction.CHORD, cellId, System.currentTimeMillis());
+        gameBoard.chord(cellId);
+        engineLatency.record(gameBoard.getLastEngineNanos());
+        afterReveal(wasStopped);
+    }
+
+    /**
+     * Plays many moves in one engine pass and records each of them. Moves after the one that ends
+     * the game are recorded too; they change nothing, in the game as in a {@link Replay}.
+     *
+     * @param commands the moves to make.
+     */
+    private void playBatch(List<MoveCommand> commands) {
+        boolean wasStopped = gameBoard.isGameStopped();
+        long now = System.currentTimeMillis();
+        for (MoveCommand command : commands) {
+            moveLog.append(command.getAction(), command.getCellId(), now);
+        }
+        gameBoard.applyBatch(commands);
+        engineLatency.record(gameBoard.getLastEngineNanos());
+        displayMineCount(gameBoard.getMineCount());
+        afterReveal(wasStopped);
+    }
+
+    /**
+     * Shows the progress after a move that may have revealed cells. When the move ends the game,
+     * stops the clock and shows the time to the millisecond.
+     *
+     * @param wasStopped whether the game was stopped before the move.
+     */
+    private void afterReveal(boolean wasStopped) {
+        displayProgress(gameBoard.getProgress());
+        if (gameBoard.isGameStopped()) {
+            stopTimer();
+            if (!wasStopped) {
+                timerLabel.setText(convertToMinuteSecondsMillis(clock.getElapsedMillis()));
+                saveMoveLog();
+                recordGame();
+                latencyReportPending = true;
+            }
+        }
+        autosave();
+    }
+
+    /**
+     * Toggles the flag of a cell and records the move.
+     *
+     * @param cellId the linear id of the cell.
+     */
+    private void toggleFlag(int cellId) {
+        moveLog.append(MoveAction.FLAG, cellId, System.currentTimeMillis());
+        gameBoard.toggleFlag(cellId);
+        engineLatency.record(gameBoard.getLastEngineNanos());
+        displayMineCount(gameBoard.getMineCount());
+        autosave();
+    }
+
+    /**
+     * Hands the state of the game to the background saver, or drops the save once the game is
+     * over. Only the board is copied here and the move log captured in constant time; both are
+     * encoded and written off the FX thread.
+     */
+    private void autosave() {
+        if (gameBoard.isGameStopped()) {
+            autoSaver.discard();
+        } else {
+            autoSaver.save(SavedGame.of(gameBoard.getModel(), clock.getElapsedMillis(), moveLog));
+        }
+    }
+
+    /**
+     * Starts recording the moves of the current game board. Random boards place their mines on
+     * the first reveal and no-guess layouts around their start cell, which is revealed first, so
+     * every game has a safe start.
+     */
+    private void startMoveLog() {
+        moveLog = new MoveLog(gameBoard.getSpec(), gameBoard.getSeed(), System.currentTimeMillis(),
+                true);
+    }
+
+    /**
+     * Writes the move log of the finished game to the replay directory, named after its start
+     * time and seed.
+     */
+    private void saveMoveLog() {
+        try {
+            moveLog.write(replayFile(".hexlog"));
+        } catch (IOException e) {
+            System.err.println("Could not save the move log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the latency histograms of the finished game next to its move log.
+     */
+    private void exportLatency() {
+        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+        histograms.put("engine", engineLatency);
+        histograms.put("clickToRender", renderLatency);
+        try {
+            LatencyHistogram.export(replayFile(".latency.csv"), histograms);
+        } catch (IOException e) {
+            System.err.println("Could not export the latencies: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Names a file of the current game in the replay directory after its start time and seed,
+     * creating the directory if needed.
+     *
+     * @param extension the ending of the file name.
+     * @return the file.
+     * @throws IOException if the directory cannot be created.
+     */
+    private Path replayFile(String extension) throws IOException {
+        Path dir = AppPaths.replayDir();
+        Files.createDirectories(dir);
+        return dir.resolve(moveLog.getStartMillis() + "-" + Long.toHexString(moveLog.getSeed())
+                + extension);
+    }
+
+    /**
+     * Records the finished game in the statistics and shows them once the record is indexed,
+     * unless another game was started in the meantime.
+     */
+    private void recordGame() {
+        BoardModel model = gameBoard.getModel();
+        GameRecord record = new GameRecord(System.currentTimeMillis(), model.getSpec(),
+                model.getSeed(), model.isWon(), clock.getElapsedMillis(), moveLog.getMoveCount(),
+                model.get3BV());
+        GameBoard board = gameBoard;
+        stats.record(record).thenRunAsync(() -> {
+            if (board == gameBoard) {
+                showStats(record);
             }
+        }, Platform::runLater);
+    }
+
+    /**
+     * Shows the statistics of the spec of a finished game: games won, streaks, best time and,
+     * for a win, how it ranks.
+     *
+     * @param record the finished game.
+     */
+    private void showStats(GameRecord record) {
+        StatsIndex index = stats.getIndex();
+        BoardSpec spec = record.getSpec();
+        StringBuilder text = new StringBuilder()
+                .append("Won ").append(index.getWins(spec)).append(" of ")
+                .append(index.getGames(spec)).append(", streak ")
+                .append(index.getCurrentStreak(spec)).append(" (best ")
+                .append(index.getBestStreak(spec)).append(")");
+        long best = index.getBestTime(spec);
+        if (best >= 0) {
+            text.append(", best ").append(convertToMinuteSecondsMillis(best));
+        }
+        if (record.isWon()) {
+            double slower = index.getShareSlowerThan(spec, record.getTimeMillis());
+            text.append(", faster than ").append(Math.round(100 * slower)).append("% of wins");
         }
+        statsLabel.setText(text.toString());
+    }
+
+    /**
+     * Saves the game in progress with the time on its clock and stops the background threads:
+     * the board prefetch and no-guess pool are cancelled, the autosave and statistics writers
+     * finish their pending writes first. Called once when the application exits.
+     */
+    public void shutdown() {
+        autosave();
+        stopTimer();
+        nextGame.close();
+        SolvableBoardPool pool = boardPool;
+        if (pool != null) {
+            boardPool = null;
+            pool.close();
+        }
+        autoSaver.close();
+        stats.close();
+    }
+
+    /**
+     * Retrieves the moves recorded for the current game.
+     *
+     * @return the move log.
+     */
+    public MoveLog getMoveLog() {
+        return moveLog;
     }
 
     /**
@@ -141,25 +731,62 @@ public class Controller {
         countDisplay.setText(Integer.toString(mineCount));
     }
 
+    /**
+     * Displays the share of the board cleared so far as a percentage.
+     *
+     * @param progress the cleared fraction of the board, between 0 and 1.
+     */
+    public void displayProgress(double progress) {
+        progressLabel.setText((int) (progress * 100) + "%");
+    }
+
     /**
      * Resets the timer to zero and starts counting elapsed time.
      */
     public void resetTimer() {
+        startTimer(0);
+    }
+
+    /**
+     * Starts the clock from the given time and refreshes the timer label whenever the shown
+     * second changes.
+     *
+     * @param elapsedMillis the time already played.
+     */
+    private void startTimer(long elapsedMillis) {
         if (timeline != null) {
             timeline.stop();
         }
-        seconds = 0;
-        timerLabel.setText("00:00");
+        clock.reset(elapsedMillis);
+        clock.start();
+        shownSeconds = -1;
+        showTime();
         timerLabel.setLayoutX(400);
         timerLabel.setFont(Font.font("Arial", 30));
-        timeline = new Timeline(new KeyFrame(Duration.seconds(1), event -> {
-            seconds++;
-            timerLabel.setText(convertToMinuteSeconds(seconds));
-        }));
+        timeline = new Timeline(new KeyFrame(TIMER_TICK, event -> showTime()));
         timeline.setCycleCount(Timeline.INDEFINITE);
         timeline.play();
     }
 
+    /**
+     * Stops the clock and the refreshing of the timer label.
+     */
+    private void stopTimer() {
+        clock.pause();
+        timeline.stop();
+    }
+
+    /**
+     * Shows the whole seconds on the clock, unless they are shown already.
+     */
+    private void showTime() {
+        int elapsedSeconds = (int) (clock.getElapsedMillis() / 1000);
+        if (elapsedSeconds != shownSeconds) {
+            shownSeconds = elapsedSeconds;
+            timerLabel.setText(convertToMinuteSeconds(elapsedSeconds));
+        }
+    }
+
     /**
      * Converts a time in seconds to a formatted string in "mm:ss" format.
      *
@@ -167,10 +794,66 @@ public class Controller {
      * @return the formatted time string.
      */
     public String convertToMinuteSeconds(int seconds) {
-        int minutes = seconds / 60;
-        int remainingSeconds = seconds % 60;
+        return twoDigits(seconds / 60) + ":" + twoDigits(seconds % 60);
+    }
+
+    /**
+     * Converts a time in milliseconds to a formatted string in "mm:ss.SSS" format.
+     *
+     * @param millis the time in milliseconds.
+     * @return the formatted time string.
+     */
+    public String convertToMinuteSecondsMillis(long millis) {
+        int fraction = (int) (millis % 1000);
+        return convertToMinuteSeconds((int) (millis / 1000))
+                + (fraction < 10 ? ".00" : fraction < 100 ? ".0" : ".") + fraction;
+    }
+
+    private static String twoDigits(int value) {
+        return value < 10 ? "0" + value : Integer.toString(value);
+    }
 
-        return String.format("%02d:%02d", minutes, remainingSeconds);
+    /**
+     * The settings a board is built with, the key of the prefetched board.
+     */
+    private static final class GameSettings {
+        final Difficulty difficulty;
+        final RenderMode renderMode;
+        final boolean noGuess;
+
+        GameSettings(Difficulty difficulty, RenderMode renderMode, boolean noGuess) {
+            this.difficulty = difficulty;
+            this.renderMode = renderMode;
+            this.noGuess = noGuess;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof GameSettings)) {
+                return false;
+            }
+            GameSettings other = (GameSettings) o;
+            return difficulty == other.difficulty && renderMode == other.renderMode
+                    && noGuess == other.noGuess;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(difficulty, renderMode, noGuess);
+        }
+    }
+
+    /**
+     * A board built for a new game and the cell it is opened with, -1 for none.
+     */
+    private static final class NewGame {
+        final GameBoard board;
+        final int startCell;
+
+        NewGame(GameBoard board, int startCell) {
+            this.board = board;
+            this.startCell = startCell;
+        }
     }
 
 }
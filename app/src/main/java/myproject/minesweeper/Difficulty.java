@@ -1,8 +1,24 @@
 package myproject.minesweeper;
 
 /**
- * An enumeration representing different difficulty levels for the Minesweeper game.
+ * An enumeration representing different difficulty levels for the Minesweeper game. Each level is
+ * a preset {@link BoardSpec}.
  */
 public enum Difficulty {
-    EASY, MEDIUM, HARD, EXTREME;
+    EASY(5, 10), MEDIUM(7, 25), HARD(9, 60), EXTREME(11, 100);
+
+    private final BoardSpec spec;
+
+    Difficulty(int size, int mineCount) {
+        this.spec = BoardSpec.of(size, mineCount);
+    }
+
+    /**
+     * Retrieves the board size and mine count of this difficulty level.
+     *
+     * @return the board spec.
+     */
+    public BoardSpec getSpec() {
+        return spec;
+    }
 }
@@ -1,13 +1,14 @@
 package myproject.minesweeper;
 
-import java.lang.reflect.Array;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
+import javafx.geometry.Point2D;
 import javafx.scene.control.Label;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
+import javafx.scene.transform.Scale;
 
 /**
  * The hexagonal grid is stored in a 2-dimensional nested array. In the context of this class: -
@@ -37,48 +38,110 @@ import javafx.scene.text.FontWeight;
  */
 
 /**
- * Represents the game board for the Minesweeper game.
+ * Represents the game board for the Minesweeper game. The board state lives in a headless
+ * {@link BoardModel}; this pane only renders it, either with one {@link HexCell} per position,
+ * with a single {@link CanvasBoardRenderer}, or with the pooled cells of a
+ * {@link ViewportBoardRenderer}, see {@link RenderMode}.
+ *
+ * The board can be zoomed and panned. Both change only the transforms of this pane, so the board
+ * coordinates of the cells stay the same and {@link #cellAt} works on points mapped with
+ * {@link #parentToLocal(double, double)}.
  */
 public class GameBoard extends Pane {
 
-    private int size;
+    /**
+     * The smallest zoom factor, which also bounds the number of cells a viewport can show.
+     */
+    public static final double MIN_ZOOM = 0.5;
+
+    /**
+     * The largest zoom factor.
+     */
+    public static final double MAX_ZOOM = 4;
+
+    private BoardModel model;
+    private RenderMode renderMode;
     private List<ArrayList<HexCell>> hexCells;
-    private int mineCount;
-    private boolean gameStopped;
+    private CanvasBoardRenderer canvas;
+    private ViewportBoardRenderer viewport;
+    private final Scale zoom = new Scale(1, 1, 0, 0);
+    private double viewportWidth;
+    private double viewportHeight;
+    private long engineNanos;
 
     /**
-     * Constructs a GameBoard instance with the specified difficulty level. A list of cells are
-     * generated and random mines are distributed. Cells with no mine are labeled with neighbors
-     * mine count.
+     * Constructs a GameBoard instance with the specified difficulty level.
      *
      * @param difficulty the difficulty level of the game.
      */
     public GameBoard(Difficulty difficulty) {
-        switch (difficulty) {
-            case EASY:
-                this.size = 5;
-                this.mineCount = 10;
-                break;
-            case MEDIUM:
-                this.size = 7;
-                this.mineCount = 25;
-                break;
-            case HARD:
-                this.size = 9;
-                this.mineCount = 60;
-                break;
-            case EXTREME:
-                this.size = 11;
-                this.mineCount = 100;
-                break;
-            default:
-                this.size = 7;
-                this.mineCount = 25;
-                break;
+        this(difficulty.getSpec());
+    }
+
+    /**
+     * Constructs a GameBoard instance with the given size and mine count and a random seed.
+     *
+     * @param spec the board size and mine count of the game.
+     */
+    public GameBoard(BoardSpec spec) {
+        this(spec, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Constructs a GameBoard instance with the given size and mine count, drawn with nodes.
+     *
+     * @param spec the board size and mine count of the game.
+     * @param seed the seed the mines are placed with.
+     */
+    public GameBoard(BoardSpec spec, long seed) {
+        this(spec, seed, RenderMode.NODES);
+    }
+
+    /**
+     * Constructs a GameBoard instance with the given size and mine count. Mines are placed from
+     * the seed on the first reveal, around the revealed cell, so the first click is always safe
+     * and construction only builds the views. With {@link RenderMode#NODES} a list of cells is
+     * generated and each cell shows its neighbors mine count once revealed; with
+     * {@link RenderMode#CANVAS} the visible area is painted onto one canvas and with
+     * {@link RenderMode#VIEWPORT} cells are created for it, both once {@link #updateViewport} tells
+     * the board which area is visible.
+     *
+     * @param spec the board size and mine count of the game.
+     * @param seed the seed the mines are placed with.
+     * @param renderMode how the cells are drawn.
+     */
+    public GameBoard(BoardSpec spec, long seed, RenderMode renderMode) {
+        this(withPendingMines(new BoardModel(spec, seed)), renderMode);
+    }
+
+    /**
+     * Constructs a GameBoard instance that renders an existing board, e.g. one with a
+     * {@link SolvableLayout}. The model is not copied; its mines should be placed already or be
+     * pending, see {@link BoardModel#placeMinesOnFirstReveal()}.
+     *
+     * @param model the board to render.
+     * @param renderMode how the cells are drawn.
+     */
+    public GameBoard(BoardModel model, RenderMode renderMode) {
+        this.model = model;
+        this.renderMode = renderMode;
+        getTransforms().add(zoom);
+        if (renderMode == RenderMode.CANVAS) {
+            hexCells = new ArrayList<>();
+            canvas = new CanvasBoardRenderer(model, HexCell.RADIUS);
+            getChildren().add(canvas);
+        } else if (renderMode == RenderMode.VIEWPORT) {
+            hexCells = new ArrayList<>();
+            viewport = new ViewportBoardRenderer(this);
+            getChildren().add(viewport);
+        } else {
+            hexCells = generateCells();
         }
-        hexCells = generateCells();
-        distributeMines(mineCount);
-        labelNeighbors();
+    }
+
+    private static BoardModel withPendingMines(BoardModel model) {
+        model.placeMinesOnFirstReveal();
+        return model;
     }
 
     /**
@@ -102,7 +165,26 @@ public class GameBoard extends Pane {
     }
 
     /**
-     * Retrieves the list of hexagonal cell columns.
+     * Retrieves the headless model rendered by this board.
+     *
+     * @return the board model.
+     */
+    public BoardModel getModel() {
+        return model;
+    }
+
+    /**
+     * Retrieves how the board draws its cells.
+     *
+     * @return the render mode.
+     */
+    public RenderMode getRenderMode() {
+        return renderMode;
+    }
+
+    /**
+     * Retrieves the list of hexagonal cell columns. The list is empty unless the board is drawn
+     * with {@link RenderMode#NODES}.
      *
      * @return the list of hexagonal cell columns.
      */
@@ -110,12 +192,125 @@ public class GameBoard extends Pane {
         return hexCells;
     }
 
+    /**
+     * Retrieves the cell view for a linear cell id of the model.
+     *
+     * @param id the linear id of the cell.
+     * @return the hexagonal cell at that id, or null when the board is drawn on a canvas or the
+     *         cell is outside the viewport.
+     */
+    public HexCell getCell(int id) {
+        if (renderMode == RenderMode.CANVAS) {
+            return null;
+        }
+        if (viewport != null) {
+            return viewport.getCell(id);
+        }
+        return hexCells.get(model.colOf(id)).get(model.rowOf(id));
+    }
+
+    /**
+     * Finds the cell under a point in constant time.
+     *
+     * @param x the x coordinate in the board's coordinate space.
+     * @param y the y coordinate in the board's coordinate space.
+     * @return the linear id of the cell, or -1 if the point is outside the board.
+     */
+    public int cellAt(double x, double y) {
+        return HexGeometry.forRadius(HexCell.RADIUS).cellIdAt(model.getAdjacency(), x, y);
+    }
+
+    /**
+     * Tells the board the size of the area it is shown in and materializes or paints the cells
+     * inside it when the board is drawn with {@link RenderMode#VIEWPORT} or
+     * {@link RenderMode#CANVAS}. Zooming and panning update the viewport again with the last known
+     * size.
+     *
+     * @param width the width of the visible area in the parent's coordinate space.
+     * @param height the height of the visible area in the parent's coordinate space.
+     */
+    public void updateViewport(double width, double height) {
+        viewportWidth = width;
+        viewportHeight = height;
+        if (viewport == null && canvas == null) {
+            return;
+        }
+        Point2D topLeft = parentToLocal(0, 0);
+        Point2D bottomRight = parentToLocal(width, height);
+        if (canvas != null) {
+            canvas.setViewport(topLeft.getX(), topLeft.getY(), bottomRight.getX(),
+                    bottomRight.getY(), zoom.getX());
+        } else {
+            viewport.setViewport(topLeft.getX(), topLeft.getY(), bottomRight.getX(),
+                    bottomRight.getY());
+        }
+    }
+
+    /**
+     * Retrieves the renderer of the visible cells.
+     *
+     * @return the viewport renderer, or null unless the board is drawn with
+     *         {@link RenderMode#VIEWPORT}.
+     */
+    public ViewportBoardRenderer getViewport() {
+        return viewport;
+    }
+
+    /**
+     * Retrieves the canvas the visible cells are painted on.
+     *
+     * @return the canvas renderer, or null unless the board is drawn with
+     *         {@link RenderMode#CANVAS}.
+     */
+    public CanvasBoardRenderer getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * Scales the board around a point that stays in place, within {@link #MIN_ZOOM} and
+     * {@link #MAX_ZOOM}.
+     *
+     * @param factor the factor to multiply the current zoom by.
+     * @param pivotX the x coordinate of the fixed point in the parent's coordinate space.
+     * @param pivotY the y coordinate of the fixed point in the parent's coordinate space.
+     */
+    public void zoom(double factor, double pivotX, double pivotY) {
+        double scale = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom.getX() * factor));
+        Point2D pivot = parentToLocal(pivotX, pivotY);
+        zoom.setX(scale);
+        zoom.setY(scale);
+        setTranslateX(pivotX - getLayoutX() - scale * pivot.getX());
+        setTranslateY(pivotY - getLayoutY() - scale * pivot.getY());
+        updateViewport(viewportWidth, viewportHeight);
+    }
+
+    /**
+     * Retrieves the current zoom factor.
+     *
+     * @return the scale of the board, 1 when not zoomed.
+     */
+    public double getZoom() {
+        return zoom.getX();
+    }
+
+    /**
+     * Moves the board.
+     *
+     * @param dx the horizontal distance in the parent's coordinate space.
+     * @param dy the vertical distance in the parent's coordinate space.
+     */
+    public void pan(double dx, double dy) {
+        setTranslateX(getTranslateX() + dx);
+        setTranslateY(getTranslateY() + dy);
+        updateViewport(viewportWidth, viewportHeight);
+    }
+
     /**
      * 
      * @return total number of columns of the board
      */
     public int colCount() {
-        return 2 * size - 1;
+        return model.colCount();
     }
 
     /**
@@ -124,7 +319,7 @@ public class GameBoard extends Pane {
      * @return total number of cells in the given column
      */
     public int cellCountInCol(int x) {
-        return size + Math.min(x, 2 * size - 2 - x);
+        return model.cellCountInCol(x);
     }
 
     /**
@@ -132,7 +327,7 @@ public class GameBoard extends Pane {
      * @return the number of cells in the longest column (middle)
      */
     public int highestColCount() {
-        return 2 * size - 1;
+        return model.highestColCount();
     }
 
     /**
@@ -141,24 +336,15 @@ public class GameBoard extends Pane {
      * @param totalMines the total number of mines to be distributed.
      */
     public void distributeMines(int totalMines) {
-        Random rand = new Random();
-        int placedMines = 0;
-
-        while (placedMines < totalMines) {
-            int randomX = rand.nextInt(colCount());
-            int randomY = rand.nextInt(cellCountInCol(randomX));
-
-            HexCell cell = hexCells.get(randomX).get(randomY);
-            if (!cell.hasMine()) {
-                cell.addMine();
-                placedMines++;
-            }
-        }
+        model.distributeMines(totalMines);
+        refresh();
     }
 
     /**
      * Labels the neighboring cells of each hexagonal cell with the count of neighboring mines. Sets
-     * font styles and text colors based on the number of neighboring mines.
+     * the shared font and the text color of the count from {@link CellStyles}. Cells label
+     * themselves when they are revealed, so this is only needed to show the counts of covered
+     * cells.
      */
     public void labelNeighbors() {
         for (List<HexCell> col : hexCells) {
@@ -167,21 +353,8 @@ public class GameBoard extends Pane {
                     int count = cell.neighborMinesCount();
                     if (count > 0) {
                         cell.neighborMineCount.setText(Integer.toString(count));
-                        cell.neighborMineCount.setFont(Font.font("Arial", FontWeight.BOLD, 20));
-                        if (count == 1) {
-                            cell.neighborMineCount.setTextFill(Color.BLUE);
-                        } else if (count == 2) {
-                            cell.neighborMineCount.setTextFill(Color.GREEN);
-                        } else if (count == 3) {
-                            cell.neighborMineCount.setTextFill(Color.RED);
-                        } else if (count == 4) {
-                            cell.neighborMineCount.setTextFill(Color.PURPLE);
-                        } else if (count == 5) {
-                            cell.neighborMineCount.setTextFill(Color.MAROON);
-                        } else {
-                            cell.neighborMineCount.setTextFill(Color.TURQUOISE);
-                        }
-
+                        cell.neighborMineCount.setFont(CellStyles.COUNT_FONT);
+                        cell.neighborMineCount.setTextFill(CellStyles.countColor(count));
                     }
                 }
             }
@@ -195,31 +368,11 @@ public class GameBoard extends Pane {
      * @return a list of neighboring hexagonal cells.
      */
     public List<HexCell> getNeighbors(HexCell hexCell) {
-        int col = hexCell.getCol();
-        int row = hexCell.getRow();
-
-        int[][] potentialNeighbors = null;
-
-        int[][] centerNeighbors = {{col - 1, row - 1}, {col, row - 1}, {col + 1, row - 1},
-                {col - 1, row}, {col + 1, row}, {col, row + 1}};
-        int[][] leftNeighbors = {{col - 1, row - 1}, {col, row - 1}, {col + 1, row}, {col - 1, row},
-                {col, row + 1}, {col + 1, row + 1}};
-        int[][] rightNeighbors = {{col - 1, row}, {col, row - 1}, {col + 1, row - 1},
-                {col - 1, row + 1}, {col, row + 1}, {col + 1, row}};
-
-        if (col == size - 1) {
-            potentialNeighbors = centerNeighbors;
-        } else if (col < size - 1) {
-            potentialNeighbors = leftNeighbors;
-        } else {
-            potentialNeighbors = rightNeighbors;
+        int[] ids = model.getNeighbors(hexCell.getCellId());
+        List<HexCell> neighbors = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            neighbors.add(getCell(id));
         }
-
-        List<HexCell> neighbors = Arrays.asList(potentialNeighbors).stream()
-                .filter(pos -> isCellValid(pos[0], pos[1])).map(pos -> {
-                    return hexCells.get(pos[0]).get(pos[1]);
-                }).toList();
-
         return neighbors;
     }
 
@@ -231,59 +384,158 @@ public class GameBoard extends Pane {
      * @return true if the cell is valid, false otherwise.
      */
     public boolean isCellValid(int col, int row) {
-        if (col < 0 || col >= colCount() || row >= cellCountInCol(col) || row < 0) {
-            return false;
-        } else {
-            return true;
-        }
+        return model.isCellValid(col, row);
     }
 
     /**
      * Reveals a given hexagonal cell and its neighbors if any that has no neighbors with a mine.
      *
-     * @param hexCell the hexagonal cell to reveal neighbors for.
+     * @param cell the hexagonal cell to reveal neighbors for.
      */
     public void revealCell(HexCell cell) {
-        if (cell.isRevealed()) {
+        revealCell(cell.getCellId());
+    }
+
+    /**
+     * Reveals the cell with the given id and its neighbors if any that has no neighbors with a
+     * mine, and repaints what changed.
+     *
+     * @param id the linear id of the cell to reveal.
+     */
+    public void revealCell(int id) {
+        if (model.isRevealed(id)) {
+            engineNanos = 0;
             return;
         }
+        boolean wasStopped = model.isGameStopped();
+        long start = System.nanoTime();
+        int[] changed = model.revealCell(id);
+        engineNanos = System.nanoTime() - start;
+        show(changed, wasStopped);
+    }
 
-        cell.reveal();
-
-        if (cell.hasMine()) {
-            cell.getBaseCell().setFill(Color.RED);
-            endGame(false);
-            Label label = new Label("Game Over");
-            label.setFont(Font.font("Arial", 72)); // Set font size
-            label.setTextFill(Color.BROWN); // Set text color
-            label.setLayoutX(-180);
-            label.setLayoutY(-60);
-            label.setOpacity(0.7);
-            getChildren().add(label);
-            setGameToStop();
-            return;
+    /**
+     * Chords on a revealed number, see {@link BoardModel#chord(int)}, and repaints what changed.
+     *
+     * @param id the linear id of the revealed cell.
+     */
+    public void chord(int id) {
+        boolean wasStopped = model.isGameStopped();
+        long start = System.nanoTime();
+        int[] changed = model.chord(id);
+        engineNanos = System.nanoTime() - start;
+        show(changed, wasStopped);
+    }
+
+    /**
+     * Applies many moves in one engine pass, see {@link BoardModel#applyBatch(List)}, and
+     * repaints the cells they changed once at the end.
+     *
+     * @param commands the moves to make.
+     */
+    public void applyBatch(List<MoveCommand> commands) {
+        boolean wasStopped = model.isGameStopped();
+        long start = System.nanoTime();
+        int[] changed = model.applyBatch(commands);
+        engineNanos = System.nanoTime() - start;
+        show(changed, wasStopped);
+    }
+
+    /**
+     * Repaints the cells a move changed, or the whole board with its message if the move ended
+     * the game.
+     *
+     * @param changed the ids of the changed cells.
+     * @param wasStopped whether the game was stopped before the move.
+     */
+    private void show(int[] changed, boolean wasStopped) {
+        if (!wasStopped && model.isGameStopped()) {
+            refresh();
+            if (model.isWon()) {
+                showGameOverLabel("You Win", -150);
+            } else {
+                showGameOverLabel("Game Over", -180);
+            }
+        } else if (changed.length > 0) {
+            refresh(changed);
         }
+    }
 
-        if (!cell.hasNeighborMines()) {
-            for (HexCell neighbor : getNeighbors(cell)) {
-                if (!neighbor.isRevealed()) {
-                    revealCell(neighbor);
-                }
+    /**
+     * Toggles the flag of the cell with the given id and repaints it.
+     *
+     * @param id the linear id of the cell.
+     */
+    public void toggleFlag(int id) {
+        long start = System.nanoTime();
+        model.toggleFlag(id);
+        engineNanos = System.nanoTime() - start;
+        refresh(new int[] {id});
+    }
+
+    /**
+     * Retrieves the time the board model took for the last move made through this board,
+     * without the repaint that followed.
+     *
+     * @return the engine time of the last move in nanoseconds, 0 before the first move or after
+     *         a reveal of a revealed cell.
+     */
+    public long getLastEngineNanos() {
+        return engineNanos;
+    }
+
+    /**
+     * Adds the end of game message on top of the board.
+     *
+     * @param text the message to display.
+     * @param layoutX the horizontal position of the message.
+     */
+    private void showGameOverLabel(String text, double layoutX) {
+        Label label = new Label(text);
+        label.setFont(Font.font("Arial", 72)); // Set font size
+        label.setTextFill(Color.BROWN); // Set text color
+        label.setLayoutX(layoutX);
+        label.setLayoutY(-60);
+        label.setOpacity(0.7);
+        getChildren().add(label);
+    }
+
+    /**
+     * Updates every cell view to match the model.
+     */
+    public void refresh() {
+        if (canvas != null) {
+            canvas.repaint();
+            return;
+        }
+        if (viewport != null) {
+            viewport.refresh();
+            return;
+        }
+        for (List<HexCell> col : hexCells) {
+            for (HexCell cell : col) {
+                cell.refresh();
             }
         }
+    }
 
-        if (checkWin()) {
-            endGame(true);
-            Label label = new Label("You Win");
-            label.setFont(Font.font("Arial", 72)); // Set font size
-            label.setTextFill(Color.BROWN); // Set text color
-            label.setLayoutX(-150);
-            label.setLayoutY(-60);
-            label.setOpacity(0.7);
-            getChildren().add(label);
-            setGameToStop();
+    /**
+     * Updates the views of the given cells to match the model.
+     *
+     * @param ids the linear ids of the changed cells.
+     */
+    public void refresh(int[] ids) {
+        if (canvas != null) {
+            canvas.repaint(ids);
+            return;
+        }
+        if (viewport != null) {
+            viewport.refresh(ids);
             return;
         }
+        for (int id : ids) {
+            getCell(id).refresh();
+        }
     }
 
     /**
@@ -292,14 +544,16 @@ public class GameBoard extends Pane {
      * @return true if all non-mine cells are revealed, indicating a win; false otherwise.
      */
     public boolean checkWin() {
-        for (ArrayList<HexCell> column : hexCells) {
-            for (HexCell cell : column) {
-                if (!cell.hasMine() && !cell.isRevealed()) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return model.checkWin();
+    }
+
+    /**
+     * Retrieves the share of safe cells revealed so far.
+     *
+     * @return the cleared fraction of the board, between 0 and 1.
+     */
+    public double getProgress() {
+        return model.getProgress();
     }
 
     /**
@@ -308,16 +562,26 @@ public class GameBoard extends Pane {
      * @param win true if the game is won, false if it's lost.
      */
     public void endGame(boolean win) {
-        for (ArrayList<HexCell> column : hexCells) {
-            for (HexCell cell : column) {
-                if (win && cell.hasMine() && !cell.isFlagged()) {
-                    cell.flag();
-                } else if (!win) {
-                    cell.reveal();
-                }
-            }
-        }
+        model.endGame(win);
+        refresh();
+    }
+
+    /**
+     * Retrieves the size and mine count the board was created with.
+     *
+     * @return the board spec.
+     */
+    public BoardSpec getSpec() {
+        return model.getSpec();
+    }
 
+    /**
+     * Retrieves the seed the mines were placed with.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+        return model.getSeed();
     }
 
     /**
@@ -326,7 +590,7 @@ public class GameBoard extends Pane {
      * @return the size of the game board.
      */
     public int getSize() {
-        return size;
+        return model.getSize();
     }
 
     /**
@@ -335,7 +599,7 @@ public class GameBoard extends Pane {
      * @return the count of mines.
      */
     public int getMineCount() {
-        return mineCount;
+        return model.getMineCount();
     }
 
     /**
@@ -344,7 +608,7 @@ public class GameBoard extends Pane {
      * @param n the value to modify the mine count by.
      */
     public void setMineCount(int n) {
-        mineCount = mineCount + n;
+        model.setMineCount(n);
     }
 
     /**
@@ -353,14 +617,14 @@ public class GameBoard extends Pane {
      * @return true if the game is stopped, false otherwise.
      */
     public boolean isGameStopped() {
-        return gameStopped;
+        return model.isGameStopped();
     }
 
     /**
      * Sets the game to a stopped state.
      */
     public void setGameToStop() {
-        gameStopped = true;
+        model.setGameToStop();
     }
 
 }
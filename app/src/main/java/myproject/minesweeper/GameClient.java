@@ -0,0 +1,147 @@
+package myproject.minesweeper;
+
+import java.io.*;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Plays games hosted by a {@link GameServer} over one connection with the {@link WireProtocol}.
+ * Requests are sent one at a time, each waiting for its response. A client is not thread-safe.
+ */
+public class GameClient implements Closeable {
+
+    private final SocketChannel channel;
+    private final ByteBuffer request = ByteBuffer.allocate(GameServer.MAX_REQUEST + 4);
+    private final ByteBuffer header = ByteBuffer.allocate(4);
+    private ByteBuffer response = ByteBuffer.allocateDirect(16 * 1024);
+
+    /**
+     * Connects to a server on the loopback interface.
+     *
+     * @param port the port of the server.
+     * @throws IOException if the connection fails.
+     */
+    public GameClient(int port) throws IOException {
+        channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        channel.socket().setTcpNoDelay(true);
+    }
+
+    /**
+     * Starts a game.
+     *
+     * @param spec the board size and mine count.
+     * @param seed the seed the mines are placed with.
+     * @return the id of the new session.
+     * @throws IOException if the connection fails.
+     * @throws IllegalArgumentException if the server refuses the request.
+     */
+    public long create(BoardSpec spec, long seed) throws IOException {
+        WireProtocol.putCreate(request.clear(), spec, seed);
+        return Varint.getVarLong(exchange(WireProtocol.CREATE));
+    }
+
+    /**
+     * Reveals a cell.
+     *
+     * @param session the id of the session.
+     * @param cellId the linear id of the cell.
+     * @return the newly revealed cells and the status of the game.
+     * @throws IOException if the connection fails.
+     * @throws IllegalArgumentException if the server refuses the request.
+     */
+    public MoveDelta reveal(long session, int cellId) throws IOException {
+        WireProtocol.putCellRequest(request.clear(), WireProtocol.REVEAL, session, cellId);
+        return WireProtocol.getDelta(exchange(WireProtocol.REVEAL));
+    }
+
+    /**
+     * Toggles the flag of a cell.
+     *
+     * @param session the id of the session.
+     * @param cellId the linear id of the cell.
+     * @return the flag change, if any, and the status of the game.
+     * @throws IOException if the connection fails.
+     * @throws IllegalArgumentException if the server refuses the request.
+     */
+    public MoveDelta flag(long session, int cellId) throws IOException {
+        WireProtocol.putCellRequest(request.clear(), WireProtocol.FLAG, session, cellId);
+        return WireProtocol.getDelta(exchange(WireProtocol.FLAG));
+    }
+
+    /**
+     * Retrieves the whole state of a game, as a delta from an empty board.
+     *
+     * @param session the id of the session.
+     * @return every revealed and flagged cell and the status of the game.
+     * @throws IOException if the connection fails.
+     * @throws IllegalArgumentException if the server refuses the request.
+     */
+    public MoveDelta state(long session) throws IOException {
+        WireProtocol.putSessionRequest(request.clear(), WireProtocol.STATE, session);
+        ByteBuffer body = exchange(WireProtocol.STATE);
+        Varint.getVarInt(body);
+        Varint.getVarInt(body);
+        return WireProtocol.getDelta(body);
+    }
+
+    /**
+     * Ends a game.
+     *
+     * @param session the id of the session.
+     * @throws IOException if the connection fails.
+     * @throws IllegalArgumentException if the server refuses the request.
+     */
+    public void closeSession(long session) throws IOException {
+        WireProtocol.putSessionRequest(request.clear(), WireProtocol.CLOSE, session);
+        exchange(WireProtocol.CLOSE);
+    }
+
+    /**
+     * Sends the request and reads the body of its response, positioned after the opcode.
+     */
+    private ByteBuffer exchange(byte opcode) throws IOException {
+        request.flip();
+        while (request.hasRemaining()) {
+            channel.write(request);
+        }
+        readFully(header.clear());
+        int length = header.getInt(0);
+        if (length <= 0 || length > WireProtocol.MAX_FRAME) {
+            throw new IOException("Bad frame length " + length);
+        }
+        if (length > response.capacity()) {
+            response = ByteBuffer.allocateDirect(Math.max(length, response.capacity() * 2));
+        }
+        response.clear().limit(length);
+        readFully(response);
+        response.flip();
+        byte received = response.get();
+        if (received == WireProtocol.ERROR) {
+            throw new IllegalArgumentException(WireProtocol.getError(response));
+        }
+        if (received != opcode) {
+            throw new IOException("Expected a response to " + opcode + " but got " + received);
+        }
+        return response;
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("The server closed the connection");
+            }
+        }
+    }
+
+    /**
+     * Closes the connection. Sessions stay on the server until closed or idle.
+     *
+     * @throws IOException if the connection cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
@@ -0,0 +1,93 @@
+package myproject.minesweeper;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Measures the time a game is played, from {@link System#nanoTime()}, so the time is monotonic,
+ * unaffected by changes to the wall clock and as precise as the timer of the platform. The clock
+ * only runs between {@link #start()} and {@link #pause()}; a game that stops keeps the time it
+ * stopped at, however late it is read.
+ *
+ * Not thread safe; the {@link Controller} uses it from the FX thread.
+ */
+public final class GameClock {
+
+    private final LongSupplier nanoTime;
+    private long elapsedNanos;
+    private long startedAt;
+    private boolean running;
+
+    /**
+     * Creates a clock at zero that is not running.
+     */
+    public GameClock() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * Creates a clock at zero that reads the time from the given source.
+     *
+     * @param nanoTime the source of the time in nanoseconds.
+     */
+    GameClock(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Starts or continues counting. Does nothing if the clock is running.
+     */
+    public void start() {
+        if (!running) {
+            startedAt = nanoTime.getAsLong();
+            running = true;
+        }
+    }
+
+    /**
+     * Stops counting and keeps the time so far. Does nothing if the clock is not running.
+     */
+    public void pause() {
+        if (running) {
+            elapsedNanos += nanoTime.getAsLong() - startedAt;
+            running = false;
+        }
+    }
+
+    /**
+     * Stops the clock and sets its time, e.g. to the time of a resumed game.
+     *
+     * @param elapsedMillis the time already played.
+     */
+    public void reset(long elapsedMillis) {
+        running = false;
+        elapsedNanos = elapsedMillis * 1_000_000;
+    }
+
+    /**
+     * Checks whether the clock is counting.
+     *
+     * @return true between {@link #start()} and {@link #pause()}.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Retrieves the time counted so far.
+     *
+     * @return the elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return running ? elapsedNanos + nanoTime.getAsLong() - startedAt : elapsedNanos;
+    }
+
+    /**
+     * Retrieves the time counted so far in whole milliseconds.
+     *
+     * @return the elapsed time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return getElapsedNanos() / 1_000_000;
+    }
+
+}
@@ -0,0 +1,153 @@
+package myproject.minesweeper;
+
+/**
+ * The result of one finished game as kept by the {@link StatsStore}: when it ended, what it was
+ * played on, how it ended, how long it took and how much work it was.
+ */
+public final class GameRecord {
+
+    /**
+     * The columns of a record in the statistics file, in order.
+     */
+    static final String[] HEADER = {"finished", "difficulty", "size", "mines", "seed", "won",
+        "timeMillis", "moves", "3bv"};
+
+    private static final String CUSTOM = "CUSTOM";
+
+    private final long finishedMillis;
+    private final BoardSpec spec;
+    private final long seed;
+    private final boolean won;
+    private final long timeMillis;
+    private final int moves;
+    private final int threeBV;
+
+    /**
+     * Creates a record.
+     *
+     * @param finishedMillis the epoch time the game ended at.
+     * @param spec the board size and mine count of the game.
+     * @param seed the seed the mines were placed with.
+     * @param won true if the game was won.
+     * @param timeMillis the time played.
+     * @param moves the number of moves made.
+     * @param threeBV the 3BV of the board, see {@link BoardModel#get3BV()}.
+     */
+    public GameRecord(long finishedMillis, BoardSpec spec, long seed, boolean won,
+            long timeMillis, int moves, int threeBV) {
+        this.finishedMillis = finishedMillis;
+        this.spec = spec;
+        this.seed = seed;
+        this.won = won;
+        this.timeMillis = timeMillis;
+        this.moves = moves;
+        this.threeBV = threeBV;
+    }
+
+    /**
+     * Encodes the record as a row of the statistics file. The difficulty column names the preset
+     * the spec matches, or CUSTOM.
+     *
+     * @return the fields of the row, see {@link #HEADER}.
+     */
+    String[] toRow() {
+        String difficulty = CUSTOM;
+        for (Difficulty preset : Difficulty.values()) {
+            if (preset.getSpec().equals(spec)) {
+                difficulty = preset.name();
+            }
+        }
+        return new String[] {Long.toString(finishedMillis), difficulty,
+            Integer.toString(spec.getSize()), Integer.toString(spec.getMineCount()),
+            Long.toString(seed), Boolean.toString(won), Long.toString(timeMillis),
+            Integer.toString(moves), Integer.toString(threeBV)};
+    }
+
+    /**
+     * Decodes a row of the statistics file.
+     *
+     * @param row the fields of the row.
+     * @return the record.
+     * @throws IllegalArgumentException if the row is malformed.
+     */
+    static GameRecord fromRow(String[] row) {
+        if (row.length != HEADER.length) {
+            throw new IllegalArgumentException("Expected " + HEADER.length + " fields, got "
+                    + row.length);
+        }
+        return new GameRecord(Long.parseLong(row[0]),
+                BoardSpec.of(Integer.parseInt(row[2]), Integer.parseInt(row[3])),
+                Long.parseLong(row[4]), Boolean.parseBoolean(row[5]), Long.parseLong(row[6]),
+                Integer.parseInt(row[7]), Integer.parseInt(row[8]));
+    }
+
+    /**
+     * Retrieves the epoch time the game ended at.
+     *
+     * @return the end time in milliseconds.
+     */
+    public long getFinishedMillis() {
+        return finishedMillis;
+    }
+
+    /**
+     * Retrieves the board size and mine count of the game.
+     *
+     * @return the board spec.
+     */
+    public BoardSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Retrieves the seed the mines were placed with.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Checks whether the game was won.
+     *
+     * @return true if every safe cell was revealed.
+     */
+    public boolean isWon() {
+        return won;
+    }
+
+    /**
+     * Retrieves the time played.
+     *
+     * @return the time in milliseconds.
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * Retrieves the number of moves made.
+     *
+     * @return the move count.
+     */
+    public int getMoves() {
+        return moves;
+    }
+
+    /**
+     * Retrieves the 3BV of the board.
+     *
+     * @return the fewest reveals that clear the board.
+     */
+    public int get3BV() {
+        return threeBV;
+    }
+
+    @Override
+    public String toString() {
+        return spec + (won ? " won in " : " lost after ") + timeMillis + " ms, " + moves
+                + " moves, 3BV " + threeBV;
+    }
+
+}
@@ -0,0 +1,234 @@
+package myproject.minesweeper;
+
+import java.io.*;
+import java.net.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Serves the games of a {@link SessionManager} over a local socket with the binary
+ * {@link WireProtocol}. Every request frame gets one response frame, in order.
+ *
+ * Each connection is read by its own thread, which hands the commands to the event loop of the
+ * session's shard. The event loop encodes the response, e.g. the delta of a reveal, straight from
+ * the board into a pooled buffer, which the connection thread writes to the socket and returns to
+ * the pool. A response larger than the pooled buffers, like the STATE of a large board, goes to
+ * a heap buffer sized from its actual content and is written through a pooled buffer in chunks.
+ */
+public class GameServer implements Closeable {
+
+    /**
+     * The largest request body accepted; CREATE, the longest request, takes at most 29 bytes.
+     */
+    public static final int MAX_REQUEST = 64;
+
+    private static final int[] NO_CELLS = new int[0];
+
+    private final SessionManager sessions;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService connections;
+    private final BufferPool buffers = new BufferPool(16 * 1024, 256);
+    private final Set<SocketChannel> openChannels = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Binds the server to a port of the loopback interface.
+     *
+     * @param sessions the games to serve.
+     * @param port the port to listen on, or 0 for any free port.
+     * @throws IOException if the port cannot be bound.
+     */
+    public GameServer(SessionManager sessions, int port) throws IOException {
+        this.sessions = sessions;
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 128);
+        this.connections = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "game-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts accepting connections in the background.
+     */
+    public void start() {
+        connections.execute(this::run);
+    }
+
+    /**
+     * Retrieves the port the server listens on.
+     *
+     * @return the local port.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Retrieves the pool the responses are encoded into.
+     *
+     * @return the buffer pool.
+     */
+    public BufferPool getBufferPool() {
+        return buffers;
+    }
+
+    /**
+     * Accepts connections on the calling thread until the server is closed.
+     */
+    public void run() {
+        while (serverChannel.isOpen()) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                openChannels.add(channel);
+                connections.execute(() -> serve(channel));
+            } catch (ClosedChannelException | RejectedExecutionException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("Could not accept a connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        ByteBuffer request = ByteBuffer.allocate(MAX_REQUEST);
+        try (channel) {
+            channel.socket().setTcpNoDelay(true);
+            while (readFully(channel, header.clear())) {
+                int length = header.getInt(0);
+                if (length <= 0 || length > MAX_REQUEST) {
+                    write(channel, error("Bad frame length " + length));
+                    return;
+                }
+                request.clear().limit(length);
+                if (!readFully(channel, request)) {
+                    return;
+                }
+                write(channel, handle(request.flip()));
+            }
+        } catch (IOException e) {
+            // the client went away
+        } finally {
+            openChannels.remove(channel);
+        }
+    }
+
+    private static boolean readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void write(SocketChannel channel, ByteBuffer response) throws IOException {
+        buffers.writeTo(response.flip(), channel);
+    }
+
+    /**
+     * Runs one request and encodes its response frame.
+     *
+     * @param request the request body, without its length.
+     * @return a buffer of the pool holding the response frame, positioned after it.
+     */
+    ByteBuffer handle(ByteBuffer request) {
+        try {
+            byte opcode = request.get();
+            long session = Varint.getVarLong(request);
+            switch (opcode) {
+                case WireProtocol.CREATE:
+                    return create(request);
+                case WireProtocol.REVEAL:
+                    return reveal(session, Varint.getVarInt(request));
+                case WireProtocol.FLAG:
+                    return flag(session, Varint.getVarInt(request));
+                case WireProtocol.STATE:
+                    return state(session);
+                case WireProtocol.CLOSE:
+                    if (!sessions.remove(session).join()) {
+                        return error("Unknown session " + session);
+                    }
+                    ByteBuffer response = buffers.acquire();
+                    WireProtocol.putSessionResponse(response, WireProtocol.CLOSE, session);
+                    return response;
+                default:
+                    return error("Unknown command " + opcode);
+            }
+        } catch (BufferUnderflowException e) {
+            return error("Malformed request");
+        } catch (CompletionException e) {
+            return error(e.getCause().getMessage());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return error(e.getMessage());
+        }
+    }
+
+    private ByteBuffer create(ByteBuffer request) {
+        int size = Varint.getVarInt(request);
+        int mines = Varint.getVarInt(request);
+        long seed = request.getLong();
+        long id = sessions.create(BoardSpec.of(size, mines), seed).join();
+        ByteBuffer response = buffers.acquire();
+        WireProtocol.putSessionResponse(response, WireProtocol.CREATE, id);
+        return response;
+    }
+
+    private ByteBuffer reveal(long session, int cellId) {
+        return sessions.execute(session, gameSession -> {
+            int[] changed = gameSession.reveal(cellId);
+            BoardModel model = gameSession.getModel();
+            ByteBuffer response = buffers.acquire(
+                    WireProtocol.deltaBound(model, changed.length, 0));
+            WireProtocol.putDelta(response, WireProtocol.REVEAL, model, changed, NO_CELLS);
+            return response;
+        }).join();
+    }
+
+    private ByteBuffer flag(long session, int cellId) {
+        return sessions.execute(session, gameSession -> {
+            BoardModel model = gameSession.getModel();
+            boolean before = cellId >= 0 && cellId < model.getCellCount()
+                    && model.isFlagged(cellId);
+            boolean after = gameSession.toggleFlag(cellId);
+            ByteBuffer response = buffers.acquire(WireProtocol.deltaBound(model, 0, 1));
+            WireProtocol.putDelta(response, WireProtocol.FLAG, model, NO_CELLS,
+                    before != after ? new int[] {cellId} : NO_CELLS);
+            return response;
+        }).join();
+    }
+
+    private ByteBuffer state(long session) {
+        return sessions.execute(session, gameSession -> {
+            BoardModel model = gameSession.getModel();
+            ByteBuffer response = buffers.acquire(WireProtocol.stateBound(model));
+            WireProtocol.putState(response, model);
+            return response;
+        }).join();
+    }
+
+    private ByteBuffer error(String message) {
+        ByteBuffer response = buffers.acquire();
+        WireProtocol.putError(response, message);
+        return response;
+    }
+
+    /**
+     * Stops accepting connections and closes the open ones. The session manager is left running.
+     *
+     * @throws IOException if the server channel cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        connections.shutdown();
+        for (SocketChannel channel : openChannels) {
+            channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package myproject.minesweeper;
+
+/**
+ * One game hosted by a {@link SessionManager}: a headless board and the time it was last used.
+ * A session is only ever touched by the event loop of its shard, so it needs no locking.
+ */
+public class GameSession {
+
+    private final long id;
+    private final BoardModel model;
+    private long lastAccessNanos;
+
+    /**
+     * Creates a session and places its mines.
+     *
+     * @param id the id of the session.
+     * @param spec the board size and mine count of the game.
+     * @param seed the seed the mines are placed with.
+     */
+    public GameSession(long id, BoardSpec spec, long seed) {
+        this.id = id;
+        this.model = new BoardModel(spec, seed);
+        this.model.distributeMines(spec.getMineCount());
+        this.lastAccessNanos = System.nanoTime();
+    }
+
+    /**
+     * Reveals a cell like {@link GameBoard#revealCell(int)}: the cell and the empty region around
+     * it, or the whole board if it holds a mine.
+     *
+     * @param cellId the linear id of the cell.
+     * @return the ids of the newly revealed cells; empty if nothing changed.
+     * @throws IllegalArgumentException if the cell is not on the board.
+     */
+    public int[] reveal(int cellId) {
+        checkCell(cellId);
+        if (model.isGameStopped()) {
+            return new int[0];
+        }
+        return model.revealCell(cellId);
+    }
+
+    /**
+     * Toggles the flag of a cell like {@link GameBoard#toggleFlag(int)}.
+     *
+     * @param cellId the linear id of the cell.
+     * @return true if the cell is flagged afterwards.
+     * @throws IllegalArgumentException if the cell is not on the board.
+     */
+    public boolean toggleFlag(int cellId) {
+        checkCell(cellId);
+        if (!model.isGameStopped()) {
+            model.toggleFlag(cellId);
+        }
+        return model.isFlagged(cellId);
+    }
+
+    private void checkCell(int cellId) {
+        if (cellId < 0 || cellId >= model.getCellCount()) {
+            throw new IllegalArgumentException("No cell " + cellId + " on " + model.getSpec());
+        }
+    }
+
+    /**
+     * Marks the session as used now.
+     */
+    public void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+
+    /**
+     * Retrieves the id of the session.
+     *
+     * @return the session id.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Retrieves the board of the session.
+     *
+     * @return the board model.
+     */
+    public BoardModel getModel() {
+        return model;
+    }
+
+    /**
+     * Retrieves the status of the game.
+     *
+     * @return the game status.
+     */
+    public GameStatus getStatus() {
+        return GameStatus.of(model);
+    }
+
+    /**
+     * Retrieves the time the session was last used.
+     *
+     * @return the {@link System#nanoTime()} of the last command.
+     */
+    public long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+}
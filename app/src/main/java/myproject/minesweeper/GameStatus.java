@@ -0,0 +1,32 @@
+package myproject.minesweeper;
+
+/**
+ * The stage a game is in, as reported to clients of the {@link GameServer}.
+ */
+public enum GameStatus {
+    /**
+     * The game is still being played.
+     */
+    PLAYING,
+    /**
+     * Every safe cell was revealed.
+     */
+    WON,
+    /**
+     * A mine was revealed.
+     */
+    LOST;
+
+    /**
+     * Determines the status of a board.
+     *
+     * @param model the board.
+     * @return the status of its game.
+     */
+    public static GameStatus of(BoardModel model) {
+        if (!model.isGameStopped()) {
+            return PLAYING;
+        }
+        return model.isWon() ? WON : LOST;
+    }
+}
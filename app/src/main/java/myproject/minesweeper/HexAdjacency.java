@@ -0,0 +1,296 @@
+package myproject.minesweeper;
+
+import java.lang.ref.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Neighbor index of a hexagonal board of a given size, shared by every board of that size. Cells
+ * are addressed by the linear ids of {@link BoardModel}. The neighbors are stored CSR-style: the
+ * neighbors of cell id are neighbors[offsets[id]] to neighbors[offsets[id + 1] - 1].
+ *
+ * Iterating the table does not allocate:
+ *
+ * <pre>
+ * for (int i = adjacency.start(id); i &lt; adjacency.end(id); i++) {
+ *     int neighbor = adjacency.neighbor(i);
+ * }
+ * </pre>
+ *
+ * Boards above {@link #TABLE_LIMIT} cells do not get a table, since it would cost 28 bytes per
+ * cell. For those {@link #neighbors(int, int[])} computes the neighbors from the coordinates.
+ *
+ * The indexes of the {@link Difficulty} presets are kept for good. Other sizes, e.g. the boards
+ * clients of the {@link GameServer} ask for, are only shared while a board of that size uses
+ * them, and are collected with the last such board, so the cache never holds more tables than
+ * the live boards do.
+ */
+public final class HexAdjacency {
+
+    /**
+     * The largest cell count for which the neighbor table is precomputed.
+     */
+    public static final int TABLE_LIMIT = 1 << 20;
+
+    private static final Map<Integer, HexAdjacency> PRESETS = new ConcurrentHashMap<>();
+    private static final Map<Integer, SizeReference> SHARED = new HashMap<>();
+    private static final ReferenceQueue<HexAdjacency> COLLECTED = new ReferenceQueue<>();
+
+    private final int size;
+    private final int cellCount;
+    private final int[] colStart;
+    private final int[] offsets;
+    private final int[] neighbors;
+
+    /**
+     * Retrieves the shared neighbor index for boards of the given size, building it if no board
+     * of that size uses one.
+     *
+     * @param size the number of cells in the centered column.
+     * @return the neighbor index for that size.
+     */
+    public static HexAdjacency forSize(int size) {
+        for (Difficulty difficulty : Difficulty.values()) {
+            if (difficulty.getSpec().getSize() == size) {
+                return PRESETS.computeIfAbsent(size, HexAdjacency::new);
+            }
+        }
+        synchronized (SHARED) {
+            for (Reference<?> cleared = COLLECTED.poll(); cleared != null;
+                    cleared = COLLECTED.poll()) {
+                SizeReference reference = (SizeReference) cleared;
+                SHARED.remove(reference.size, reference);
+            }
+            SizeReference reference = SHARED.get(size);
+            HexAdjacency adjacency = reference != null ? reference.get() : null;
+            if (adjacency == null) {
+                adjacency = new HexAdjacency(size);
+                SHARED.put(size, new SizeReference(adjacency));
+            }
+            return adjacency;
+        }
+    }
+
+    /**
+     * Counts the neighbor indexes of sizes other than the presets that are still cached.
+     *
+     * @return the number of cache entries, including ones collected since the last lookup.
+     */
+    static int sharedCount() {
+        synchronized (SHARED) {
+            return SHARED.size();
+        }
+    }
+
+    private HexAdjacency(int size) {
+        this.size = size;
+        int colCount = 2 * size - 1;
+        this.colStart = new int[colCount + 1];
+        for (int col = 0; col < colCount; col++) {
+            colStart[col + 1] = colStart[col] + size + Math.min(col, 2 * size - 2 - col);
+        }
+        this.cellCount = colStart[colCount];
+
+        if (cellCount > TABLE_LIMIT) {
+            this.offsets = null;
+            this.neighbors = null;
+            return;
+        }
+        this.offsets = new int[cellCount + 1];
+        int[] buffer = new int[6];
+        int total = 0;
+        for (int id = 0; id < cellCount; id++) {
+            offsets[id] = total;
+            total += computeNeighbors(id, buffer);
+        }
+        offsets[cellCount] = total;
+        this.neighbors = new int[total];
+        for (int id = 0; id < cellCount; id++) {
+            computeNeighbors(id, buffer);
+            System.arraycopy(buffer, 0, neighbors, offsets[id], offsets[id + 1] - offsets[id]);
+        }
+    }
+
+    /**
+     * Computes the neighbors of a cell from its coordinates. Columns left of the centre are shifted
+     * down relative to their right neighbor and columns right of the centre are shifted up.
+     *
+     * @param id the linear id of the cell.
+     * @param out receives the neighbor ids; must hold at least 6 entries.
+     * @return the number of neighbors written.
+     */
+    private int computeNeighbors(int id, int[] out) {
+        int col = colOf(id);
+        int row = id - colStart[col];
+        int leftShift = col <= size - 1 ? -1 : 0;
+        int rightShift = col >= size - 1 ? -1 : 0;
+        int count = 0;
+        count = add(col - 1, row + leftShift, out, count);
+        count = add(col - 1, row + leftShift + 1, out, count);
+        count = add(col, row - 1, out, count);
+        count = add(col, row + 1, out, count);
+        count = add(col + 1, row + rightShift, out, count);
+        count = add(col + 1, row + rightShift + 1, out, count);
+        return count;
+    }
+
+    private int add(int col, int row, int[] out, int count) {
+        if (isCellValid(col, row)) {
+            out[count++] = cellId(col, row);
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether the neighbor table was precomputed for this size.
+     *
+     * @return true if {@link #start(int)}, {@link #end(int)} and {@link #neighbor(int)} can be
+     *         used, false otherwise.
+     */
+    public boolean hasTable() {
+        return neighbors != null;
+    }
+
+    /**
+     * Retrieves the first table index of a cell's neighbors.
+     *
+     * @param id the linear id of the cell.
+     * @return the index of the first neighbor in the table.
+     */
+    public int start(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * Retrieves the table index after the last neighbor of a cell.
+     *
+     * @param id the linear id of the cell.
+     * @return the index after the last neighbor in the table.
+     */
+    public int end(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * Retrieves a neighbor id from the table.
+     *
+     * @param index the table index, between start(id) and end(id).
+     * @return the linear id of the neighbor.
+     */
+    public int neighbor(int index) {
+        return neighbors[index];
+    }
+
+    /**
+     * Writes the neighbors of a cell into the given buffer.
+     *
+     * @param id the linear id of the cell.
+     * @param out receives the neighbor ids; must hold at least 6 entries.
+     * @return the number of neighbors written.
+     */
+    public int neighbors(int id, int[] out) {
+        if (neighbors == null) {
+            return computeNeighbors(id, out);
+        }
+        int start = offsets[id];
+        int count = offsets[id + 1] - start;
+        System.arraycopy(neighbors, start, out, 0, count);
+        return count;
+    }
+
+    /**
+     * Retrieves the number of neighbors of a cell.
+     *
+     * @param id the linear id of the cell.
+     * @return the number of neighbors, between 3 and 6.
+     */
+    public int degree(int id) {
+        if (neighbors == null) {
+            return computeNeighbors(id, new int[6]);
+        }
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * Retrieves the size of the boards this index belongs to.
+     *
+     * @return the number of cells in the centered column.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     *
+     * @return total number of cells on the board
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     *
+     * @param x - the xth column on the board
+     * @return total number of cells in the given column
+     */
+    public int cellCountInCol(int x) {
+        return size + Math.min(x, 2 * size - 2 - x);
+    }
+
+    /**
+     * Checks whether a cell at the given coordinates is valid on the board.
+     *
+     * @param col the column index of the cell.
+     * @param row the row index of the cell.
+     * @return true if the cell is valid, false otherwise.
+     */
+    public boolean isCellValid(int col, int row) {
+        return col >= 0 && col < 2 * size - 1 && row >= 0 && row < cellCountInCol(col);
+    }
+
+    /**
+     * Converts (col, row) coordinates to a linear cell id.
+     *
+     * @param col the column index of the cell.
+     * @param row the row index of the cell.
+     * @return the linear id of the cell.
+     */
+    public int cellId(int col, int row) {
+        return colStart[col] + row;
+    }
+
+    /**
+     * Retrieves the column of a linear cell id.
+     *
+     * @param id the linear id of the cell.
+     * @return the column index of the cell.
+     */
+    public int colOf(int id) {
+        int col = Arrays.binarySearch(colStart, id);
+        return col >= 0 ? col : -col - 2;
+    }
+
+    /**
+     * Retrieves the row of a linear cell id.
+     *
+     * @param id the linear id of the cell.
+     * @return the row index of the cell.
+     */
+    public int rowOf(int id) {
+        return id - colStart[colOf(id)];
+    }
+
+    /**
+     * A weak reference to a shared index that remembers its size, so the cache entry can be
+     * removed once the index is collected.
+     */
+    private static final class SizeReference extends WeakReference<HexAdjacency> {
+        final int size;
+
+        SizeReference(HexAdjacency adjacency) {
+            super(adjacency, COLLECTED);
+            this.size = adjacency.size;
+        }
+    }
+
+}
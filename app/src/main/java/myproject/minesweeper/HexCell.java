@@ -10,76 +10,59 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Polygon;
 
 /**
- * Represents a hexagonal cell in a Minesweeper game.
+ * Represents a hexagonal cell in a Minesweeper game. The cell is only a view: mine, reveal and flag
+ * state are read from the {@link BoardModel} of its game board. Its shapes are drawn around its
+ * own origin and the pane is moved to the cell's position, so a cell can be rebound to another
+ * position with {@link #bind(int, int)}.
  */
 
 public class HexCell extends Pane {
     private int col;
     private int row;
+    private int id;
+    private boolean labeled;
     GameBoard gameBoard;
-    private final int RADIUS = 15;
-    private boolean hasMine;
-    private boolean isRevealed;
-    private boolean isFlagged;
+    static final int RADIUS = 15;
     private Polygon baseCell;
     private Polygon cellCover;
     @FXML
     public Label neighborMineCount;
     @FXML
-    static Image mineImg = null;
-    @FXML
     private ImageView mineImgView;
     @FXML
-    static Image flagImg = null;
-    @FXML
     private ImageView flagImgView;
 
     /**
-     * Gets the mine image. If the mine image hasn't been loaded yet, it loads it from the resource
-     * file.
+     * Gets the mine image shared by all cells.
      *
      * @return the mine image.
      */
     public static Image getMineImg() {
-        if (mineImg == null) {
-            mineImg = new Image(HexCell.class.getResource("mine.png").toString(), 20, 20, false,
-                    false);
-        }
-        return mineImg;
+        return CellStyles.mineImage();
     }
 
     /**
-     * Gets the flag image. If the flag image hasn't been loaded yet, it loads it from the resource
-     * file.
+     * Gets the flag image shared by all cells.
      *
      * @return the flag image.
      */
     public static Image getFlagImg() {
-        if (flagImg == null) {
-            flagImg = new Image(HexCell.class.getResource("flag.png").toString(), 20, 20, false,
-                    false);
-        }
-        return flagImg;
+        return CellStyles.flagImage();
     }
 
     /**
-     * Creates a hexagon shape with the specified center coordinates.
+     * Creates a hexagon shape with the specified center coordinates, from the corners shared by
+     * all hexagons of this radius.
      *
      * @param centerX the x-coordinate of the center.
      * @param centerY the y-coordinate of the center.
      * @return the hexagon shape.
      */
     private Polygon createHexagon(double centerX, double centerY) {
-        Polygon hexagon = new Polygon();
-
-        for (int i = 0; i < 6; i++) {
-            double angle = 2.0 * Math.PI / 6 * i;
-            double x = centerX + RADIUS * Math.cos(angle);
-            double y = centerY + RADIUS * Math.sin(angle);
-            hexagon.getPoints().addAll(x, y);
-        }
+        HexGeometry geometry = HexGeometry.forRadius(RADIUS);
+        Polygon hexagon = new Polygon(geometry.polygonPoints(centerX, centerY));
 
-        hexagon.setFill(Color.LIGHTGRAY);
+        hexagon.setFill(CellStyles.REVEALED_FILL);
         hexagon.setStroke(Color.BLACK);
         hexagon.setStrokeWidth(1);
 
@@ -94,11 +77,7 @@ public class HexCell extends Pane {
      * @return the base cell polygon.
      */
     public Polygon createBaseCell(double centerX, double centerY) {
-        Polygon baseCell = createHexagon(centerX, centerY);
-        baseCell.setFill(Color.LIGHTGRAY);
-        baseCell.setStroke(Color.BLACK);
-        baseCell.setStrokeWidth(1);
-        return baseCell;
+        return createHexagon(centerX, centerY);
     }
 
     /**
@@ -110,9 +89,7 @@ public class HexCell extends Pane {
      */
     public Polygon createCellCover(double centerX, double centerY) {
         Polygon cellCover = createHexagon(centerX, centerY);
-        cellCover.setFill(Color.LIGHTBLUE);
-        cellCover.setStroke(Color.BLACK);
-        cellCover.setStrokeWidth(1);
+        cellCover.setFill(CellStyles.COVERED_FILL);
         return cellCover;
     }
 
@@ -126,24 +103,21 @@ public class HexCell extends Pane {
      * @param gameBoard the game board the cell belongs to.
      */
     public HexCell(int col, int row, GameBoard gameBoard) {
-        this.col = col;
-        this.row = row;
         this.gameBoard = gameBoard;
-        double[] actualXY = getActualCoordinates(col, row);
 
-        baseCell = createBaseCell(actualXY[0], actualXY[1]);
-        cellCover = createCellCover(actualXY[0], actualXY[1]);
+        baseCell = createBaseCell(0, 0);
+        cellCover = createCellCover(0, 0);
 
         neighborMineCount = new Label("");
-        neighborMineCount.setLayoutX(actualXY[0] - RADIUS * 0.4);
-        neighborMineCount.setLayoutY(actualXY[1] - RADIUS * 0.8);
+        neighborMineCount.setLayoutX(-RADIUS * 0.4);
+        neighborMineCount.setLayoutY(-RADIUS * 0.8);
         mineImgView = new ImageView(getMineImg());
-        mineImgView.setLayoutX(actualXY[0] - RADIUS * 0.70);
-        mineImgView.setLayoutY(actualXY[1] - RADIUS * 0.60);
+        mineImgView.setLayoutX(-RADIUS * 0.70);
+        mineImgView.setLayoutY(-RADIUS * 0.60);
         mineImgView.setVisible(false);
         flagImgView = new ImageView(getFlagImg());
-        flagImgView.setLayoutX(actualXY[0] - RADIUS / 2);
-        flagImgView.setLayoutY(actualXY[1] - RADIUS / 2);
+        flagImgView.setLayoutX(-RADIUS / 2);
+        flagImgView.setLayoutY(-RADIUS / 2);
         flagImgView.setVisible(false);
 
         getChildren().add(baseCell);
@@ -151,6 +125,42 @@ public class HexCell extends Pane {
         getChildren().add(mineImgView);
         getChildren().add(cellCover);
         getChildren().add(flagImgView);
+
+        bind(col, row);
+    }
+
+    /**
+     * Moves the cell to another position of the board and shows that position's state.
+     *
+     * @param col the column index of the cell.
+     * @param row the row index of the cell.
+     */
+    public void bind(int col, int row) {
+        BoardModel model = gameBoard.getModel();
+        this.col = col;
+        this.row = row;
+        this.id = model.cellId(col, row);
+        double[] actualXY = getActualCoordinates(col, row);
+        setLayoutX(actualXY[0]);
+        setLayoutY(actualXY[1]);
+
+        labeled = false;
+        neighborMineCount.setText("");
+        refresh();
+    }
+
+    /**
+     * Shows the neighbor mine count of the cell. The label sits under the cover, so it is set when
+     * the cell is first revealed, when the mines are sure to be placed.
+     */
+    private void showCount(BoardModel model) {
+        labeled = true;
+        int count = model.neighborMineCount(id);
+        if (!model.hasMine(id) && count > 0) {
+            neighborMineCount.setText(Integer.toString(count));
+            neighborMineCount.setFont(CellStyles.COUNT_FONT);
+            neighborMineCount.setTextFill(CellStyles.countColor(count));
+        }
     }
 
     /**
@@ -162,13 +172,9 @@ public class HexCell extends Pane {
      */
     public double[] getActualCoordinates(int col, int row) {
 
-        double xCoordinate = col * (getHexWidth() / 2 + getSideLength() / 2);
-        double yCoordinate = (row * 2 + Math.abs(gameBoard.getSize() - 1 - col)) * getHexApothem();
-
-        double actualX = xCoordinate - getXOffset();
-        double actualY = yCoordinate - getYOffset();
-
-        return new double[] {actualX, actualY};
+        HexGeometry geometry = HexGeometry.forRadius(RADIUS);
+        int size = gameBoard.getSize();
+        return new double[] {geometry.centerX(size, col), geometry.centerY(size, col, row)};
     }
 
     /**
@@ -195,7 +201,7 @@ public class HexCell extends Pane {
      * @return the side length.
      */
     public double getSideLength() {
-        return 2 * RADIUS * Math.sin(Math.PI / 6);
+        return HexGeometry.forRadius(RADIUS).getSideLength();
     }
 
     /**
@@ -213,7 +219,7 @@ public class HexCell extends Pane {
      * @return the hexagon apothem.
      */
     public double getHexApothem() {
-        return RADIUS * Math.cos(Math.PI / 6);
+        return HexGeometry.forRadius(RADIUS).getApothem();
     }
 
     /**
@@ -222,7 +228,7 @@ public class HexCell extends Pane {
      * @return true if the cell contains a mine, false otherwise.
      */
     public boolean hasMine() {
-        return hasMine;
+        return gameBoard.getModel().hasMine(id);
     }
 
     /**
@@ -231,7 +237,7 @@ public class HexCell extends Pane {
      * @return true if the cell has been revealed, false otherwise.
      */
     public boolean isRevealed() {
-        return isRevealed;
+        return gameBoard.getModel().isRevealed(id);
     }
 
     /**
@@ -240,7 +246,7 @@ public class HexCell extends Pane {
      * @return true if the cell is flagged, false otherwise.
      */
     public boolean isFlagged() {
-        return isFlagged;
+        return gameBoard.getModel().isFlagged(id);
     }
 
     /**
@@ -249,13 +255,7 @@ public class HexCell extends Pane {
      * @return the count of neighboring cells with mines.
      */
     public int neighborMinesCount() {
-        int count = 0;
-        for (HexCell neighbor : gameBoard.getNeighbors(this)) {
-            if (neighbor.hasMine()) {
-                count++;
-            }
-        }
-        return count;
+        return gameBoard.getModel().neighborMineCount(id);
     }
 
     /**
@@ -271,56 +271,55 @@ public class HexCell extends Pane {
      * Adds a mine to the cell and makes the mine imageview visible.
      */
     public void addMine() {
-        hasMine = true;
-        mineImgView.setVisible(true);
+        gameBoard.getModel().addMine(id);
+        refresh();
     }
 
     /**
      * Flags the cell.
      */
     public void flag() {
-        if (gameBoard.getMineCount() <= 0) {
-            return;
-        }
-        isFlagged = true;
-        flagImgView.setVisible(true);
-        gameBoard.setMineCount(-1);
+        gameBoard.getModel().flag(id);
+        refresh();
     }
 
     /**
      * Unflags the cell.
      */
     public void unflag() {
-        isFlagged = false;
-        flagImgView.setVisible(false);
-        gameBoard.setMineCount(1);
-
+        gameBoard.getModel().unflag(id);
+        refresh();
     }
 
     /**
      * Toggles the cell's flag state.
      */
     public void toggleFlag() {
-        if (isRevealed()) {
-            return;
-        }
-        if (isFlagged()) {
-            unflag();
-
-        } else {
-            flag();
-        }
+        gameBoard.getModel().toggleFlag(id);
+        refresh();
     }
 
     /**
      * Reveals the cell.
      */
     public void reveal() {
-        if (isRevealed() || isFlagged()) {
-            return;
+        gameBoard.getModel().reveal(id);
+        refresh();
+    }
+
+    /**
+     * Updates the cover, mine and flag visibility to match the model.
+     */
+    public void refresh() {
+        BoardModel model = gameBoard.getModel();
+        baseCell.setFill(id == model.getExplodedCell() ? CellStyles.EXPLODED_FILL
+                : CellStyles.REVEALED_FILL);
+        cellCover.setVisible(!model.isRevealed(id));
+        if (!labeled && model.isRevealed(id)) {
+            showCount(model);
         }
-        isRevealed = true;
-        cellCover.setVisible(false);
+        mineImgView.setVisible(model.hasMine(id));
+        flagImgView.setVisible(model.isFlagged(id));
     }
 
     /**
@@ -368,6 +367,15 @@ public class HexCell extends Pane {
         return row;
     }
 
+    /**
+     * Gets the linear id of the cell in the board model.
+     *
+     * @return the linear id of the cell.
+     */
+    public int getCellId() {
+        return id;
+    }
+
     /**
      * Gets the label displaying the count of neighboring mines.
      *
@@ -385,7 +393,7 @@ public class HexCell extends Pane {
      * @return true if the cell's base polygon contains the mouse coordinates, false otherwise.
      */
     public boolean ifContainsMouseXY(double mouseX, double mouseY) {
-        return baseCell.contains(mouseX, mouseY);
+        return baseCell.contains(mouseX - getLayoutX(), mouseY - getLayoutY());
     }
 
 }
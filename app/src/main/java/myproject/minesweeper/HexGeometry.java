@@ -0,0 +1,200 @@
+package myproject.minesweeper;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Pixel geometry of the flat-topped hexagons of a board, shared by every cell drawn with the same
+ * radius. Positions are relative to the centre of the board, as in {@link HexCell}.
+ *
+ * The pixel position of a cell follows from its axial coordinates q = col - (size - 1) and r = row
+ * - (size - 1) - min(q, 0): x = 1.5 * radius * q and y = apothem * (2 * r + q). {@link #cellIdAt}
+ * inverts this and rounds to the nearest hexagon in cube coordinates, which finds the cell under
+ * a point in constant time.
+ */
+public final class HexGeometry {
+
+    private static final Map<Double, HexGeometry> CACHE = new ConcurrentHashMap<>();
+
+    private final double radius;
+    private final double sideLength;
+    private final double apothem;
+    private final double[] cornerX = new double[6];
+    private final double[] cornerY = new double[6];
+    private final double[] points = new double[12];
+
+    /**
+     * Retrieves the shared geometry for hexagons of the given radius.
+     *
+     * @param radius the distance from the centre of a hexagon to its corners.
+     * @return the geometry for that radius.
+     */
+    public static HexGeometry forRadius(double radius) {
+        return CACHE.computeIfAbsent(radius, HexGeometry::new);
+    }
+
+    private HexGeometry(double radius) {
+        this.radius = radius;
+        this.sideLength = 2 * radius * Math.sin(Math.PI / 6);
+        this.apothem = radius * Math.cos(Math.PI / 6);
+        for (int i = 0; i < 6; i++) {
+            double angle = 2.0 * Math.PI / 6 * i;
+            cornerX[i] = radius * Math.cos(angle);
+            cornerY[i] = radius * Math.sin(angle);
+            points[2 * i] = cornerX[i];
+            points[2 * i + 1] = cornerY[i];
+        }
+    }
+
+    /**
+     * Retrieves the distance from the centre of a hexagon to its corners.
+     *
+     * @return the radius.
+     */
+    public double getRadius() {
+        return radius;
+    }
+
+    /**
+     * Retrieves the length of the sides of the hexagon.
+     *
+     * @return the side length.
+     */
+    public double getSideLength() {
+        return sideLength;
+    }
+
+    /**
+     * Retrieves the distance from the centre of a hexagon to its sides.
+     *
+     * @return the apothem.
+     */
+    public double getApothem() {
+        return apothem;
+    }
+
+    /**
+     * Writes the corners of a hexagon centred at the given point.
+     *
+     * @param centerX the x-coordinate of the center.
+     * @param centerY the y-coordinate of the center.
+     * @param xs receives the 6 corner x coordinates.
+     * @param ys receives the 6 corner y coordinates.
+     */
+    public void corners(double centerX, double centerY, double[] xs, double[] ys) {
+        for (int i = 0; i < 6; i++) {
+            xs[i] = centerX + cornerX[i];
+            ys[i] = centerY + cornerY[i];
+        }
+    }
+
+    /**
+     * Lists the corners of a hexagon centred at the given point as x, y pairs, the layout
+     * {@link javafx.scene.shape.Polygon} takes.
+     *
+     * @param centerX the x-coordinate of the center.
+     * @param centerY the y-coordinate of the center.
+     * @return a new array of the 12 corner coordinates.
+     */
+    public double[] polygonPoints(double centerX, double centerY) {
+        double[] translated = points.clone();
+        for (int i = 0; i < 12; i += 2) {
+            translated[i] += centerX;
+            translated[i + 1] += centerY;
+        }
+        return translated;
+    }
+
+    /**
+     * Calculates the x coordinate of a cell's centre.
+     *
+     * @param size the board size.
+     * @param col the column index of the cell.
+     * @return the x coordinate relative to the board centre.
+     */
+    public double centerX(int size, int col) {
+        return (col - (size - 1)) * (radius + sideLength / 2);
+    }
+
+    /**
+     * Calculates the y coordinate of a cell's centre.
+     *
+     * @param size the board size.
+     * @param col the column index of the cell.
+     * @param row the row index of the cell.
+     * @return the y coordinate relative to the board centre.
+     */
+    public double centerY(int size, int col, int row) {
+        return (row * 2 + Math.abs(size - 1 - col) - (size - 1) * 2) * apothem;
+    }
+
+    /**
+     * Visits the cells whose hexagons may intersect a rectangle, column by column, in time
+     * proportional to the number of cells visited rather than the size of the board.
+     *
+     * @param adjacency the board the rectangle is on.
+     * @param minX the left edge relative to the board centre.
+     * @param minY the top edge relative to the board centre.
+     * @param maxX the right edge relative to the board centre.
+     * @param maxY the bottom edge relative to the board centre.
+     * @param action receives the linear id of each cell.
+     */
+    public void forEachCellIn(HexAdjacency adjacency, double minX, double minY, double maxX,
+            double maxY, IntConsumer action) {
+        double colWidth = radius + sideLength / 2;
+        int size = adjacency.getSize();
+        double left = (minX - radius) / colWidth + size - 1;
+        double right = (maxX + radius) / colWidth + size - 1;
+        int firstCol = (int) Math.max(0, Math.ceil(left));
+        int lastCol = (int) Math.min(2 * size - 2, Math.floor(right));
+
+        for (int col = firstCol; col <= lastCol; col++) {
+            // centerY = (2 * row + |q| - 2 * (size - 1)) * apothem
+            double base = Math.abs(col - (size - 1)) - 2.0 * (size - 1);
+            double top = ((minY - apothem) / apothem - base) / 2;
+            double bottom = ((maxY + apothem) / apothem - base) / 2;
+            int firstRow = (int) Math.max(0, Math.ceil(top));
+            int lastRow = (int) Math.min(adjacency.cellCountInCol(col) - 1, Math.floor(bottom));
+            for (int row = firstRow; row <= lastRow; row++) {
+                action.accept(adjacency.cellId(col, row));
+            }
+        }
+    }
+
+    /**
+     * Finds the cell whose hexagon contains a point.
+     *
+     * @param adjacency the board the point is on.
+     * @param x the x coordinate relative to the board centre.
+     * @param y the y coordinate relative to the board centre.
+     * @return the linear id of the cell, or -1 if the point is outside the board.
+     */
+    public int cellIdAt(HexAdjacency adjacency, double x, double y) {
+        double fractionalQ = x / (radius + sideLength / 2);
+        double fractionalR = (y / apothem - fractionalQ) / 2;
+        double fractionalS = -fractionalQ - fractionalR;
+
+        long q = Math.round(fractionalQ);
+        long r = Math.round(fractionalR);
+        long s = Math.round(fractionalS);
+        double dq = Math.abs(q - fractionalQ);
+        double dr = Math.abs(r - fractionalR);
+        double ds = Math.abs(s - fractionalS);
+        if (dq > dr && dq > ds) {
+            q = -r - s;
+        } else if (dr > ds) {
+            r = -q - s;
+        }
+
+        int size = adjacency.getSize();
+        long col = q + size - 1;
+        long row = r + size - 1 + Math.min(q, 0);
+        if (col < 0 || col >= 2 * size - 1 || row < 0 || row >= Integer.MAX_VALUE
+                || !adjacency.isCellValid((int) col, (int) row)) {
+            return -1;
+        }
+        return adjacency.cellId((int) col, (int) row);
+    }
+
+}
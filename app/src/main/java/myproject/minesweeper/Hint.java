@@ -0,0 +1,69 @@
+package myproject.minesweeper;
+
+/**
+ * A move suggested by a {@link Solver}: a cell to reveal or to flag, with the chance that it
+ * holds a mine. A certain hint follows from the revealed numbers, any other hint is the safest
+ * guess.
+ */
+public final class Hint {
+
+    private final MoveAction action;
+    private final int cellId;
+    private final double mineProbability;
+
+    /**
+     * Creates a hint.
+     *
+     * @param action {@link MoveAction#REVEAL} or {@link MoveAction#FLAG}.
+     * @param cellId the linear id of the cell.
+     * @param mineProbability the chance that the cell holds a mine, from 0 to 1.
+     */
+    public Hint(MoveAction action, int cellId, double mineProbability) {
+        this.action = action;
+        this.cellId = cellId;
+        this.mineProbability = mineProbability;
+    }
+
+    /**
+     * Retrieves the suggested move.
+     *
+     * @return the move action.
+     */
+    public MoveAction getAction() {
+        return action;
+    }
+
+    /**
+     * Retrieves the cell to play.
+     *
+     * @return the linear id of the cell.
+     */
+    public int getCellId() {
+        return cellId;
+    }
+
+    /**
+     * Retrieves the chance that the cell holds a mine.
+     *
+     * @return the probability, 0 for a certainly safe cell and 1 for a certain mine.
+     */
+    public double getMineProbability() {
+        return mineProbability;
+    }
+
+    /**
+     * Checks whether the move follows from the revealed numbers.
+     *
+     * @return true if the hint is not a guess.
+     */
+    public boolean isCertain() {
+        return mineProbability == 0 || mineProbability == 1;
+    }
+
+    @Override
+    public String toString() {
+        return action + " " + cellId + (isCertain() ? ""
+                : String.format(" (%.0f%% mine)", mineProbability * 100));
+    }
+
+}
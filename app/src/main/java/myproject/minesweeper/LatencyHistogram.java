@@ -0,0 +1,193 @@
+package myproject.minesweeper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Map;
+
+import com.opencsv.CSVWriter;
+
+/**
+ * Counts durations in log-linear buckets, so a duration is recorded with a few shifts and one
+ * array increment, without allocating, and the memory used does not grow with the number of
+ * samples. Durations below {@link #SUB_BUCKETS} nanoseconds get a bucket each; every power of two
+ * above is split into {@link #SUB_BUCKETS} equal buckets, so a bucket is at most 1/8 of its
+ * lower bound wide and percentiles are within 12.5% of the recorded durations.
+ *
+ * Not thread safe; the {@link Controller} records into it from the FX thread.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The columns of a bucket in an exported file, in order.
+     */
+    static final String[] HEADER = {"metric", "fromNanos", "toNanos", "count"};
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long totalNanos;
+    private long minNanos = Long.MAX_VALUE;
+    private long maxNanos;
+
+    /**
+     * Records one duration. Negative durations count as zero.
+     *
+     * @param nanos the duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucket(value)]++;
+        count++;
+        totalNanos += value;
+        minNanos = Math.min(minNanos, value);
+        maxNanos = Math.max(maxNanos, value);
+    }
+
+    /**
+     * Finds the bucket of a duration.
+     *
+     * @param nanos a duration of at least 0.
+     * @return the index of its bucket.
+     */
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+        int shift = magnitude - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (nanos >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Retrieves the shortest duration of a bucket.
+     *
+     * @param bucket the index of the bucket.
+     * @return the lower bound in nanoseconds.
+     */
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    }
+
+    /**
+     * Retrieves the longest duration of a bucket.
+     *
+     * @param bucket the index of the bucket.
+     * @return the upper bound in nanoseconds.
+     */
+    static long upperBound(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : lowerBound(bucket + 1) - 1;
+    }
+
+    /**
+     * Retrieves the number of recorded durations.
+     *
+     * @return the sample count.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Retrieves the shortest recorded duration.
+     *
+     * @return the minimum in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getMinNanos() {
+        return count == 0 ? 0 : minNanos;
+    }
+
+    /**
+     * Retrieves the longest recorded duration.
+     *
+     * @return the maximum in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Retrieves the average recorded duration.
+     *
+     * @return the mean in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    /**
+     * Retrieves the duration that a share of the recorded durations were at most, e.g. 0.99 for
+     * the 99th percentile. The result is the upper bound of the bucket the percentile falls in,
+     * capped at the maximum.
+     *
+     * @param percentile the share of durations, above 0 and at most 1.
+     * @return the duration in nanoseconds, or 0 if nothing was recorded.
+     * @throws IllegalArgumentException if the percentile is out of range.
+     */
+    public long getPercentileNanos(double percentile) {
+        if (!(percentile > 0 && percentile <= 1)) {
+            throw new IllegalArgumentException("Percentile must be in (0, 1]: " + percentile);
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS && count > 0; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(maxNanos, upperBound(i));
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Writes the non-empty buckets of histograms to a CSV file, one row per bucket, see
+     * {@link #HEADER}.
+     *
+     * @param file the file to write; replaced if it exists.
+     * @param histograms the histograms by the name of what they measured.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void export(Path file, Map<String, LatencyHistogram> histograms)
+            throws IOException {
+        try (CSVWriter csv = new CSVWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            csv.writeNext(HEADER, false);
+            for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+                long[] counts = entry.getValue().counts;
+                for (int i = 0; i < BUCKETS; i++) {
+                    if (counts[i] > 0) {
+                        csv.writeNext(new String[] {entry.getKey(), Long.toString(lowerBound(i)),
+                            Long.toString(upperBound(i)), Long.toString(counts[i])}, false);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Sums up the histogram as its median, 99th percentile and maximum in milliseconds.
+     *
+     * @return the summary, e.g. "p50 0.12 ms, p99 1.80 ms, max 2.31 ms".
+     */
+    @Override
+    public String toString() {
+        if (count == 0) {
+            return "no samples";
+        }
+        return "p50 " + millis(getPercentileNanos(0.5)) + " ms, p99 "
+                + millis(getPercentileNanos(0.99)) + " ms, max " + millis(maxNanos) + " ms";
+    }
+
+    private static String millis(long nanos) {
+        long hundredths = (nanos + 5_000) / 10_000;
+        long fraction = hundredths % 100;
+        return hundredths / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+}
@@ -0,0 +1,129 @@
+package myproject.minesweeper;
+
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws distinct linear cell ids uniformly at random, in O(1) time and memory per draw. This is a
+ * partial Fisher-Yates shuffle over the ids 0 to cellCount - 1: the identity permutation is never
+ * materialized, only the positions that were swapped are kept in a sparse open-addressing map.
+ *
+ * Every id has the same chance to be drawn, unlike picking a column first and a row second, which
+ * favors the cells of the short edge columns.
+ */
+public class MinePlacer {
+
+    private static final int EMPTY = -1;
+
+    private final int cellCount;
+    private final RandomGenerator random;
+    private int drawn;
+    private int[] keys;
+    private int[] values;
+    private int entries;
+
+    /**
+     * Creates a placer over the cells 0 to cellCount - 1.
+     *
+     * @param cellCount the number of cells to draw from.
+     * @param random the source of randomness, e.g. a {@link SplittableRandom}.
+     */
+    public MinePlacer(int cellCount, RandomGenerator random) {
+        this.cellCount = cellCount;
+        this.random = random;
+        this.keys = new int[16];
+        this.values = new int[16];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Draws a uniformly random id among the ids not drawn yet.
+     *
+     * @return the drawn cell id.
+     * @throws NoSuchElementException if every id has been drawn.
+     */
+    public int next() {
+        if (drawn >= cellCount) {
+            throw new NoSuchElementException("All " + cellCount + " cells have been drawn");
+        }
+        int i = drawn++;
+        int j = i + random.nextInt(cellCount - i);
+        int atJ = get(j);
+        if (j != i) {
+            put(j, get(i));
+        }
+        return atJ;
+    }
+
+    /**
+     * Draws the given number of distinct ids.
+     *
+     * @param cellCount the number of cells to draw from.
+     * @param count the number of ids to draw.
+     * @param random the source of randomness.
+     * @return the drawn cell ids in draw order.
+     */
+    public static int[] sample(int cellCount, int count, RandomGenerator random) {
+        MinePlacer placer = new MinePlacer(cellCount, random);
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = placer.next();
+        }
+        return ids;
+    }
+
+    /**
+     * Retrieves the id currently at a position of the virtual permutation.
+     */
+    private int get(int position) {
+        int mask = keys.length - 1;
+        for (int slot = mix(position) & mask;; slot = (slot + 1) & mask) {
+            if (keys[slot] == position) {
+                return values[slot];
+            }
+            if (keys[slot] == EMPTY) {
+                return position;
+            }
+        }
+    }
+
+    /**
+     * Stores the id at a position of the virtual permutation.
+     */
+    private void put(int position, int id) {
+        int mask = keys.length - 1;
+        int slot = mix(position) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != position) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            keys[slot] = position;
+            values[slot] = id;
+            if (++entries * 2 > keys.length) {
+                grow();
+            }
+        } else {
+            values[slot] = id;
+        }
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(keys, EMPTY);
+        entries = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY) {
+                put(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+}
@@ -0,0 +1,9 @@
+package myproject.minesweeper;
+
+/**
+ * The moves a player can make on a cell. A chord is made on a revealed number whose neighbors
+ * carry as many flags as its count, and reveals all its other covered neighbors.
+ */
+public enum MoveAction {
+    REVEAL, FLAG, CHORD;
+}
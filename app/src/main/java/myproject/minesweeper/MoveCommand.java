@@ -0,0 +1,76 @@
+package myproject.minesweeper;
+
+/**
+ * One move of a batch applied with {@link BoardModel#applyBatch(java.util.List)}: an action on a
+ * cell.
+ */
+public final class MoveCommand {
+
+    private final MoveAction action;
+    private final int cellId;
+
+    /**
+     * Creates a command.
+     *
+     * @param action the move to make.
+     * @param cellId the linear id of the cell.
+     */
+    public MoveCommand(MoveAction action, int cellId) {
+        this.action = action;
+        this.cellId = cellId;
+    }
+
+    /**
+     * Creates a command that reveals a cell.
+     *
+     * @param cellId the linear id of the cell.
+     * @return the command.
+     */
+    public static MoveCommand reveal(int cellId) {
+        return new MoveCommand(MoveAction.REVEAL, cellId);
+    }
+
+    /**
+     * Creates a command that toggles the flag of a cell.
+     *
+     * @param cellId the linear id of the cell.
+     * @return the command.
+     */
+    public static MoveCommand flag(int cellId) {
+        return new MoveCommand(MoveAction.FLAG, cellId);
+    }
+
+    /**
+     * Creates a command that chords on a revealed number.
+     *
+     * @param cellId the linear id of the cell.
+     * @return the command.
+     */
+    public static MoveCommand chord(int cellId) {
+        return new MoveCommand(MoveAction.CHORD, cellId);
+    }
+
+    /**
+     * Retrieves the move to make.
+     *
+     * @return the move action.
+     */
+    public MoveAction getAction() {
+        return action;
+    }
+
+    /**
+     * Retrieves the cell to play.
+     *
+     * @return the linear id of the cell.
+     */
+    public int getCellId() {
+        return cellId;
+    }
+
+    @Override
+    public String toString() {
+        return action + " " + cellId;
+    }
+
+}
@@ -0,0 +1,106 @@
+package myproject.minesweeper;
+
+/**
+ * The change a move made to a board, as decoded from the {@link WireProtocol}: the cells it
+ * revealed with their counts, the flags it changed, and the status of the game afterwards. When
+ * the game is over the delta also carries every mine, so a client can show the final board.
+ */
+public final class MoveDelta {
+
+    private final GameStatus status;
+    private final int minesLeft;
+    private final int[] revealed;
+    private final byte[] counts;
+    private final int[] flagChanges;
+    private final boolean[] flagged;
+    private final int[] mines;
+
+    /**
+     * Creates a delta.
+     *
+     * @param status the status of the game after the move.
+     * @param minesLeft the mines not accounted for by a flag.
+     * @param revealed the newly revealed cell ids in increasing order.
+     * @param counts the neighbor mine count of each revealed cell, or
+     *        {@link WireProtocol#MINE} for a mine.
+     * @param flagChanges the ids of the cells whose flag changed.
+     * @param flagged whether each of those cells is flagged now.
+     * @param mines the ids of all mines if the game is over, otherwise empty.
+     */
+    public MoveDelta(GameStatus status, int minesLeft, int[] revealed, byte[] counts,
+            int[] flagChanges, boolean[] flagged, int[] mines) {
+        this.status = status;
+        this.minesLeft = minesLeft;
+        this.revealed = revealed;
+        this.counts = counts;
+        this.flagChanges = flagChanges;
+        this.flagged = flagged;
+        this.mines = mines;
+    }
+
+    /**
+     * Retrieves the status of the game after the move.
+     *
+     * @return the game status.
+     */
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Retrieves the number of mines not accounted for by a flag.
+     *
+     * @return the mines left.
+     */
+    public int getMinesLeft() {
+        return minesLeft;
+    }
+
+    /**
+     * Retrieves the newly revealed cells.
+     *
+     * @return the cell ids in increasing order.
+     */
+    public int[] getRevealed() {
+        return revealed;
+    }
+
+    /**
+     * Retrieves the neighbor mine count of the i-th revealed cell.
+     *
+     * @param i the index into {@link #getRevealed()}.
+     * @return the count, or {@link WireProtocol#MINE} if the cell is a mine.
+     */
+    public int getCount(int i) {
+        return counts[i];
+    }
+
+    /**
+     * Retrieves the cells whose flag changed.
+     *
+     * @return the cell ids.
+     */
+    public int[] getFlagChanges() {
+        return flagChanges;
+    }
+
+    /**
+     * Checks whether the i-th cell of {@link #getFlagChanges()} is flagged now.
+     *
+     * @param i the index into the flag changes.
+     * @return true if the cell is flagged.
+     */
+    public boolean isFlagged(int i) {
+        return flagged[i];
+    }
+
+    /**
+     * Retrieves every mine of a finished game.
+     *
+     * @return the mine ids in increasing order, or an empty array while the game is played.
+     */
+    public int[] getMines() {
+        return mines;
+    }
+
+}
@@ -0,0 +1,304 @@
+package myproject.minesweeper;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+
+/**
+ * Compact binary record of a game: the board spec and seed, followed by every move the player
+ * made. Together with {@link Replay} this rebuilds any game exactly, without the UI.
+ *
+ * Layout (all varints are {@link Varint} encoded):
+ *
+ * <pre>
+ * int     MAGIC ("HXLG")
+ * byte    VERSION
+ * byte    flags: FLAG_SAFE_START (version 2 and later)
+ * varint  board size
+ * varint  mine count
+ * long    seed
+ * varlong start time, epoch milliseconds
+ * then per move:
+ * varlong cell id &lt;&lt; 2 | action ordinal
+ * varlong milliseconds since the previous move (or since the start for the first move)
+ * </pre>
+ *
+ * A move typically takes 3 to 5 bytes.
+ */
+public class MoveLog {
+
+    /**
+     * Marks the start of a move log.
+     */
+    public static final int MAGIC = 0x48584C47;
+
+    /**
+     * The version of the layout written by this class.
+     */
+    public static final byte VERSION = 2;
+
+    /**
+     * Set when the mines were placed around the first revealed cell with
+     * {@link BoardModel#distributeMinesAround(int)} instead of before the first move.
+     */
+    public static final int FLAG_SAFE_START = 1;
+
+    private static final MoveAction[] ACTIONS = MoveAction.values();
+
+    /**
+     * Receives the moves of a log in order.
+     */
+    @FunctionalInterface
+    public interface MoveVisitor {
+        /**
+         * Called for each move.
+         *
+         * @param action the action of the move.
+         * @param cellId the linear id of the cell the move was made on.
+         * @param timeMillis the epoch time of the move in milliseconds.
+         */
+        void visit(MoveAction action, int cellId, long timeMillis);
+    }
+
+    private final BoardSpec spec;
+    private final long seed;
+    private final long startMillis;
+    private final boolean safeStart;
+    private ByteBuffer moves;
+    private int moveCount;
+    private long lastMillis;
+    private boolean shared;
+
+    /**
+     * Creates an empty log for a game.
+     *
+     * @param spec the board size and mine count of the game.
+     * @param seed the seed the mines were placed with.
+     * @param startMillis the epoch time the game started at.
+     */
+    public MoveLog(BoardSpec spec, long seed, long startMillis) {
+        this(spec, seed, startMillis, false);
+    }
+
+    /**
+     * Creates an empty log for a game.
+     *
+     * @param spec the board size and mine count of the game.
+     * @param seed the seed the mines were placed with.
+     * @param startMillis the epoch time the game started at.
+     * @param safeStart true if the mines are placed around the first revealed cell.
+     */
+    public MoveLog(BoardSpec spec, long seed, long startMillis, boolean safeStart) {
+        this(spec, seed, startMillis, safeStart, ByteBuffer.allocate(256));
+    }
+
+    private MoveLog(BoardSpec spec, long seed, long startMillis, boolean safeStart,
+            ByteBuffer moves) {
+        this.spec = spec;
+        this.seed = seed;
+        this.startMillis = startMillis;
+        this.safeStart = safeStart;
+        this.lastMillis = startMillis;
+        this.moves = moves;
+    }
+
+    /**
+     * Appends a move.
+     *
+     * @param action the action of the move.
+     * @param cellId the linear id of the cell the move was made on.
+     * @param timeMillis the epoch time of the move; earlier times than the previous move are
+     *        recorded as no delay.
+     */
+    public void append(MoveAction action, int cellId, long timeMillis) {
+        if (shared || moves.remaining() < 20) {
+            ByteBuffer larger = ByteBuffer.allocate(moves.capacity() * 2);
+            moves.flip();
+            larger.put(moves);
+            moves = larger;
+            shared = false;
+        }
+        long delta = Math.max(0, timeMillis - lastMillis);
+        lastMillis += delta;
+        Varint.putVarLong(moves, ((long) cellId << 2) | action.ordinal());
+        Varint.putVarLong(moves, delta);
+        moveCount++;
+    }
+
+    /**
+     * Captures the moves logged so far in constant time, e.g. to encode them on another thread.
+     * Appending never changes the bytes already written, so the capture shares them with this log;
+     * it copies them only if moves are appended to the capture itself.
+     *
+     * @return a log of the moves so far.
+     */
+    public MoveLog snapshot() {
+        MoveLog copy = new MoveLog(spec, seed, startMillis, safeStart, moves.duplicate());
+        copy.moveCount = moveCount;
+        copy.lastMillis = lastMillis;
+        copy.shared = true;
+        return copy;
+    }
+
+    /**
+     * Visits every move in the order it was made.
+     *
+     * @param visitor the receiver of the moves.
+     */
+    public void forEachMove(MoveVisitor visitor) {
+        ByteBuffer reader = moves.duplicate().flip();
+        long time = startMillis;
+        for (int i = 0; i < moveCount; i++) {
+            long key = Varint.getVarLong(reader);
+            time += Varint.getVarLong(reader);
+            visitor.visit(action(key), (int) (key >>> 2), time);
+        }
+    }
+
+    /**
+     * Retrieves the board size and mine count of the logged game.
+     *
+     * @return the board spec.
+     */
+    public BoardSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Retrieves the seed the mines of the logged game were placed with.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retrieves the epoch time the logged game started at.
+     *
+     * @return the start time in milliseconds.
+     */
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * Checks whether the mines of the logged game were placed around its first revealed cell.
+     *
+     * @return true if the first reveal could not hit a mine.
+     */
+    public boolean hasSafeStart() {
+        return safeStart;
+    }
+
+    /**
+     * Retrieves the number of logged moves.
+     *
+     * @return the move count.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Encodes the log.
+     *
+     * @return the encoded log.
+     */
+    public byte[] toByteArray() {
+        ByteBuffer header = ByteBuffer.allocate(40);
+        header.putInt(MAGIC);
+        header.put(VERSION);
+        header.put((byte) (safeStart ? FLAG_SAFE_START : 0));
+        Varint.putVarInt(header, spec.getSize());
+        Varint.putVarInt(header, spec.getMineCount());
+        header.putLong(seed);
+        Varint.putVarLong(header, startMillis);
+        byte[] bytes = new byte[header.position() + moves.position()];
+        System.arraycopy(header.array(), 0, bytes, 0, header.position());
+        System.arraycopy(moves.array(), 0, bytes, header.position(), moves.position());
+        return bytes;
+    }
+
+    /**
+     * Decodes a log written by {@link #toByteArray()}, or by version 1, which had no flags.
+     *
+     * @param bytes the encoded log.
+     * @return the decoded log.
+     * @throws IllegalArgumentException if the bytes are not a move log of a known version, are
+     *         truncated or name a cell that is not on the board.
+     */
+    public static MoveLog fromByteArray(byte[] bytes) {
+        try {
+            return decode(ByteBuffer.wrap(bytes));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated move log", e);
+        }
+    }
+
+    private static MoveLog decode(ByteBuffer buffer) {
+        if (buffer.remaining() < 5 || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a move log");
+        }
+        byte version = buffer.get();
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("Unsupported move log version " + version);
+        }
+        int flags = version >= 2 ? buffer.get() : 0;
+        int size = Varint.getVarInt(buffer);
+        int mineCount = Varint.getVarInt(buffer);
+        long seed = buffer.getLong();
+        long startMillis = Varint.getVarLong(buffer);
+        BoardSpec spec = BoardSpec.of(size, mineCount);
+        MoveLog log = new MoveLog(spec, seed, startMillis, (flags & FLAG_SAFE_START) != 0);
+        int cellCount = spec.getCellCount();
+        while (buffer.hasRemaining()) {
+            long key = Varint.getVarLong(buffer);
+            long delta = Varint.getVarLong(buffer);
+            long cellId = key >>> 2;
+            if (cellId >= cellCount) {
+                throw new IllegalArgumentException("Cell " + cellId + " is not on a board of "
+                        + cellCount + " cells");
+            }
+            log.append(action(key), (int) cellId, log.lastMillis + delta);
+        }
+        return log;
+    }
+
+    /**
+     * Decodes the action of a move from the low two bits of its key.
+     *
+     * @throws IllegalArgumentException if the bits are not the ordinal of an action.
+     */
+    private static MoveAction action(long key) {
+        int code = (int) (key & 3);
+        if (code >= ACTIONS.length) {
+            throw new IllegalArgumentException("Unknown move action " + code);
+        }
+        return ACTIONS[code];
+    }
+
+    /**
+     * Writes the log to a file, replacing any previous content.
+     *
+     * @param file the file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(Path file) throws IOException {
+        Files.write(file, toByteArray());
+    }
+
+    /**
+     * Reads a log from a file.
+     *
+     * @param file the file to read.
+     * @return the decoded log.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not a valid move log.
+     */
+    public static MoveLog read(Path file) throws IOException {
+        return fromByteArray(Files.readAllBytes(file));
+    }
+
+}
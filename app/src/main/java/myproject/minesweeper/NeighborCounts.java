@@ -0,0 +1,132 @@
+package myproject.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * Computes the number of neighboring mines of every cell in one pass. Mines are read from a
+ * bitset and counts are written to a nibble array, the layouts of {@link BoardModel}, see
+ * {@link Bits}.
+ *
+ * Two kernels are available. {@link #scatter} adds one to the six neighbors of each mine, which
+ * costs O(mines) plus a scan of the mine words. {@link #dense} copies the mines into a padded row-major grid in axial
+ * coordinates, where every neighbor is a fixed offset away, and sums the six shifted rows for all
+ * cells at once. Its inner loop is a plain sum of byte arrays that the JIT vectorizes, so it wins
+ * when mines are dense.
+ *
+ * Axial coordinates: q = col - (size - 1) and r = row - (size - 1) - min(q, 0). The neighbors of
+ * (q, r) are (q +- 1, r), (q, r +- 1), (q + 1, r - 1) and (q - 1, r + 1).
+ */
+public final class NeighborCounts {
+
+    /**
+     * The mine density above which {@link #compute} uses the dense kernel.
+     */
+    public static final double DENSE_THRESHOLD = 0.15;
+
+    private NeighborCounts() {
+    }
+
+    /**
+     * Computes the counts with the kernel suited to the mine density.
+     *
+     * @param adjacency the neighbor index of the board.
+     * @param mines the bitset of mines, by linear id.
+     * @param mineCount the number of mines set in the bitset.
+     * @param counts receives the count of each cell in a nibble array, by linear id.
+     */
+    public static void compute(HexAdjacency adjacency, long[] mines, int mineCount,
+            long[] counts) {
+        long width = 2L * adjacency.getSize() + 1;
+        if (mineCount > DENSE_THRESHOLD * adjacency.getCellCount()
+                && width * width <= BoardSpec.MAX_CELLS) {
+            dense(adjacency, mines, counts);
+        } else {
+            scatter(adjacency, mines, counts);
+        }
+    }
+
+    /**
+     * Computes the counts by adding one to the neighbors of every mine.
+     *
+     * @param adjacency the neighbor index of the board.
+     * @param mines the bitset of mines, by linear id.
+     * @param counts receives the count of each cell in a nibble array, by linear id.
+     */
+    public static void scatter(HexAdjacency adjacency, long[] mines, long[] counts) {
+        Arrays.fill(counts, 0L);
+        int[] buffer = new int[6];
+        for (int w = 0; w < mines.length; w++) {
+            for (long word = mines[w]; word != 0; word &= word - 1) {
+                int id = (w << 6) + Long.numberOfTrailingZeros(word);
+                int neighborCount = adjacency.neighbors(id, buffer);
+                for (int i = 0; i < neighborCount; i++) {
+                    Bits.incrementNibble(counts, buffer[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the counts over a row-major axial grid.
+     *
+     * @param adjacency the neighbor index of the board.
+     * @param mines the bitset of mines, by linear id.
+     * @param counts receives the count of each cell in a nibble array, by linear id.
+     */
+    public static void dense(HexAdjacency adjacency, long[] mines, long[] counts) {
+        int size = adjacency.getSize();
+        // q and r run from -(size - 1) to size - 1, plus one cell of padding on each side
+        int width = 2 * size + 1;
+        byte[] grid = new byte[width * width];
+        byte[] sums = new byte[width * width];
+
+        for (int col = 0; col < 2 * size - 1; col++) {
+            int base = gridIndex(size, width, col, 0);
+            int first = adjacency.cellId(col, 0);
+            int rows = adjacency.cellCountInCol(col);
+            for (int row = 0; row < rows; row++) {
+                int id = first + row;
+                // branch free: mines are random, so a branch per cell would mispredict
+                grid[base + row * width] = (byte) ((mines[id >>> 6] >>> id) & 1);
+            }
+        }
+
+        for (int line = 1; line < width - 1; line++) {
+            int start = line * width + 1;
+            int end = start + width - 2;
+            for (int i = start; i < end; i++) {
+                sums[i] = (byte) (grid[i - 1] + grid[i + 1] + grid[i - width] + grid[i + width]
+                        + grid[i - width + 1] + grid[i + width - 1]);
+            }
+        }
+
+        Arrays.fill(counts, 0L);
+        for (int col = 0; col < 2 * size - 1; col++) {
+            int base = gridIndex(size, width, col, 0);
+            int first = adjacency.cellId(col, 0);
+            int rows = adjacency.cellCountInCol(col);
+            // a column is a run of ids, so its nibbles are packed in a register and each word is
+            // stored once; a word shared with the neighboring column is or-ed in
+            long word = 0;
+            for (int row = 0; row < rows; row++) {
+                int id = first + row;
+                word |= (long) sums[base + row * width] << ((id & 15) << 2);
+                if ((id & 15) == 15 || row == rows - 1) {
+                    counts[id >>> 4] |= word;
+                    word = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates the index of a cell in the padded axial grid; the grid row is r and the grid
+     * column is q, both shifted by size.
+     */
+    private static int gridIndex(int size, int width, int col, int row) {
+        int q = col - (size - 1);
+        int r = row - (size - 1) - Math.min(q, 0);
+        return (r + size) * width + (q + size);
+    }
+
+}
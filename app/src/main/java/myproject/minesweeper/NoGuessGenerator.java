@@ -0,0 +1,174 @@
+package myproject.minesweeper;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Generates boards that can be cleared without guessing. Candidate layouts are drawn with the
+ * start cell and its neighbors free of mines, opened at the start cell and played with the
+ * {@link Solver#certainMoves() certain moves} of a {@link Solver}; a layout passes if they clear
+ * it. When the rules are stuck the probability enumeration decides, but only the cells it proves
+ * safe or mined count: a candidate is rejected as soon as nothing is certain.
+ *
+ * Most random layouts need a guess somewhere, so the candidates are tested in parallel: every
+ * worker draws from its own split of the seed's random stream, and the first layout to pass
+ * cancels the other workers. Most candidates fail within a few moves; about one in 400 passes on
+ * {@link Difficulty#HARD}, but only about one in 200,000 on {@link Difficulty#EXTREME}, which
+ * takes seconds even on many cores. The enumeration makes a candidate about half again as
+ * expensive, but lets four times as many of them pass on {@link Difficulty#EXTREME}.
+ * {@link SolvableBoardPool} generates such boards ahead of time.
+ */
+public class NoGuessGenerator implements AutoCloseable {
+
+    /**
+     * The number of candidates tried by default before giving up, enough for
+     * {@link Difficulty#EXTREME} to fail only rarely.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 2_000_000;
+
+    private final ExecutorService workers;
+    private final int parallelism;
+    private final int maxAttempts;
+
+    /**
+     * Creates a generator with one worker per processor.
+     */
+    public NoGuessGenerator() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * Creates a generator and starts its workers.
+     *
+     * @param parallelism the number of candidates tested at once.
+     * @param maxAttempts the most candidates tried per board, over all workers.
+     * @throws IllegalArgumentException if a count is not positive.
+     */
+    public NoGuessGenerator(int parallelism, int maxAttempts) {
+        if (parallelism < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("Parallelism and attempts must be positive");
+        }
+        this.parallelism = parallelism;
+        this.maxAttempts = maxAttempts;
+        this.workers = Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+            private int count;
+
+            @Override
+            public synchronized Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "no-guess-" + count++);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Retrieves the center cell of a board, the default start cell: it has the most neighbors, so
+     * it opens the largest area.
+     *
+     * @param spec the board size and mine count.
+     * @return the linear id of the center cell.
+     */
+    public static int centerCell(BoardSpec spec) {
+        int size = spec.getSize();
+        return HexAdjacency.forSize(size).cellId(size - 1, size - 1);
+    }
+
+    /**
+     * Generates a layout that is opened at the center cell.
+     *
+     * @param spec the board size and mine count.
+     * @param seed the seed the candidates are drawn from.
+     * @return a layout that can be cleared without guessing.
+     * @throws IllegalStateException if no candidate passed within the attempt limit.
+     */
+    public SolvableLayout generate(BoardSpec spec, long seed) {
+        return generate(spec, centerCell(spec), seed);
+    }
+
+    /**
+     * Generates a layout that is opened at the given cell.
+     *
+     * @param spec the board size and mine count.
+     * @param startCell the linear id of the cell the game is opened with.
+     * @param seed the seed the candidates are drawn from.
+     * @return a layout that can be cleared without guessing.
+     * @throws IllegalStateException if no candidate passed within the attempt limit, the calling
+     *         thread was interrupted or the generator is closed.
+     */
+    public SolvableLayout generate(BoardSpec spec, int startCell, long seed) {
+        SplittableRandom root = new SplittableRandom(seed);
+        AtomicBoolean found = new AtomicBoolean();
+        int attempts = (maxAttempts + parallelism - 1) / parallelism;
+        List<Callable<SolvableLayout>> tasks = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            SplittableRandom stream = root.split();
+            tasks.add(() -> search(spec, startCell, stream, attempts, found));
+        }
+        try {
+            return workers.invokeAny(tasks);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(
+                    "No solvable layout for " + spec + " in " + maxAttempts + " attempts");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating " + spec, e);
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("The generator is closed", e);
+        }
+    }
+
+    /**
+     * Tries the candidates of one random stream until one passes, another worker succeeds or the
+     * attempts run out.
+     */
+    private static SolvableLayout search(BoardSpec spec, int startCell, SplittableRandom stream,
+            int attempts, AtomicBoolean found) {
+        BooleanSupplier cancelled = () -> found.get() || Thread.currentThread().isInterrupted();
+        for (int attempt = 0; attempt < attempts && !cancelled.getAsBoolean(); attempt++) {
+            SolvableLayout candidate = new SolvableLayout(spec, stream.nextLong(), startCell);
+            if (isSolvable(candidate.toModel(), startCell, cancelled)) {
+                found.set(true);
+                return candidate;
+            }
+        }
+        throw new CancellationException("No candidate passed");
+    }
+
+    /**
+     * Checks whether a board can be cleared by the solver's certain moves alone after its start
+     * cell is revealed. The board is played until it is won or nothing is certain.
+     *
+     * @param model a board with its mines placed and nothing revealed.
+     * @param startCell the linear id of the cell the game is opened with.
+     * @return true if only certain moves were needed to win.
+     */
+    public static boolean isSolvable(BoardModel model, int startCell) {
+        return isSolvable(model, startCell, () -> false);
+    }
+
+    private static boolean isSolvable(BoardModel model, int startCell,
+            BooleanSupplier cancelled) {
+        model.revealCell(startCell);
+        Solver solver = new Solver(model);
+        while (!model.isGameStopped()) {
+            List<MoveCommand> known = solver.certainMoves();
+            if (known.isEmpty() || cancelled.getAsBoolean()) {
+                return false;
+            }
+            model.applyBatch(known);
+        }
+        return model.isWon();
+    }
+
+    /**
+     * Stops the workers.
+     */
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+}
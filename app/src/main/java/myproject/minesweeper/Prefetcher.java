@@ -0,0 +1,90 @@
+package myproject.minesweeper;
+
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Builds the next value of some kind on a background thread before it is asked for, e.g. the
+ * board of the next game while the current one is played. One value is prefetched at a time,
+ * for a key that describes how to build it; taking the value with the same key hands over the
+ * prefetched one, any other key builds a fresh one.
+ *
+ * The slot is swapped atomically, so a prefetched value is handed out at most once even when
+ * several threads take at the same time.
+ *
+ * @param <K> the description of a value, compared with equals.
+ * @param <V> the type of the values.
+ */
+public class Prefetcher<K, V> implements AutoCloseable {
+
+    private final ExecutorService builder;
+    private final Function<K, V> factory;
+    private final AtomicReference<Entry<K, V>> next = new AtomicReference<>();
+
+    /**
+     * Creates a prefetcher with its own background thread.
+     *
+     * @param name the name of the background thread.
+     * @param factory builds a value for a key; it runs on the background thread.
+     */
+    public Prefetcher(String name, Function<K, V> factory) {
+        this.factory = factory;
+        this.builder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts building a value in the background, replacing any value prefetched before.
+     *
+     * @param key the description of the value.
+     */
+    public void prefetch(K key) {
+        Entry<K, V> entry = new Entry<>(key, CompletableFuture.supplyAsync(
+                () -> factory.apply(key), builder));
+        Entry<K, V> replaced = next.getAndSet(entry);
+        if (replaced != null) {
+            replaced.value.cancel(false);
+        }
+    }
+
+    /**
+     * Takes the prefetched value if it was built for the key, or starts building one.
+     *
+     * @param key the description of the value.
+     * @return the value; already completed when the prefetch finished in time.
+     */
+    public CompletableFuture<V> take(K key) {
+        Entry<K, V> entry = next.getAndSet(null);
+        if (entry != null && Objects.equals(entry.key, key)) {
+            return entry.value;
+        }
+        if (entry != null) {
+            entry.value.cancel(false);
+        }
+        return CompletableFuture.supplyAsync(() -> factory.apply(key), builder);
+    }
+
+    /**
+     * Stops the background thread. A value that is still being built is dropped.
+     */
+    @Override
+    public void close() {
+        builder.shutdownNow();
+    }
+
+    private static final class Entry<K, V> {
+        final K key;
+        final CompletableFuture<V> value;
+
+        Entry(K key, CompletableFuture<V> value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+}
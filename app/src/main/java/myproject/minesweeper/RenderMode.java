@@ -0,0 +1,20 @@
+package myproject.minesweeper;
+
+/**
+ * The ways a {@link GameBoard} can draw its cells.
+ */
+public enum RenderMode {
+    /**
+     * One {@link HexCell} pane with its own shapes, label and images per cell.
+     */
+    NODES,
+    /**
+     * A single screen-sized {@link CanvasBoardRenderer} that paints the visible cells.
+     */
+    CANVAS,
+    /**
+     * Pooled {@link HexCell} panes for the visible part of the board only, drawn by a
+     * {@link ViewportBoardRenderer}; suited to boards larger than the screen.
+     */
+    VIEWPORT;
+}
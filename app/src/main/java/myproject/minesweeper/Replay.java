@@ -0,0 +1,81 @@
+package myproject.minesweeper;
+
+import java.io.*;
+import java.nio.file.Path;
+
+/**
+ * Rebuilds games from their {@link MoveLog} on a headless {@link BoardModel}, at full speed and
+ * without the UI. Used to reproduce reported games and to check engine changes against recorded
+ * play.
+ */
+public final class Replay {
+
+    private Replay() {
+    }
+
+    /**
+     * Plays a logged game from the start. If the log has a safe start, the mines are placed around
+     * the first revealed cell when it is revealed, as they were in the game.
+     *
+     * @param log the log of the game.
+     * @return the board in the state the game ended in.
+     */
+    public static BoardModel replay(MoveLog log) {
+        BoardModel model = new BoardModel(log.getSpec(), log.getSeed());
+        if (log.hasSafeStart()) {
+            model.placeMinesOnFirstReveal();
+        } else {
+            model.distributeMines(log.getSpec().getMineCount());
+        }
+        log.forEachMove((action, cellId, timeMillis) -> apply(model, action, cellId));
+        return model;
+    }
+
+    /**
+     * Applies one move to a board the same way the {@link Controller} does: a stopped game ignores
+     * it.
+     *
+     * @param model the board to play on.
+     * @param action the action of the move.
+     * @param cellId the linear id of the cell the move is made on.
+     */
+    public static void apply(BoardModel model, MoveAction action, int cellId) {
+        if (model.isGameStopped()) {
+            return;
+        }
+        switch (action) {
+            case REVEAL:
+                model.revealCell(cellId);
+                break;
+            case FLAG:
+                model.toggleFlag(cellId);
+                break;
+            case CHORD:
+                model.chord(cellId);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown action " + action);
+        }
+    }
+
+    /**
+     * Replays a log file and prints how the game ended.
+     *
+     * @param file the move log to replay.
+     * @param out where to print the summary.
+     * @throws IOException if the file cannot be read.
+     */
+    public static void run(Path file, PrintStream out) throws IOException {
+        MoveLog log = MoveLog.read(file);
+        long start = System.nanoTime();
+        BoardModel model = replay(log);
+        long micros = (System.nanoTime() - start) / 1000;
+
+        String outcome = !model.isGameStopped() ? "unfinished"
+                : model.isWon() ? "won" : "lost on cell " + model.getExplodedCell();
+        out.println(file.getFileName() + ": " + log.getSpec() + ", seed " + log.getSeed());
+        out.println(log.getMoveCount() + " moves, " + outcome + ", "
+                + (int) (model.getProgress() * 100) + "% cleared, replayed in " + micros + " us");
+    }
+
+}
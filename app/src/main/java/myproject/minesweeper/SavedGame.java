@@ -0,0 +1,300 @@
+package myproject.minesweeper;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * A game in progress as it is saved to disk: the {@link BoardSnapshot} of its board, the seed, the
+ * time on the clock and, if the game was recorded, its {@link MoveLog}, so a resumed game can
+ * still be replayed from the start.
+ *
+ * Layout (all values little endian):
+ *
+ * <pre>
+ * int     MAGIC ("HXSV")
+ * byte    VERSION
+ * byte    flags: FLAG_MINES_PENDING | FLAG_STOPPED | FLAG_WON
+ * int     board size
+ * int     mine count
+ * long    seed
+ * long    elapsed milliseconds (version 1: int elapsed seconds)
+ * int     mines not accounted for by a flag
+ * int     placed mines
+ * int     revealed safe cells
+ * int     exploded cell, or -1
+ * int     length of the move log, 0 if there is none
+ * long[]  mines, revealed, flagged: cells / 64 words each
+ * long[]  neighbor counts, 4 bits per cell: cells / 16 words
+ * byte[]  the move log, see {@link MoveLog#toByteArray()}
+ * </pre>
+ *
+ * The bitsets are moved between the arrays and the file through a {@link FileChannel} in large
+ * chunks. Little endian is the byte order of common hardware, so the words are copied without
+ * swapping bytes and saving or loading costs about as much as copying 7 bits per cell. The
+ * neighbor counts are saved rather than recomputed, since counting the mines of a large board
+ * takes an order of magnitude longer than copying its counts.
+ */
+public final class SavedGame {
+
+    /**
+     * Marks the start of a saved game.
+     */
+    public static final int MAGIC = 0x48585356;
+
+    /**
+     * The version of the layout written by this class.
+     */
+    public static final byte VERSION = 2;
+
+    /**
+     * Set when the mines wait for the first reveal.
+     */
+    public static final int FLAG_MINES_PENDING = 1;
+
+    /**
+     * Set when the game was stopped.
+     */
+    public static final int FLAG_STOPPED = 2;
+
+    /**
+     * Set when the game was won.
+     */
+    public static final int FLAG_WON = 4;
+
+    private static final int HEADER_BYTES = 50;
+    private static final int PREFIX_BYTES = 6;
+    private static final int CHUNK_BYTES = 1 << 16;
+
+    private final BoardSnapshot snapshot;
+    private final long seed;
+    private final long elapsedMillis;
+    private final MoveLog moveLog;
+
+    private SavedGame(BoardSnapshot snapshot, long seed, long elapsedMillis, MoveLog moveLog) {
+        this.snapshot = snapshot;
+        this.seed = seed;
+        this.elapsedMillis = elapsedMillis;
+        this.moveLog = moveLog;
+    }
+
+    /**
+     * Captures a game. This copies the board in time proportional to cells / 64 and captures the
+     * move log in constant time, see {@link MoveLog#snapshot()}, so it can be called on the FX
+     * thread after every move; the log is encoded when the game is written.
+     *
+     * @param model the board of the game.
+     * @param elapsedMillis the time on the clock in milliseconds.
+     * @param moveLog the moves of the game, or null if they are not recorded.
+     * @return the saved game.
+     */
+    public static SavedGame of(BoardModel model, long elapsedMillis, MoveLog moveLog) {
+        return new SavedGame(model.snapshot(), model.getSeed(), elapsedMillis,
+                moveLog == null ? null : moveLog.snapshot());
+    }
+
+    /**
+     * Creates a board in the saved state.
+     *
+     * @return the board.
+     */
+    public BoardModel toModel() {
+        BoardModel model = new BoardModel(snapshot.spec, seed);
+        model.restore(snapshot);
+        return model;
+    }
+
+    /**
+     * Retrieves the board size and mine count of the game.
+     *
+     * @return the board spec.
+     */
+    public BoardSpec getSpec() {
+        return snapshot.spec;
+    }
+
+    /**
+     * Retrieves the seed the mines are placed with.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retrieves the time played when the game was saved.
+     *
+     * @return the elapsed milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Retrieves the moves of the game.
+     *
+     * @return the move log, or null if the game was not recorded.
+     */
+    public MoveLog getMoveLog() {
+        return moveLog;
+    }
+
+    /**
+     * Writes the game to a file. The data goes to a temporary file next to it first, which is
+     * forced to the disk and then replaces the file, so a crash never leaves a half written save
+     * behind.
+     *
+     * @param file the file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        byte[] log = moveLog == null ? new byte[0] : moveLog.toByteArray();
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer chunk = ByteBuffer.allocateDirect(chunkSize())
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                writeHeader(chunk, log.length);
+                chunk.flip();
+                writeFully(channel, chunk);
+                writeWords(channel, chunk, snapshot.mines);
+                writeWords(channel, chunk, snapshot.revealed);
+                writeWords(channel, chunk, snapshot.flagged);
+                writeWords(channel, chunk, snapshot.counts);
+                writeFully(channel, ByteBuffer.wrap(log));
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private int chunkSize() {
+        long words = 3L * snapshot.mines.length + snapshot.counts.length;
+        return (int) Math.min(CHUNK_BYTES, Math.max(HEADER_BYTES, words * Long.BYTES));
+    }
+
+    private void writeHeader(ByteBuffer buffer, int moveLogLength) {
+        int flags = (snapshot.minesPending ? FLAG_MINES_PENDING : 0)
+                | (snapshot.gameStopped ? FLAG_STOPPED : 0) | (snapshot.won ? FLAG_WON : 0);
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        buffer.put((byte) flags);
+        buffer.putInt(snapshot.spec.getSize());
+        buffer.putInt(snapshot.spec.getMineCount());
+        buffer.putLong(seed);
+        buffer.putLong(elapsedMillis);
+        buffer.putInt(snapshot.mineCount);
+        buffer.putInt(snapshot.placedMines);
+        buffer.putInt(snapshot.revealedSafeCells);
+        buffer.putInt(snapshot.explodedCell);
+        buffer.putInt(moveLogLength);
+    }
+
+    private static void writeWords(FileChannel channel, ByteBuffer chunk, long[] words)
+            throws IOException {
+        int perChunk = chunk.capacity() / Long.BYTES;
+        for (int i = 0; i < words.length; i += perChunk) {
+            int count = Math.min(perChunk, words.length - i);
+            chunk.clear();
+            chunk.asLongBuffer().put(words, i, count);
+            chunk.limit(count * Long.BYTES);
+            writeFully(channel, chunk);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Reads a game written by {@link #write(Path)}, or by a version 1 layout, which kept the time
+     * in whole seconds.
+     *
+     * @param file the file to read.
+     * @return the saved game.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not a saved game of a known version, is
+     *         truncated or holds an unreadable move log.
+     */
+    public static SavedGame read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.limit(PREFIX_BYTES);
+            readFully(channel, header);
+            if (header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("Not a saved game");
+            }
+            byte version = header.get(4);
+            if (version != VERSION && version != 1) {
+                throw new IllegalArgumentException("Unsupported saved game version " + version);
+            }
+            int headerBytes = version == 1 ? HEADER_BYTES - Integer.BYTES : HEADER_BYTES;
+            header.limit(headerBytes);
+            readFully(channel, header);
+            header.flip().position(PREFIX_BYTES - 1);
+            int flags = header.get();
+            BoardSpec spec = BoardSpec.of(header.getInt(), header.getInt());
+            long seed = header.getLong();
+            long elapsedMillis = version == 1 ? header.getInt() * 1000L : header.getLong();
+            int mineCount = header.getInt();
+            int placedMines = header.getInt();
+            int revealedSafeCells = header.getInt();
+            int explodedCell = header.getInt();
+            int moveLogLength = header.getInt();
+
+            HexAdjacency adjacency = HexAdjacency.forSize(spec.getSize());
+            int words = Bits.words(adjacency.getCellCount());
+            int countWords = Bits.nibbleWords(adjacency.getCellCount());
+            long dataBytes = (3L * words + countWords) * Long.BYTES;
+            if (channel.size() != headerBytes + dataBytes + moveLogLength) {
+                throw new IllegalArgumentException("Truncated saved game");
+            }
+            ByteBuffer chunk = ByteBuffer.allocateDirect((int) Math.min(CHUNK_BYTES, dataBytes))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            long[] mines = readWords(channel, chunk, words);
+            long[] revealed = readWords(channel, chunk, words);
+            long[] flagged = readWords(channel, chunk, words);
+            long[] counts = readWords(channel, chunk, countWords);
+            ByteBuffer moveLog = ByteBuffer.allocate(moveLogLength);
+            readFully(channel, moveLog);
+
+            BoardSnapshot snapshot = new BoardSnapshot(spec, mines, revealed, flagged, counts,
+                    mineCount, placedMines, revealedSafeCells, (flags & FLAG_MINES_PENDING) != 0,
+                    (flags & FLAG_STOPPED) != 0, (flags & FLAG_WON) != 0, explodedCell);
+            return new SavedGame(snapshot, seed, elapsedMillis,
+                    moveLogLength == 0 ? null : MoveLog.fromByteArray(moveLog.array()));
+        }
+    }
+
+    private static long[] readWords(FileChannel channel, ByteBuffer chunk, int count)
+            throws IOException {
+        long[] words = new long[count];
+        int perChunk = chunk.capacity() / Long.BYTES;
+        for (int i = 0; i < count; i += perChunk) {
+            int n = Math.min(perChunk, count - i);
+            chunk.clear().limit(n * Long.BYTES);
+            readFully(channel, chunk);
+            chunk.flip();
+            chunk.asLongBuffer().get(words, i, n);
+        }
+        return words;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Truncated saved game");
+            }
+        }
+    }
+
+}
@@ -0,0 +1,232 @@
+package myproject.minesweeper;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Hosts many independent {@link GameSession}s without global locks.
+ *
+ * Sessions are sharded by id over a fixed number of event loops, each a single thread that owns
+ * the sessions of its shard in a plain map. Every command on a session runs on the loop of its
+ * shard, so a session is only ever touched by one thread and commands on one session apply in the
+ * order they were submitted. Commands on different shards run in parallel.
+ *
+ * Memory is bounded per session by a maximum board size, and in total by a maximum number of
+ * sessions per shard. Sessions that were not used for the idle timeout are dropped.
+ */
+public class SessionManager implements AutoCloseable {
+
+    /**
+     * The largest board a session may have by default, in cells, a board of size 74. A session
+     * keeps about 5 bytes per cell: three bitsets, the packed counts and a reveal queue that can
+     * grow to one int per cell, so at most about 80 KiB, or 800 MiB for 10,000 sessions. The
+     * neighbor table of 28 bytes per cell, up to 448 KiB, is shared by the sessions of a size.
+     */
+    public static final int DEFAULT_MAX_CELLS = 1 << 14;
+
+    private final Shard[] shards;
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final int maxSessionsPerShard;
+    private final int maxCellsPerSession;
+    private final long idleTimeoutNanos;
+
+    /**
+     * Creates a manager with one shard per processor, {@link #DEFAULT_MAX_CELLS} per session and a
+     * 30 minute idle timeout.
+     *
+     * @param maxSessions the most sessions hosted at once.
+     */
+    public SessionManager(int maxSessions) {
+        this(Runtime.getRuntime().availableProcessors(), maxSessions, DEFAULT_MAX_CELLS,
+                Duration.ofMinutes(30));
+    }
+
+    /**
+     * Creates a manager and starts its event loops.
+     *
+     * @param shardCount the number of event loops.
+     * @param maxSessions the most sessions hosted at once, spread evenly over the shards.
+     * @param maxCellsPerSession the largest board a session may have, in cells.
+     * @param idleTimeout how long an unused session is kept.
+     * @throws IllegalArgumentException if a count is not positive.
+     */
+    public SessionManager(int shardCount, int maxSessions, int maxCellsPerSession,
+            Duration idleTimeout) {
+        if (shardCount < 1 || maxSessions < 1 || maxCellsPerSession < 1) {
+            throw new IllegalArgumentException("Shards, sessions and cells must be positive");
+        }
+        this.maxSessionsPerShard = Math.max(1, maxSessions / shardCount);
+        this.maxCellsPerSession = maxCellsPerSession;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.shards = new Shard[shardCount];
+        long sweepMillis = Math.max(1, idleTimeout.toMillis() / 2);
+        for (int i = 0; i < shardCount; i++) {
+            Shard shard = new Shard(i);
+            shards[i] = shard;
+            shard.loop.scheduleWithFixedDelay(shard::evictIdle, sweepMillis, sweepMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Creates a session with a new board.
+     *
+     * @param spec the board size and mine count.
+     * @param seed the seed the mines are placed with.
+     * @return the id of the new session; completes exceptionally with an
+     *         {@link IllegalStateException} if its shard is full.
+     * @throws IllegalArgumentException if the board is larger than a session may be.
+     */
+    public CompletableFuture<Long> create(BoardSpec spec, long seed) {
+        if (spec.getCellCount() > maxCellsPerSession) {
+            throw new IllegalArgumentException(
+                    spec + " exceeds the limit of " + maxCellsPerSession + " cells per session");
+        }
+        long id = nextId.getAndIncrement();
+        Shard shard = shardOf(id);
+        return CompletableFuture.supplyAsync(() -> {
+            if (shard.sessions.size() >= maxSessionsPerShard) {
+                throw new IllegalStateException("Too many sessions");
+            }
+            shard.sessions.put(id, new GameSession(id, spec, seed));
+            shard.size = shard.sessions.size();
+            return id;
+        }, shard.loop);
+    }
+
+    /**
+     * Runs a command on a session, on the event loop that owns it, and keeps the session alive.
+     *
+     * @param <T> the result type.
+     * @param sessionId the id of the session.
+     * @param command the command; it must not keep a reference to the session.
+     * @return the result of the command; completes exceptionally with an
+     *         {@link IllegalArgumentException} if there is no such session.
+     */
+    public <T> CompletableFuture<T> execute(long sessionId, Function<GameSession, T> command) {
+        Shard shard = shardOf(sessionId);
+        return CompletableFuture.supplyAsync(() -> {
+            GameSession session = shard.get(sessionId);
+            session.touch();
+            return command.apply(session);
+        }, shard.loop);
+    }
+
+    /**
+     * Reveals a cell of a session, see {@link GameSession#reveal(int)}.
+     *
+     * @param sessionId the id of the session.
+     * @param cellId the linear id of the cell.
+     * @return the ids of the newly revealed cells.
+     */
+    public CompletableFuture<int[]> reveal(long sessionId, int cellId) {
+        return execute(sessionId, session -> session.reveal(cellId));
+    }
+
+    /**
+     * Toggles the flag of a cell of a session, see {@link GameSession#toggleFlag(int)}.
+     *
+     * @param sessionId the id of the session.
+     * @param cellId the linear id of the cell.
+     * @return true if the cell is flagged afterwards.
+     */
+    public CompletableFuture<Boolean> toggleFlag(long sessionId, int cellId) {
+        return execute(sessionId, session -> session.toggleFlag(cellId));
+    }
+
+    /**
+     * Ends a session and frees its board.
+     *
+     * @param sessionId the id of the session.
+     * @return true if the session existed.
+     */
+    public CompletableFuture<Boolean> remove(long sessionId) {
+        Shard shard = shardOf(sessionId);
+        return CompletableFuture.supplyAsync(() -> {
+            boolean removed = shard.sessions.remove(sessionId) != null;
+            shard.size = shard.sessions.size();
+            return removed;
+        }, shard.loop);
+    }
+
+    /**
+     * Counts the hosted sessions. Each shard publishes its own count, so the sum may lag behind
+     * commands that are still running.
+     *
+     * @return the number of sessions.
+     */
+    public int getSessionCount() {
+        int count = 0;
+        for (Shard shard : shards) {
+            count += shard.size;
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the number of event loops.
+     *
+     * @return the shard count.
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Stops the event loops. Commands that were already submitted are run first.
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.loop.shutdown();
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.loop.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Shard shardOf(long sessionId) {
+        return shards[(int) Math.floorMod(sessionId, (long) shards.length)];
+    }
+
+    /**
+     * An event loop and the sessions only it may touch.
+     */
+    private final class Shard {
+        final ScheduledExecutorService loop;
+        final Map<Long, GameSession> sessions = new HashMap<>();
+        volatile int size;
+
+        Shard(int index) {
+            loop = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-shard-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        GameSession get(long sessionId) {
+            GameSession session = sessions.get(sessionId);
+            if (session == null) {
+                throw new IllegalArgumentException("Unknown session " + sessionId);
+            }
+            return session;
+        }
+
+        void evictIdle() {
+            long now = System.nanoTime();
+            sessions.values().removeIf(session -> now - session.getLastAccessNanos()
+                    > idleTimeoutNanos);
+            size = sessions.size();
+        }
+    }
+
+}
@@ -0,0 +1,261 @@
+package myproject.minesweeper;
+
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Plays many games headlessly with the {@link AutoSolver} strategy to measure how hard a board
+ * spec is: its win rate, how much a reveal opens and how long a game lasts. Used to calibrate the
+ * {@link Difficulty} presets.
+ *
+ * Games are split evenly over the worker threads. Every worker draws the seeds of its games from
+ * its own split of the seed's random stream and adds up its results in its own {@link Report},
+ * so the workers share nothing while they run and the reports are only merged at the end. The
+ * same seed and thread count always give the same report, apart from its duration.
+ *
+ * Like the game, the mines are placed on the first reveal, around the revealed cell.
+ */
+public final class Simulation {
+
+    private Simulation() {
+    }
+
+    /**
+     * Plays games on several threads.
+     *
+     * @param spec the board size and mine count of every game.
+     * @param games the number of games to play.
+     * @param threads the number of worker threads.
+     * @param seed the seed the games are drawn from.
+     * @return the merged results of all games.
+     * @throws IllegalArgumentException if the game or thread count is not positive.
+     */
+    public static Report simulate(BoardSpec spec, int games, int threads, long seed) {
+        if (games < 1 || threads < 1) {
+            throw new IllegalArgumentException("Games and threads must be positive");
+        }
+        threads = Math.min(threads, games);
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Callable<Report>> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            SplittableRandom stream = root.split();
+            int share = games / threads + (i < games % threads ? 1 : 0);
+            workers.add(() -> play(spec, share, stream));
+        }
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "simulation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Report total = new Report(spec);
+            for (Future<Report> result : pool.invokeAll(workers)) {
+                total.add(result.get());
+            }
+            total.nanos = System.nanoTime() - start;
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays the games of one worker.
+     */
+    private static Report play(BoardSpec spec, int games, SplittableRandom stream) {
+        Report report = new Report(spec);
+        int safeCells = spec.getCellCount() - spec.getMineCount();
+        for (int i = 0; i < games; i++) {
+            BoardModel model = new BoardModel(spec, stream.nextLong());
+            model.placeMinesOnFirstReveal();
+            AutoSolver.Result result = AutoSolver.play(model);
+            report.games++;
+            report.wins += result.isWon() ? 1 : 0;
+            report.moves += result.getMoves();
+            report.reveals += result.getReveals();
+            report.guesses += result.getGuesses();
+            report.revealedCells += Math.round(model.getProgress() * safeCells);
+        }
+        return report;
+    }
+
+    /**
+     * Runs a simulation from command line arguments and prints its report. The arguments are
+     * "--simulate N" followed by any of "--difficulty D", "--size S --mines M", "--threads K" and
+     * "--seed S". The spec defaults to {@link Difficulty#MEDIUM}, the threads to one per
+     * processor and the seed to a random one.
+     *
+     * @param args the command line arguments.
+     * @param out where to print the report.
+     * @throws IllegalArgumentException if an argument is missing or malformed.
+     */
+    public static void run(String[] args, PrintStream out) {
+        int games = 0;
+        BoardSpec spec = Difficulty.MEDIUM.getSpec();
+        int size = -1;
+        int mines = -1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = ThreadLocalRandom.current().nextLong();
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--simulate":
+                    games = Integer.parseInt(value);
+                    break;
+                case "--difficulty":
+                    spec = Difficulty.valueOf(value.toUpperCase(Locale.ROOT)).getSpec();
+                    break;
+                case "--size":
+                    size = Integer.parseInt(value);
+                    break;
+                case "--mines":
+                    mines = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (size > 0 || mines >= 0) {
+            spec = BoardSpec.of(size > 0 ? size : spec.getSize(),
+                    mines >= 0 ? mines : spec.getMineCount());
+        }
+
+        Report report = simulate(spec, games, threads, seed);
+        out.println("Simulated " + report.getGames() + " games of " + spec + " on " + threads
+                + " threads, seed " + seed);
+        out.printf(Locale.ROOT, "win rate %.2f%%, %.2f guesses per game%n",
+                report.getWinRate() * 100, report.getGuessesPerGame());
+        out.printf(Locale.ROOT, "%.2f moves per game, %.2f cells per reveal%n",
+                report.getMovesPerGame(), report.getCascadeSize());
+        out.printf(Locale.ROOT, "%.0f games/s in %.2f s%n", report.getGamesPerSecond(),
+                report.getNanos() / 1e9);
+    }
+
+    /**
+     * The summed results of simulated games.
+     */
+    public static final class Report {
+
+        private final BoardSpec spec;
+        private long games;
+        private long wins;
+        private long moves;
+        private long reveals;
+        private long guesses;
+        private long revealedCells;
+        private long nanos;
+
+        Report(BoardSpec spec) {
+            this.spec = spec;
+        }
+
+        private void add(Report other) {
+            games += other.games;
+            wins += other.wins;
+            moves += other.moves;
+            reveals += other.reveals;
+            guesses += other.guesses;
+            revealedCells += other.revealedCells;
+        }
+
+        /**
+         * Retrieves the board size and mine count of the games.
+         *
+         * @return the board spec.
+         */
+        public BoardSpec getSpec() {
+            return spec;
+        }
+
+        /**
+         * Retrieves the number of games played.
+         *
+         * @return the game count.
+         */
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * Retrieves the number of games won.
+         *
+         * @return the win count.
+         */
+        public long getWins() {
+            return wins;
+        }
+
+        /**
+         * Retrieves the share of games won.
+         *
+         * @return the win rate, between 0 and 1.
+         */
+        public double getWinRate() {
+            return (double) wins / games;
+        }
+
+        /**
+         * Retrieves the average number of reveals and flags per game.
+         *
+         * @return the moves per game.
+         */
+        public double getMovesPerGame() {
+            return (double) moves / games;
+        }
+
+        /**
+         * Retrieves the average number of guesses per game.
+         *
+         * @return the guesses per game.
+         */
+        public double getGuessesPerGame() {
+            return (double) guesses / games;
+        }
+
+        /**
+         * Retrieves the average number of safe cells a reveal uncovered, including the cells of
+         * its cascade.
+         *
+         * @return the cells per reveal.
+         */
+        public double getCascadeSize() {
+            return reveals == 0 ? 0 : (double) revealedCells / reveals;
+        }
+
+        /**
+         * Retrieves the wall clock time of the simulation.
+         *
+         * @return the duration in nanoseconds.
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Retrieves the throughput of the simulation.
+         *
+         * @return the games played per second of wall clock time.
+         */
+        public double getGamesPerSecond() {
+            return nanos == 0 ? 0 : games * 1e9 / nanos;
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+package myproject.minesweeper;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Keeps a few pre-generated {@link SolvableLayout}s of every {@link Difficulty} ready, so a new
+ * no-guess game starts instantly even when generating its board takes a while. Taking a layout
+ * schedules a refill on a background thread, which generates with a {@link NoGuessGenerator} of
+ * its own. A layout taken while none is ready is generated with a second generator, so a new
+ * game never waits behind the refill of another difficulty.
+ */
+public class SolvableBoardPool implements AutoCloseable {
+
+    /**
+     * The number of layouts kept per difficulty by default.
+     */
+    public static final int DEFAULT_CAPACITY = 3;
+
+    private final NoGuessGenerator refills;
+    private final NoGuessGenerator takes;
+    private final Map<Difficulty, BlockingQueue<SolvableLayout>> layouts =
+            new EnumMap<>(Difficulty.class);
+    private final ExecutorService refiller;
+
+    /**
+     * Creates a pool of {@link #DEFAULT_CAPACITY} layouts per difficulty. The refill uses half
+     * the processors, so keeping the pool full leaves the others free for the game; a layout
+     * that is needed at once is generated with one worker per processor.
+     */
+    public SolvableBoardPool() {
+        this(new NoGuessGenerator(Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                NoGuessGenerator.DEFAULT_MAX_ATTEMPTS), new NoGuessGenerator(), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a pool and starts filling it, easiest difficulty first. The pool closes the
+     * generators when it is closed.
+     *
+     * @param refills the generator of the layouts kept in the pool.
+     * @param takes the generator of the layouts taken while none is ready.
+     * @param capacity the number of layouts kept per difficulty.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public SolvableBoardPool(NoGuessGenerator refills, NoGuessGenerator takes, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.refills = refills;
+        this.takes = takes;
+        this.refiller = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "no-guess-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Difficulty difficulty : Difficulty.values()) {
+            layouts.put(difficulty, new ArrayBlockingQueue<>(capacity));
+            refiller.execute(() -> fill(difficulty));
+        }
+    }
+
+    /**
+     * Takes a pre-generated layout without waiting.
+     *
+     * @param difficulty the difficulty of the game.
+     * @return the layout, or null if none is ready.
+     */
+    public SolvableLayout poll(Difficulty difficulty) {
+        SolvableLayout layout = layouts.get(difficulty).poll();
+        if (layout != null && !refiller.isShutdown()) {
+            refiller.execute(() -> fill(difficulty));
+        }
+        return layout;
+    }
+
+    /**
+     * Takes a pre-generated layout, or generates one on the calling thread if none is ready. The
+     * generation does not wait for a refill in progress.
+     *
+     * @param difficulty the difficulty of the game.
+     * @return the layout.
+     * @throws IllegalStateException if no layout could be generated.
+     */
+    public SolvableLayout take(Difficulty difficulty) {
+        SolvableLayout layout = poll(difficulty);
+        if (layout != null) {
+            return layout;
+        }
+        return takes.generate(difficulty.getSpec(), ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Counts the layouts ready for a difficulty.
+     *
+     * @param difficulty the difficulty of the game.
+     * @return the number of pre-generated layouts.
+     */
+    public int available(Difficulty difficulty) {
+        return layouts.get(difficulty).size();
+    }
+
+    /**
+     * Generates layouts until the queue of a difficulty is full.
+     */
+    private void fill(Difficulty difficulty) {
+        BlockingQueue<SolvableLayout> queue = layouts.get(difficulty);
+        while (queue.remainingCapacity() > 0 && !Thread.currentThread().isInterrupted()) {
+            try {
+                queue.offer(refills.generate(difficulty.getSpec(),
+                        ThreadLocalRandom.current().nextLong()));
+            } catch (IllegalStateException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                System.err.println("Could not pre-generate a board: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops the refill thread and the generators.
+     */
+    @Override
+    public void close() {
+        refiller.shutdownNow();
+        refills.close();
+        takes.close();
+    }
+
+}
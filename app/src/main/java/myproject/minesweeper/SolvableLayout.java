@@ -0,0 +1,70 @@
+package myproject.minesweeper;
+
+/**
+ * A mine layout that a {@link Solver} clears from its start cell without a single guess, found by
+ * a {@link NoGuessGenerator}. The layout is fully described by its spec, seed and start cell: the
+ * mines are those {@link BoardModel#distributeMinesAround(int)} places for them.
+ */
+public final class SolvableLayout {
+
+    private final BoardSpec spec;
+    private final long seed;
+    private final int startCell;
+
+    /**
+     * Creates a layout.
+     *
+     * @param spec the board size and mine count.
+     * @param seed the seed the mines are placed with.
+     * @param startCell the linear id of the cell the game is opened with.
+     */
+    public SolvableLayout(BoardSpec spec, long seed, int startCell) {
+        this.spec = spec;
+        this.seed = seed;
+        this.startCell = startCell;
+    }
+
+    /**
+     * Creates a board with the mines of this layout, before the start cell is revealed.
+     *
+     * @return the new board.
+     */
+    public BoardModel toModel() {
+        BoardModel model = new BoardModel(spec, seed);
+        model.distributeMinesAround(startCell);
+        return model;
+    }
+
+    /**
+     * Retrieves the board size and mine count.
+     *
+     * @return the board spec.
+     */
+    public BoardSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Retrieves the seed the mines are placed with.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retrieves the cell the game is opened with.
+     *
+     * @return the linear id of the start cell.
+     */
+    public int getStartCell() {
+        return startCell;
+    }
+
+    @Override
+    public String toString() {
+        return "SolvableLayout[" + spec + ", seed=" + seed + ", start=" + startCell + "]";
+    }
+
+}
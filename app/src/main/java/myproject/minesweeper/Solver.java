@@ -0,0 +1,926 @@
+package myproject.minesweeper;
+
+import java.util.*;
+
+/**
+ * Deduces safe cells and mines of a {@link BoardModel} from its revealed numbers, the way a player
+ * would: the solver only looks at which cells are revealed, their neighbor counts and the total
+ * mine count, never at the hidden mines. Flags placed by the player are ignored, since they may be
+ * wrong; the solver keeps its own set of deduced mines.
+ *
+ * Every revealed cell is a constraint: its count equals the number of mines among its covered
+ * neighbors. Three techniques are tried in order:
+ * <ol>
+ * <li>Single cell rules: if a constraint needs no more mines all its unknown neighbors are safe,
+ * if it needs as many as it has unknown neighbors they are all mines.</li>
+ * <li>Pair rules between constraints that share unknown cells: if A needs as many more mines than
+ * B as A has cells B does not see, those cells are mines and the cells only B sees are safe. This
+ * includes the subset rule.</li>
+ * <li>When logic is exhausted, the covered cells next to revealed numbers are split into
+ * independent components and every mine arrangement of each component is enumerated. Combined
+ * with the number of ways to place the remaining mines in the other covered cells, this gives the
+ * exact mine probability of each cell. Cells at probability 0 or 1 are deductions as well; else
+ * the safest cell is suggested as a guess.</li>
+ * </ol>
+ *
+ * The solver works incrementally: it keeps a copy of the revealed cells it has seen and only
+ * re-examines the constraints around cells revealed since, so a whole game costs about one
+ * pass over the frontier. The enumeration, which only runs when the rules are stuck, keeps the
+ * frontier and its components between calls as well: a component is split up again and
+ * re-enumerated only when a cell within two steps of it changed, so a guess costs time in the
+ * size of the frontier and of what changed, not of the board.
+ */
+public class Solver {
+
+    /**
+     * The most assignments the enumeration tries before falling back to local estimates.
+     */
+    public static final int ENUMERATION_BUDGET = 1 << 22;
+
+    private static final double EPSILON = 1e-9;
+
+    private final BoardModel model;
+    private final HexAdjacency adjacency;
+    private final int cellCount;
+    private final long[] safe;
+    private final long[] mines;
+    private final long[] queued;
+    private int knownMines;
+    private int[] dirty = new int[64];
+    private int dirtyCount;
+    private int[] safeCells = new int[64];
+    private int safeCount;
+    private int safeHead;
+    private int[] mineCells = new int[64];
+    private int mineCount;
+    private int mineHead;
+    private final long[] seen;
+    private double[] logFactorials;
+    private int remaining;
+    private int unknownCount;
+    private final long[] inFrontier;
+    private int[] frontierCells = new int[64];
+    private int frontierSize;
+    private int[] componentOf;
+    private List<Component> components = new ArrayList<>();
+    private int[] order = new int[64];
+    private double[] probability = new double[64];
+    private int[] byDegree;
+    private int interiorCursor;
+
+    private final int[] unknownsA = new int[6];
+    private final int[] unknownsB = new int[6];
+    private final int[] partners = new int[36];
+    private final int[] outer = new int[6];
+    private final int[] inner = new int[6];
+    private final int[] marks = new int[6];
+    private final int[] near = new int[6];
+    private final int[] nearer = new int[6];
+
+    /**
+     * Creates a solver for a board, which may already be partly revealed.
+     *
+     * @param model the board to solve; the solver follows the moves made on it.
+     */
+    public Solver(BoardModel model) {
+        this.model = model;
+        this.adjacency = model.getAdjacency();
+        this.cellCount = model.getCellCount();
+        this.safe = new long[Bits.words(cellCount)];
+        this.mines = new long[Bits.words(cellCount)];
+        this.queued = new long[Bits.words(cellCount)];
+        this.seen = new long[Bits.words(cellCount)];
+        this.inFrontier = new long[Bits.words(cellCount)];
+        this.unknownCount = cellCount;
+    }
+
+    /**
+     * Suggests the next move: a cell known to be safe, then a known mine that is not flagged yet,
+     * and otherwise the cell least likely to hold a mine. Known mines are only suggested while
+     * flags are left; the flags the player placed on other cells are taken back by the reveals
+     * that prove those cells safe.
+     *
+     * @return the hint, or null if the game is over.
+     */
+    public Hint hint() {
+        if (model.isGameStopped()) {
+            return null;
+        }
+        sync();
+        propagate();
+        Hint known = nextKnown();
+        return known != null ? known : guess();
+    }
+
+    /**
+     * Lists every deduction the player has not acted on yet as one batch: the known safe cells to
+     * reveal, with the flags in their way removed first, then as many of the known mines to flag
+     * as there are flags left. Unlike {@link #hint()} this never guesses.
+     *
+     * @return the moves, empty if the game is over or nothing is certain.
+     */
+    public List<MoveCommand> knownMoves() {
+        List<MoveCommand> moves = new ArrayList<>();
+        if (model.isGameStopped()) {
+            return moves;
+        }
+        sync();
+        propagate();
+        int flagsLeft = model.getMineCount();
+        for (int i = safeHead; i < safeCount; i++) {
+            int id = safeCells[i];
+            if (!model.isRevealed(id)) {
+                if (model.isFlagged(id)) {
+                    moves.add(MoveCommand.flag(id));
+                    flagsLeft++;
+                }
+                moves.add(MoveCommand.reveal(id));
+            }
+        }
+        for (int i = mineHead; i < mineCount && flagsLeft > 0; i++) {
+            if (!model.isFlagged(mineCells[i])) {
+                flagsLeft--;
+                moves.add(MoveCommand.flag(mineCells[i]));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Lists the certain moves as one batch like {@link #knownMoves()}, but when the rules are
+     * stuck also runs the enumeration a hint would and takes the cells it proves safe or mined.
+     * Unlike {@link #hint()} this never guesses.
+     *
+     * @return the moves, empty if the game is over or nothing is certain.
+     */
+    public List<MoveCommand> certainMoves() {
+        List<MoveCommand> moves = knownMoves();
+        if (!moves.isEmpty() || model.isGameStopped() || unknownCount == 0) {
+            return moves;
+        }
+        int frontierCount = layOutComponents();
+        int interiorCount = unknownCount - frontierCount;
+        double interior = probabilities(frontierCount, interiorCount,
+                model.getSpec().getMineCount() - knownMines);
+        if (Double.isNaN(interior)) {
+            return moves;
+        }
+        boolean certain = markCertain(frontierCount);
+        if (interiorCount > 0 && interior < EPSILON) {
+            markSafe(interiorCell());
+            certain = true;
+        } else if (interiorCount > 0 && interior > 1 - EPSILON) {
+            markMine(interiorCell());
+            certain = true;
+        }
+        return certain ? knownMoves() : moves;
+    }
+
+    /**
+     * Checks whether the solver has deduced that a cell is safe.
+     *
+     * @param id the linear id of the cell.
+     * @return true if the cell is known to be safe.
+     */
+    public boolean isKnownSafe(int id) {
+        return Bits.get(safe, id) || model.isRevealed(id);
+    }
+
+    /**
+     * Checks whether the solver has deduced that a cell holds a mine.
+     *
+     * @param id the linear id of the cell.
+     * @return true if the cell is known to be a mine.
+     */
+    public boolean isKnownMine(int id) {
+        return Bits.get(mines, id);
+    }
+
+    /**
+     * Queues the constraints around the cells revealed since the last call and adds their covered
+     * neighbors to the frontier.
+     */
+    private void sync() {
+        for (int id : model.revealedSince(seen)) {
+            if (!Bits.get(safe, id) && !Bits.get(mines, id)) {
+                unknownCount--;
+            }
+            markDirty(id);
+            for (int i = adjacency.neighbors(id, marks) - 1; i >= 0; i--) {
+                int neighbor = marks[i];
+                markDirty(neighbor);
+                if (isUnknown(neighbor) && !Bits.get(inFrontier, neighbor)) {
+                    Bits.set(inFrontier, neighbor);
+                    if (frontierSize == frontierCells.length) {
+                        frontierCells = Arrays.copyOf(frontierCells, frontierSize * 2);
+                    }
+                    frontierCells[frontierSize++] = neighbor;
+                }
+            }
+            invalidateAround(id);
+        }
+    }
+
+    /**
+     * Marks the components within two steps of a changed cell as stale: the constraints next to
+     * the cell changed, and with them the cells those constraints see.
+     */
+    private void invalidateAround(int id) {
+        if (componentOf == null) {
+            return;
+        }
+        invalidate(id);
+        for (int i = adjacency.neighbors(id, near) - 1; i >= 0; i--) {
+            invalidate(near[i]);
+            for (int j = adjacency.neighbors(near[i], nearer) - 1; j >= 0; j--) {
+                invalidate(nearer[j]);
+            }
+        }
+    }
+
+    private void invalidate(int id) {
+        int index = componentOf[id];
+        if (index >= 0) {
+            components.get(index).stale = true;
+        }
+    }
+
+    private void markDirty(int id) {
+        if (!model.isRevealed(id) || Bits.get(queued, id)) {
+            return;
+        }
+        Bits.set(queued, id);
+        if (dirtyCount == dirty.length) {
+            dirty = Arrays.copyOf(dirty, dirtyCount * 2);
+        }
+        dirty[dirtyCount++] = id;
+    }
+
+    private void markNeighborsDirty(int id) {
+        for (int i = adjacency.neighbors(id, marks) - 1; i >= 0; i--) {
+            markDirty(marks[i]);
+        }
+    }
+
+    private boolean isUnknown(int id) {
+        return !model.isRevealed(id) && !Bits.get(safe, id) && !Bits.get(mines, id);
+    }
+
+    private void markSafe(int id) {
+        if (!isUnknown(id)) {
+            return;
+        }
+        Bits.set(safe, id);
+        unknownCount--;
+        if (safeCount == safeCells.length) {
+            safeCells = Arrays.copyOf(safeCells, safeCount * 2);
+        }
+        safeCells[safeCount++] = id;
+        markNeighborsDirty(id);
+        invalidateAround(id);
+    }
+
+    private void markMine(int id) {
+        if (!isUnknown(id)) {
+            return;
+        }
+        Bits.set(mines, id);
+        knownMines++;
+        unknownCount--;
+        if (mineCount == mineCells.length) {
+            mineCells = Arrays.copyOf(mineCells, mineCount * 2);
+        }
+        mineCells[mineCount++] = id;
+        markNeighborsDirty(id);
+        invalidateAround(id);
+    }
+
+    /**
+     * Collects the unknown neighbors of a revealed cell and sets {@link #remaining} to the number
+     * of mines among them.
+     */
+    private int unknowns(int id, int[] out) {
+        int count = 0;
+        int mineNeighbors = 0;
+        for (int i = adjacency.neighbors(id, inner) - 1; i >= 0; i--) {
+            int neighbor = inner[i];
+            if (Bits.get(mines, neighbor)) {
+                mineNeighbors++;
+            } else if (isUnknown(neighbor)) {
+                out[count++] = neighbor;
+            }
+        }
+        remaining = model.neighborMineCount(id) - mineNeighbors;
+        return count;
+    }
+
+    /**
+     * Applies the single cell and pair rules until no queued constraint yields anything new.
+     */
+    private void propagate() {
+        while (dirtyCount > 0) {
+            int id = dirty[--dirtyCount];
+            Bits.clear(queued, id);
+            examine(id);
+        }
+    }
+
+    private void examine(int id) {
+        int[] a = unknownsA;
+        int countA = unknowns(id, a);
+        int remainingA = remaining;
+        if (countA == 0) {
+            return;
+        }
+        if (remainingA == 0 || remainingA == countA) {
+            for (int i = 0; i < countA; i++) {
+                if (remainingA == 0) {
+                    markSafe(a[i]);
+                } else {
+                    markMine(a[i]);
+                }
+            }
+            return;
+        }
+
+        int partnerCount = 0;
+        for (int i = 0; i < countA; i++) {
+            for (int j = adjacency.neighbors(a[i], outer) - 1; j >= 0; j--) {
+                int partner = outer[j];
+                if (partner == id || !model.isRevealed(partner)
+                        || contains(partners, partnerCount, partner)) {
+                    continue;
+                }
+                partners[partnerCount++] = partner;
+                int[] b = unknownsB;
+                int countB = unknowns(partner, b);
+                if (overlap(a, countA, remainingA, b, countB, remaining)) {
+                    // the unknowns of this cell changed; it was queued again
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the pair rule in both directions.
+     *
+     * @return true if anything was deduced.
+     */
+    private boolean overlap(int[] a, int countA, int remainingA, int[] b, int countB,
+            int remainingB) {
+        int onlyA = 0;
+        for (int i = 0; i < countA; i++) {
+            if (!contains(b, countB, a[i])) {
+                onlyA++;
+            }
+        }
+        int onlyB = countB - (countA - onlyA);
+        if (onlyA == 0 && onlyB == 0) {
+            return false;
+        }
+        if (remainingA - remainingB == onlyA) {
+            split(a, countA, b, countB);
+            return true;
+        }
+        if (remainingB - remainingA == onlyB) {
+            split(b, countB, a, countA);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Marks the cells only the first constraint sees as mines and those only the second sees as
+     * safe.
+     */
+    private void split(int[] mineSide, int mineCount, int[] safeSide, int safeCount) {
+        for (int i = 0; i < mineCount; i++) {
+            if (!contains(safeSide, safeCount, mineSide[i])) {
+                markMine(mineSide[i]);
+            }
+        }
+        for (int i = 0; i < safeCount; i++) {
+            if (!contains(mineSide, mineCount, safeSide[i])) {
+                markSafe(safeSide[i]);
+            }
+        }
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves the first deduction the player has not acted on yet. A known mine cannot be
+     * flagged once the flags are used up, so it is not suggested then.
+     */
+    private Hint nextKnown() {
+        while (safeHead < safeCount && model.isRevealed(safeCells[safeHead])) {
+            safeHead++;
+        }
+        if (safeHead < safeCount) {
+            return new Hint(MoveAction.REVEAL, safeCells[safeHead], 0);
+        }
+        if (model.getMineCount() <= 0) {
+            return null;
+        }
+        while (mineHead < mineCount && model.isFlagged(mineCells[mineHead])) {
+            mineHead++;
+        }
+        if (mineHead < mineCount) {
+            return new Hint(MoveAction.FLAG, mineCells[mineHead], 1);
+        }
+        return null;
+    }
+
+    /**
+     * Computes the mine probability of every unknown cell. Cells that turn out to be certain are
+     * recorded as deductions; otherwise the safest cell is suggested.
+     */
+    private Hint guess() {
+        if (unknownCount == 0) {
+            return null;
+        }
+        int frontierCount = layOutComponents();
+        int minesLeft = model.getSpec().getMineCount() - knownMines;
+        int interiorCount = unknownCount - frontierCount;
+        double interior = probabilities(frontierCount, interiorCount, minesLeft);
+        if (Double.isNaN(interior)) {
+            interior = estimate(order, frontierCount, unknownCount, minesLeft, probability);
+        } else if (markCertain(frontierCount)) {
+            propagate();
+            Hint known = nextKnown();
+            if (known != null) {
+                return known;
+            }
+        }
+
+        int best = -1;
+        double bestProbability = 2;
+        for (int i = 0; i < frontierCount; i++) {
+            if (probability[i] < bestProbability) {
+                best = order[i];
+                bestProbability = probability[i];
+            }
+        }
+        if (interiorCount > 0 && interior < bestProbability) {
+            best = interiorCell();
+            bestProbability = interior;
+        }
+        return new Hint(MoveAction.REVEAL, best, bestProbability);
+    }
+
+    /**
+     * Records the frontier cells whose probability is 0 or 1 as deductions.
+     *
+     * @return true if any cell was certain.
+     */
+    private boolean markCertain(int frontierCount) {
+        boolean certain = false;
+        for (int i = 0; i < frontierCount; i++) {
+            if (probability[i] < EPSILON) {
+                markSafe(order[i]);
+                certain = true;
+            } else if (probability[i] > 1 - EPSILON) {
+                markMine(order[i]);
+                certain = true;
+            }
+        }
+        return certain;
+    }
+
+    /**
+     * Brings the frontier components up to date and lays their cells out in {@link #order},
+     * component by component. Components that are not stale keep their cells and enumeration;
+     * the cells of stale ones and new frontier cells are split into components again, breadth
+     * first over the constraints they share.
+     *
+     * @return the number of frontier cells.
+     */
+    private int layOutComponents() {
+        if (componentOf == null) {
+            componentOf = new int[cellCount];
+            Arrays.fill(componentOf, -1);
+        }
+        int kept = 0;
+        for (int i = 0; i < frontierSize; i++) {
+            if (isUnknown(frontierCells[i])) {
+                frontierCells[kept++] = frontierCells[i];
+            }
+        }
+        frontierSize = kept;
+        if (order.length < frontierSize) {
+            order = new int[Math.max(frontierSize, order.length * 2)];
+        }
+
+        List<Component> current = new ArrayList<>(components.size());
+        for (Component component : components) {
+            if (component.stale) {
+                for (int cell : component.cells) {
+                    componentOf[cell] = -1;
+                }
+            }
+        }
+        for (Component component : components) {
+            if (!component.stale) {
+                for (int cell : component.cells) {
+                    componentOf[cell] = current.size();
+                }
+                current.add(component);
+            }
+        }
+        for (int i = 0; i < frontierSize; i++) {
+            int start = frontierCells[i];
+            if (componentOf[start] >= 0) {
+                continue;
+            }
+            int index = current.size();
+            componentOf[start] = index;
+            order[0] = start;
+            int size = 1;
+            for (int head = 0; head < size; head++) {
+                int cell = order[head];
+                for (int j = adjacency.neighbors(cell, outer) - 1; j >= 0; j--) {
+                    int constraint = outer[j];
+                    if (!model.isRevealed(constraint)) {
+                        continue;
+                    }
+                    for (int k = adjacency.neighbors(constraint, inner) - 1; k >= 0; k--) {
+                        int other = inner[k];
+                        if (componentOf[other] < 0 && isUnknown(other)) {
+                            componentOf[other] = index;
+                            order[size++] = other;
+                        }
+                    }
+                }
+            }
+            current.add(new Component(Arrays.copyOf(order, size)));
+        }
+        components = current;
+
+        int frontierCount = 0;
+        for (Component component : current) {
+            System.arraycopy(component.cells, 0, order, frontierCount, component.cells.length);
+            frontierCount += component.cells.length;
+        }
+        return frontierCount;
+    }
+
+    /**
+     * Finds the unknown cell away from the frontier with the fewest neighbors: corners most often
+     * open an empty region. A cell that left the interior never returns to it, so the search
+     * walks the cells sorted by degree once per game rather than once per guess.
+     */
+    private int interiorCell() {
+        if (byDegree == null) {
+            int[] starts = new int[8];
+            for (int id = 0; id < cellCount; id++) {
+                starts[adjacency.degree(id) + 1]++;
+            }
+            for (int degree = 1; degree < starts.length; degree++) {
+                starts[degree] += starts[degree - 1];
+            }
+            byDegree = new int[cellCount];
+            for (int id = 0; id < cellCount; id++) {
+                byDegree[starts[adjacency.degree(id)]++] = id;
+            }
+        }
+        while (interiorCursor < cellCount) {
+            int id = byDegree[interiorCursor];
+            if (isUnknown(id) && !touchesRevealed(id)) {
+                return id;
+            }
+            interiorCursor++;
+        }
+        return -1;
+    }
+
+    private boolean touchesRevealed(int id) {
+        for (int i = adjacency.neighbors(id, outer) - 1; i >= 0; i--) {
+            if (model.isRevealed(outer[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Enumerates the components that have no enumeration yet and combines all of them with the
+     * interior cells, writing the probabilities of the frontier cells in {@link #order}.
+     *
+     * @return the mine probability of an interior cell, or NaN if the budget ran out.
+     */
+    private double probabilities(int frontierCount, int interiorCount, int minesLeft) {
+        if (probability.length < frontierCount) {
+            probability = new double[Math.max(frontierCount, probability.length * 2)];
+        }
+        int componentCount = components.size();
+        Enumeration[] enumerations = new Enumeration[componentCount];
+        long budget = ENUMERATION_BUDGET;
+        for (int c = 0; c < componentCount; c++) {
+            Component component = components.get(c);
+            if (component.enumeration == null) {
+                Enumeration enumeration = new Enumeration(component.cells, minesLeft);
+                budget = enumeration.run(budget);
+                if (budget < 0) {
+                    return Double.NaN;
+                }
+                component.enumeration = enumeration;
+            }
+            enumerations[c] = component.enumeration;
+        }
+
+        double[] interiorWeights = interiorWeights(interiorCount, minesLeft,
+                Math.min(minesLeft, frontierCount));
+        double[][] prefix = new double[componentCount + 1][];
+        double[][] suffix = new double[componentCount + 1][];
+        prefix[0] = new double[] {1};
+        suffix[componentCount] = new double[] {1};
+        for (int c = 0; c < componentCount; c++) {
+            prefix[c + 1] = convolve(prefix[c], enumerations[c].solutions, minesLeft);
+        }
+        for (int c = componentCount - 1; c >= 0; c--) {
+            suffix[c] = convolve(suffix[c + 1], enumerations[c].solutions, minesLeft);
+        }
+
+        int start = 0;
+        for (int c = 0; c < componentCount; c++) {
+            Enumeration enumeration = enumerations[c];
+            double[] others = convolve(prefix[c], suffix[c + 1], minesLeft);
+            double[] weight = new double[enumeration.solutions.length];
+            double total = 0;
+            for (int m = 0; m < weight.length; m++) {
+                for (int r = 0; r < others.length && m + r <= minesLeft; r++) {
+                    weight[m] += others[r] * interiorWeights[m + r];
+                }
+                total += enumeration.solutions[m] * weight[m];
+            }
+            if (total == 0) {
+                return Double.NaN;
+            }
+            for (int i = 0; i < enumeration.size; i++) {
+                double mine = 0;
+                for (int m = 0; m < weight.length; m++) {
+                    if (enumeration.mineCounts[m] != null) {
+                        mine += enumeration.mineCounts[m][i] * weight[m];
+                    }
+                }
+                probability[start + i] = mine / total;
+            }
+            start += enumeration.size;
+        }
+
+        if (interiorCount == 0) {
+            return 0;
+        }
+        double[] all = prefix[componentCount];
+        double total = 0;
+        double interiorMines = 0;
+        for (int t = 0; t < all.length && t <= minesLeft; t++) {
+            double weight = all[t] * interiorWeights[t];
+            total += weight;
+            interiorMines += weight * (minesLeft - t);
+        }
+        return total == 0 ? Double.NaN : interiorMines / total / interiorCount;
+    }
+
+    /**
+     * Calculates the number of ways to place minesLeft - t mines in the interior cells, for each
+     * number t of mines on the frontier up to frontierMines, scaled so the largest is 1. The
+     * logarithms of the factorials are kept up to the interior count, which only shrinks during
+     * a game.
+     */
+    private double[] interiorWeights(int interiorCount, int minesLeft, int frontierMines) {
+        if (logFactorials == null || logFactorials.length <= interiorCount) {
+            double[] grown = new double[interiorCount + 1];
+            int from = 1;
+            if (logFactorials != null) {
+                System.arraycopy(logFactorials, 0, grown, 0, logFactorials.length);
+                from = logFactorials.length;
+            }
+            for (int n = from; n <= interiorCount; n++) {
+                grown[n] = grown[n - 1] + Math.log(n);
+            }
+            logFactorials = grown;
+        }
+        double[] weights = new double[Math.max(0, frontierMines) + 1];
+        double max = Double.NEGATIVE_INFINITY;
+        for (int t = 0; t < weights.length; t++) {
+            int k = minesLeft - t;
+            weights[t] = k > interiorCount ? Double.NEGATIVE_INFINITY
+                    : logFactorials[interiorCount] - logFactorials[k]
+                            - logFactorials[interiorCount - k];
+            max = Math.max(max, weights[t]);
+        }
+        for (int t = 0; t < weights.length; t++) {
+            weights[t] = Math.exp(weights[t] - max);
+        }
+        return weights;
+    }
+
+    /**
+     * Convolves two mine count distributions up to a total of limit mines, scaled so the largest
+     * entry is 1.
+     */
+    private static double[] convolve(double[] a, double[] b, int limit) {
+        double[] result = new double[Math.max(1, Math.min(limit + 1, a.length + b.length - 1))];
+        double max = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) {
+                continue;
+            }
+            for (int j = 0; j < b.length && i + j < result.length; j++) {
+                result[i + j] += a[i] * b[j];
+            }
+        }
+        for (double value : result) {
+            max = Math.max(max, value);
+        }
+        if (max > 0) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] /= max;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Estimates the probabilities from each cell's most demanding constraint when the frontier is
+     * too large to enumerate.
+     *
+     * @return the mine density of the cells away from the frontier.
+     */
+    private double estimate(int[] order, int frontierCount, int unknownCount, int minesLeft,
+            double[] probability) {
+        for (int i = 0; i < frontierCount; i++) {
+            int cell = order[i];
+            double worst = 0;
+            for (int j = adjacency.neighbors(cell, outer) - 1; j >= 0; j--) {
+                int constraint = outer[j];
+                if (model.isRevealed(constraint)) {
+                    int count = unknowns(constraint, unknownsA);
+                    worst = Math.max(worst, (double) remaining / count);
+                }
+            }
+            probability[i] = worst;
+        }
+        return (double) minesLeft / unknownCount;
+    }
+
+    /**
+     * A connected part of the frontier: covered cells that share constraints only with each
+     * other. Its enumeration is kept until a cell near it changes and makes it stale.
+     */
+    private static final class Component {
+        final int[] cells;
+        Enumeration enumeration;
+        boolean stale;
+
+        Component(int[] cells) {
+            this.cells = cells;
+        }
+    }
+
+    /**
+     * The mine arrangements of one frontier component that satisfy all its constraints, counted
+     * by their number of mines.
+     */
+    private final class Enumeration {
+        final int size;
+        final int[] cells;
+        final int limit;
+        /** The number of arrangements with m mines. */
+        final double[] solutions;
+        /** For arrangements with m mines, how many put a mine on each cell; null if none. */
+        final double[][] mineCounts;
+
+        private final int[][] cellConstraints;
+        private final int[] needed;
+        private final int[] open;
+        private final int[] placed;
+
+        Enumeration(int[] cells, int limit) {
+            this.size = cells.length;
+            this.cells = cells;
+            this.limit = Math.max(0, Math.min(limit, size));
+            this.solutions = new double[this.limit + 1];
+            this.mineCounts = new double[this.limit + 1][];
+
+            int[] constraints = new int[size * 6];
+            int constraintCount = 0;
+            cellConstraints = new int[size][];
+            int[] local = new int[6];
+            for (int i = 0; i < size; i++) {
+                int localCount = 0;
+                int cell = cells[i];
+                for (int j = adjacency.neighbors(cell, outer) - 1; j >= 0; j--) {
+                    int constraint = outer[j];
+                    if (!model.isRevealed(constraint)) {
+                        continue;
+                    }
+                    int index = indexOf(constraints, constraintCount, constraint);
+                    if (index < 0) {
+                        index = constraintCount;
+                        constraints[constraintCount++] = constraint;
+                    }
+                    local[localCount++] = index;
+                }
+                cellConstraints[i] = Arrays.copyOf(local, localCount);
+            }
+            needed = new int[constraintCount];
+            open = new int[constraintCount];
+            placed = new int[constraintCount];
+            for (int k = 0; k < constraintCount; k++) {
+                open[k] = unknowns(constraints[k], unknownsA);
+                needed[k] = remaining;
+            }
+        }
+
+        private int indexOf(int[] values, int count, int value) {
+            // constraints of a component are found close together, so search from the end
+            for (int i = count - 1; i >= 0; i--) {
+                if (values[i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Runs a depth-first search over the cells in frontier order.
+         *
+         * @return the budget left, negative if it ran out.
+         */
+        long run(long budget) {
+            int[] value = new int[size];
+            int mineTotal = 0;
+            int i = 0;
+            value[0] = -1;
+            while (i >= 0) {
+                if (--budget < 0) {
+                    return budget;
+                }
+                if (value[i] == 1) {
+                    assign(i, 1, -1);
+                    mineTotal--;
+                    value[i] = -1;
+                    i--;
+                    continue;
+                }
+                if (value[i] == 0) {
+                    assign(i, 0, -1);
+                    value[i] = 1;
+                    mineTotal++;
+                } else {
+                    value[i] = 0;
+                }
+                assign(i, value[i], 1);
+                if (mineTotal > limit || !consistent(i)) {
+                    continue;
+                }
+                if (i == size - 1) {
+                    record(value, mineTotal);
+                    budget -= size;
+                    continue;
+                }
+                value[++i] = -1;
+            }
+            return budget;
+        }
+
+        private void assign(int i, int mine, int sign) {
+            for (int k : cellConstraints[i]) {
+                open[k] -= sign;
+                placed[k] += sign * mine;
+            }
+        }
+
+        private boolean consistent(int i) {
+            for (int k : cellConstraints[i]) {
+                if (placed[k] > needed[k] || placed[k] + open[k] < needed[k]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void record(int[] value, int mineTotal) {
+            solutions[mineTotal]++;
+            double[] counts = mineCounts[mineTotal];
+            if (counts == null) {
+                counts = new double[size];
+                mineCounts[mineTotal] = counts;
+            }
+            for (int i = 0; i < size; i++) {
+                counts[i] += value[i];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+package myproject.minesweeper;
+
+import java.util.*;
+
+/**
+ * In-memory index of {@link GameRecord}s per board spec, for the statistics shown after a game.
+ * Records must be added in the order the games ended. Every spec keeps its game and win counts,
+ * its streaks and the sorted times of its wins, so best times, streaks and counts are lookups and
+ * percentiles and ranks are one binary search, however many games were recorded.
+ *
+ * The index is filled by the writer thread of the {@link StatsStore} and read from the FX thread;
+ * all methods are synchronized.
+ */
+public class StatsIndex {
+
+    private final Map<BoardSpec, Entry> entries = new HashMap<>();
+
+    /**
+     * Adds one finished game.
+     *
+     * @param record the game.
+     */
+    public void add(GameRecord record) {
+        addAll(List.of(record));
+    }
+
+    /**
+     * Adds finished games in the order they ended. The new win times of a spec are sorted in
+     * once per call, so loading a whole history costs one sort per spec and a single game one
+     * binary search and array shift.
+     *
+     * @param records the games.
+     */
+    public synchronized void addAll(Collection<GameRecord> records) {
+        for (GameRecord record : records) {
+            entries.computeIfAbsent(record.getSpec(), spec -> new Entry()).add(record);
+        }
+        for (Entry entry : entries.values()) {
+            entry.sort();
+        }
+    }
+
+    private Entry entry(BoardSpec spec) {
+        Entry entry = entries.get(spec);
+        return entry != null ? entry : Entry.EMPTY;
+    }
+
+    /**
+     * Counts the games played on a spec.
+     *
+     * @param spec the board spec.
+     * @return the number of finished games.
+     */
+    public synchronized int getGames(BoardSpec spec) {
+        return entry(spec).games;
+    }
+
+    /**
+     * Counts the games won on a spec.
+     *
+     * @param spec the board spec.
+     * @return the number of won games.
+     */
+    public synchronized int getWins(BoardSpec spec) {
+        return entry(spec).wins;
+    }
+
+    /**
+     * Retrieves the number of games won in a row up to the last game on a spec.
+     *
+     * @param spec the board spec.
+     * @return the current win streak, 0 if the last game was lost.
+     */
+    public synchronized int getCurrentStreak(BoardSpec spec) {
+        return entry(spec).currentStreak;
+    }
+
+    /**
+     * Retrieves the most games ever won in a row on a spec.
+     *
+     * @param spec the board spec.
+     * @return the longest win streak.
+     */
+    public synchronized int getBestStreak(BoardSpec spec) {
+        return entry(spec).bestStreak;
+    }
+
+    /**
+     * Retrieves the fastest win on a spec.
+     *
+     * @param spec the board spec.
+     * @return the best time in milliseconds, or -1 if no game was won.
+     */
+    public synchronized long getBestTime(BoardSpec spec) {
+        Entry entry = entry(spec);
+        return entry.wins == 0 ? -1 : entry.times[0];
+    }
+
+    /**
+     * Retrieves the time that a share of the wins on a spec were at least as fast as, e.g. 0.5
+     * for the median.
+     *
+     * @param spec the board spec.
+     * @param percentile the share of wins, above 0 and at most 1.
+     * @return the time in milliseconds, or -1 if no game was won.
+     * @throws IllegalArgumentException if the percentile is out of range.
+     */
+    public synchronized long getPercentileTime(BoardSpec spec, double percentile) {
+        if (!(percentile > 0 && percentile <= 1)) {
+            throw new IllegalArgumentException("Percentile must be in (0, 1]: " + percentile);
+        }
+        Entry entry = entry(spec);
+        if (entry.wins == 0) {
+            return -1;
+        }
+        int rank = (int) Math.ceil(percentile * entry.wins) - 1;
+        return entry.times[Math.max(0, Math.min(entry.wins - 1, rank))];
+    }
+
+    /**
+     * Retrieves the share of wins on a spec that were slower than a time.
+     *
+     * @param spec the board spec.
+     * @param timeMillis the time to compare.
+     * @return the share of slower wins between 0 and 1, or 0 if no game was won.
+     */
+    public synchronized double getShareSlowerThan(BoardSpec spec, long timeMillis) {
+        Entry entry = entry(spec);
+        if (entry.wins == 0) {
+            return 0;
+        }
+        int low = 0;
+        int high = entry.wins;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entry.times[mid] <= timeMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return (double) (entry.wins - low) / entry.wins;
+    }
+
+    /**
+     * The statistics of one spec.
+     */
+    private static final class Entry {
+        static final Entry EMPTY = new Entry();
+
+        /**
+         * Up to this many new times are inserted one by one, more are sorted in one go.
+         */
+        static final int MAX_INSERTS = 64;
+
+        int games;
+        int wins;
+        int currentStreak;
+        int bestStreak;
+        long[] times = new long[16];
+        int sorted;
+
+        void add(GameRecord record) {
+            games++;
+            if (!record.isWon()) {
+                currentStreak = 0;
+                return;
+            }
+            currentStreak++;
+            bestStreak = Math.max(bestStreak, currentStreak);
+            if (wins == times.length) {
+                times = Arrays.copyOf(times, wins * 2);
+            }
+            times[wins++] = record.getTimeMillis();
+        }
+
+        /**
+         * Sorts the times added since the last sort into the others. A few are moved into place
+         * with a binary search each, so a new game costs one array shift instead of a sort.
+         */
+        void sort() {
+            if (wins - sorted > MAX_INSERTS) {
+                Arrays.sort(times, 0, wins);
+            } else {
+                for (int i = sorted; i < wins; i++) {
+                    long time = times[i];
+                    int at = Arrays.binarySearch(times, 0, i, time);
+                    at = at < 0 ? -at - 1 : at;
+                    System.arraycopy(times, at, times, at + 1, i - at);
+                    times[at] = time;
+                }
+            }
+            sorted = wins;
+        }
+    }
+
+}
@@ -0,0 +1,215 @@
+package myproject.minesweeper;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
+import com.opencsv.exceptions.CsvValidationException;
+
+/**
+ * Keeps the result of every finished game in a CSV file, one {@link GameRecord} per row, and
+ * answers questions about them through a {@link StatsIndex}.
+ *
+ * All file work happens on one background thread, so recording a game never waits for the disk.
+ * The thread first reads the whole file into the index. Records are then queued; the thread
+ * drains the queue, appends every queued row and forces them to disk with a single fsync, so a
+ * burst of records costs one sync however long it is. The index is updated once the rows are
+ * written.
+ */
+public class StatsStore implements AutoCloseable {
+
+    private final Path file;
+    private final StatsIndex index = new StatsIndex();
+    private final ExecutorService writer;
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+    private FileChannel channel;
+    private CSVWriter csv;
+
+    /**
+     * Opens a store and starts loading its file in the background.
+     *
+     * @param file the CSV file of the records; created with the first record if missing.
+     */
+    public StatsStore(Path file) {
+        this.file = file;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.execute(this::load);
+    }
+
+    /**
+     * Queues a finished game to be appended to the file and added to the index. Returns at once.
+     *
+     * @param record the game.
+     * @return completes once the game is in the index, and on disk unless writing failed.
+     */
+    public CompletableFuture<Void> record(GameRecord record) {
+        Pending pending = new Pending(record);
+        queue.add(pending);
+        if (scheduled.compareAndSet(false, true)) {
+            writer.execute(this::writeQueued);
+        }
+        return pending.done;
+    }
+
+    /**
+     * Retrieves the index of the recorded games.
+     *
+     * @return the index; empty until the file is loaded.
+     */
+    public StatsIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Tells when the games recorded in earlier sessions are in the index.
+     *
+     * @return completes once the file is loaded.
+     */
+    public CompletableFuture<Void> loaded() {
+        return loaded;
+    }
+
+    /**
+     * Retrieves the CSV file of the records.
+     *
+     * @return the file.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Reads every record of the file into the index. Malformed rows, e.g. a row cut short by a
+     * crash, are skipped.
+     */
+    private void load() {
+        List<GameRecord> records = new ArrayList<>();
+        int skipped = 0;
+        if (Files.exists(file)) {
+            try (CSVReader reader = new CSVReader(
+                    Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+                String[] row;
+                while ((row = reader.readNext()) != null) {
+                    if (Arrays.equals(row, GameRecord.HEADER)) {
+                        continue;
+                    }
+                    try {
+                        records.add(GameRecord.fromRow(row));
+                    } catch (IllegalArgumentException e) {
+                        skipped++;
+                    }
+                }
+            } catch (IOException | CsvValidationException e) {
+                System.err.println("Could not read the statistics: " + e.getMessage());
+            }
+        }
+        if (skipped > 0) {
+            System.err.println("Skipped " + skipped + " malformed rows of " + file);
+        }
+        index.addAll(records);
+        loaded.complete(null);
+    }
+
+    /**
+     * Appends everything queued so far with one flush and one fsync, then indexes it.
+     */
+    private void writeQueued() {
+        scheduled.set(false);
+        List<Pending> batch = new ArrayList<>();
+        for (Pending pending = queue.poll(); pending != null; pending = queue.poll()) {
+            batch.add(pending);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<GameRecord> records = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            records.add(pending.record);
+        }
+        try {
+            if (csv == null) {
+                openForAppend();
+            }
+            for (GameRecord record : records) {
+                csv.writeNext(record.toRow(), false);
+            }
+            csv.flush();
+            channel.force(false);
+        } catch (IOException e) {
+            System.err.println("Could not save the statistics: " + e.getMessage());
+        }
+        index.addAll(records);
+        for (Pending pending : batch) {
+            pending.done.complete(null);
+        }
+    }
+
+    /**
+     * Opens the file for appending. A new file starts with the header; a file whose last row was
+     * cut short gets a line break first, so the next row starts on a line of its own.
+     */
+    private void openForAppend() throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        long size = channel.size();
+        if (size > 0) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            try (FileChannel reader = FileChannel.open(file, StandardOpenOption.READ)) {
+                reader.read(last, size - 1);
+            }
+            if (last.get(0) != '\n') {
+                channel.write(ByteBuffer.wrap(new byte[] {'\n'}));
+            }
+        }
+        csv = new CSVWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+        if (size == 0) {
+            csv.writeNext(GameRecord.HEADER, false);
+        }
+    }
+
+    /**
+     * Writes the queued records, closes the file and stops the background thread.
+     */
+    @Override
+    public void close() {
+        writer.execute(() -> {
+            try {
+                if (csv != null) {
+                    csv.close();
+                }
+            } catch (IOException e) {
+                System.err.println("Could not close the statistics: " + e.getMessage());
+            }
+        });
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Pending {
+        final GameRecord record;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Pending(GameRecord record) {
+            this.record = record;
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package myproject.minesweeper;
+
+import java.nio.ByteBuffer;
+
+/**
+ * LEB128 variable-length encoding of non-negative integers: 7 bits per byte, least significant
+ * group first, with the high bit set on every byte but the last. Values below 128 take one byte.
+ */
+public final class Varint {
+
+    private Varint() {
+    }
+
+    /**
+     * Writes a non-negative value.
+     *
+     * @param buffer the buffer to write to.
+     * @param value the value to write.
+     */
+    public static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads a value written by {@link #putVarLong(ByteBuffer, long)}.
+     *
+     * @param buffer the buffer to read from.
+     * @return the decoded value.
+     * @throws IllegalArgumentException if the encoding is longer than 10 bytes.
+     */
+    public static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    /**
+     * Writes a non-negative int value.
+     *
+     * @param buffer the buffer to write to.
+     * @param value the value to write.
+     */
+    public static void putVarInt(ByteBuffer buffer, int value) {
+        putVarLong(buffer, value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Reads a value written by {@link #putVarInt(ByteBuffer, int)}.
+     *
+     * @param buffer the buffer to read from.
+     * @return the decoded value.
+     */
+    public static int getVarInt(ByteBuffer buffer) {
+        return (int) getVarLong(buffer);
+    }
+
+    /**
+     * Calculates the encoded length of a value.
+     *
+     * @param value the value to encode.
+     * @return the number of bytes, between 1 and 10.
+     */
+    public static int size(long value) {
+        int bytes = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+
+}
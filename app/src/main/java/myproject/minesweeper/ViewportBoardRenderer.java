@@ -0,0 +1,154 @@
+package myproject.minesweeper;
+
+import java.util.*;
+
+import javafx.scene.layout.Pane;
+
+/**
+ * Draws only the cells of a {@link GameBoard} that are inside the visible area, so boards far
+ * larger than the screen cost no more nodes than a screenful of cells. Cells that scroll out of
+ * view are hidden and kept in a pool, and are rebound to the positions that scroll into view.
+ *
+ * The visible area is given in the board's coordinate space, where the board centre is (0, 0). A
+ * margin of {@link #MARGIN} pixels around it is materialized as well, so a short pan does not
+ * show empty space before the next update.
+ */
+public class ViewportBoardRenderer extends Pane {
+
+    /**
+     * The extra distance around the visible area whose cells are kept, in pixels.
+     */
+    public static final double MARGIN = 4 * HexCell.RADIUS;
+
+    private final GameBoard gameBoard;
+    private final BoardModel model;
+    private final HexGeometry geometry;
+    private final Deque<HexCell> pool = new ArrayDeque<>();
+    private Map<Integer, HexCell> active = new HashMap<>();
+    private Map<Integer, HexCell> next = new HashMap<>();
+    private int[] missing = new int[64];
+    private int missingCount;
+
+    /**
+     * Creates an empty renderer; no cell is drawn until the first {@link #setViewport} call.
+     *
+     * @param gameBoard the board to draw.
+     */
+    public ViewportBoardRenderer(GameBoard gameBoard) {
+        this.gameBoard = gameBoard;
+        this.model = gameBoard.getModel();
+        this.geometry = HexGeometry.forRadius(HexCell.RADIUS);
+    }
+
+    /**
+     * Shows the cells that intersect a rectangle, plus the margin, and pools the others. Cells
+     * that stay visible keep their node; the nodes of cells that left the area are pooled before
+     * new positions are bound, so a pan of the same area size creates no nodes.
+     *
+     * @param minX the left edge in board coordinates.
+     * @param minY the top edge in board coordinates.
+     * @param maxX the right edge in board coordinates.
+     * @param maxY the bottom edge in board coordinates.
+     */
+    public void setViewport(double minX, double minY, double maxX, double maxY) {
+        missingCount = 0;
+        geometry.forEachCellIn(model.getAdjacency(), minX - MARGIN, minY - MARGIN, maxX + MARGIN,
+                maxY + MARGIN, this::keepOrMark);
+
+        for (HexCell cell : active.values()) {
+            cell.setVisible(false);
+            pool.push(cell);
+        }
+        active.clear();
+        for (int i = 0; i < missingCount; i++) {
+            int id = missing[i];
+            next.put(id, obtain(model.colOf(id), model.rowOf(id)));
+        }
+        Map<Integer, HexCell> swap = active;
+        active = next;
+        next = swap;
+    }
+
+    /**
+     * Keeps the node of a cell that stays in view, or notes the cell as needing one.
+     */
+    private void keepOrMark(int id) {
+        HexCell cell = active.remove(id);
+        if (cell != null) {
+            next.put(id, cell);
+        } else {
+            if (missingCount == missing.length) {
+                missing = Arrays.copyOf(missing, missingCount * 2);
+            }
+            missing[missingCount++] = id;
+        }
+    }
+
+    /**
+     * Takes a cell from the pool, or creates one, and binds it to a position.
+     */
+    private HexCell obtain(int col, int row) {
+        HexCell cell = pool.poll();
+        if (cell == null) {
+            cell = new HexCell(col, row, gameBoard);
+            getChildren().add(cell);
+        } else {
+            cell.bind(col, row);
+            cell.setVisible(true);
+        }
+        return cell;
+    }
+
+    /**
+     * Retrieves the view of a cell if it is currently materialized.
+     *
+     * @param id the linear id of the cell.
+     * @return the hexagonal cell, or null if the cell is outside the viewport.
+     */
+    public HexCell getCell(int id) {
+        return active.get(id);
+    }
+
+    /**
+     * Retrieves the number of cells currently materialized.
+     *
+     * @return the number of visible cells.
+     */
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    /**
+     * Retrieves the number of cells waiting in the pool.
+     *
+     * @return the number of pooled cells.
+     */
+    public int getPooledCount() {
+        return pool.size();
+    }
+
+    /**
+     * Updates every materialized cell to match the model.
+     */
+    public void refresh() {
+        for (HexCell cell : active.values()) {
+            cell.refresh();
+        }
+    }
+
+    /**
+     * Updates the given cells if they are materialized; cells outside the viewport are brought up
+     * to date when they are bound.
+     *
+     * @param ids the linear ids of the changed cells.
+     */
+    public void refresh(int[] ids) {
+        for (int id : ids) {
+            HexCell cell = active.get(id);
+            if (cell != null) {
+                cell.refresh();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,447 @@
+package myproject.minesweeper;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Binary messages between a {@link GameServer} and its clients. Every message is a frame: an int
+ * with the length of the body, then the body. Integers are {@link Varint} encoded unless noted.
+ *
+ * <pre>
+ * requests                              responses
+ * CREATE 0 size mines seed(long)        CREATE session
+ * REVEAL session cell                   REVEAL delta
+ * FLAG   session cell                   FLAG   delta
+ * STATE  session                        STATE  size mineCount delta (from an empty board)
+ * CLOSE  session                        CLOSE
+ *                                       ERROR  length message(UTF-8)
+ * </pre>
+ *
+ * The first byte of a body is the opcode and the session is a varlong. A delta holds:
+ *
+ * <pre>
+ * byte    status ordinal
+ * varint  mines left
+ * ids     revealed cells
+ * bytes   their counts, two 4-bit counts per byte, low nibble first, {@link #MINE} for a mine
+ * varint  number of flag changes, then per change: (id - previous id) &lt;&lt; 1 | flagged
+ * ids     every mine, only when the game is over
+ * </pre>
+ *
+ * A list of ids is sorted and sent as runs of consecutive ids: the number of runs, then per run
+ * the gap from the end of the previous run and the run length minus one. Cascades reveal whole
+ * stretches of columns, which are runs of consecutive ids, so a cascade of thousands of cells
+ * takes a few bytes per column.
+ *
+ * Messages are written straight into caller supplied buffers, typically from a
+ * {@link BufferPool}; {@link #deltaBound} gives the capacity a delta may need.
+ */
+public final class WireProtocol {
+
+    /**
+     * Creates a session.
+     */
+    public static final byte CREATE = 1;
+
+    /**
+     * Reveals a cell.
+     */
+    public static final byte REVEAL = 2;
+
+    /**
+     * Toggles the flag of a cell.
+     */
+    public static final byte FLAG = 3;
+
+    /**
+     * Retrieves the whole state of a session.
+     */
+    public static final byte STATE = 4;
+
+    /**
+     * Ends a session.
+     */
+    public static final byte CLOSE = 5;
+
+    /**
+     * Reports a failed request.
+     */
+    public static final byte ERROR = 127;
+
+    /**
+     * The count sent for a revealed mine.
+     */
+    public static final int MINE = 15;
+
+    /**
+     * The largest body a frame may have.
+     */
+    public static final int MAX_FRAME = 1 << 26;
+
+    private static final GameStatus[] STATUSES = GameStatus.values();
+
+    private WireProtocol() {
+    }
+
+    /**
+     * Reserves the length of a frame.
+     *
+     * @param buffer the buffer to write to.
+     * @return the position of the frame, for {@link #endFrame}.
+     */
+    public static int beginFrame(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putInt(0);
+        return start;
+    }
+
+    /**
+     * Fills in the length of a frame once its body is written.
+     *
+     * @param buffer the buffer the frame was written to.
+     * @param start the position returned by {@link #beginFrame}.
+     */
+    public static void endFrame(ByteBuffer buffer, int start) {
+        buffer.putInt(start, buffer.position() - start - 4);
+    }
+
+    /**
+     * Writes a CREATE request.
+     *
+     * @param buffer the buffer to write to.
+     * @param spec the board size and mine count.
+     * @param seed the seed the mines are placed with.
+     */
+    public static void putCreate(ByteBuffer buffer, BoardSpec spec, long seed) {
+        int start = beginFrame(buffer);
+        buffer.put(CREATE);
+        Varint.putVarLong(buffer, 0);
+        Varint.putVarInt(buffer, spec.getSize());
+        Varint.putVarInt(buffer, spec.getMineCount());
+        buffer.putLong(seed);
+        endFrame(buffer, start);
+    }
+
+    /**
+     * Writes a request on a cell: REVEAL or FLAG.
+     *
+     * @param buffer the buffer to write to.
+     * @param opcode the request.
+     * @param session the id of the session.
+     * @param cellId the linear id of the cell.
+     */
+    public static void putCellRequest(ByteBuffer buffer, byte opcode, long session, int cellId) {
+        int start = beginFrame(buffer);
+        buffer.put(opcode);
+        Varint.putVarLong(buffer, session);
+        Varint.putVarInt(buffer, cellId);
+        endFrame(buffer, start);
+    }
+
+    /**
+     * Writes a request on a whole session: STATE or CLOSE.
+     *
+     * @param buffer the buffer to write to.
+     * @param opcode the request.
+     * @param session the id of the session.
+     */
+    public static void putSessionRequest(ByteBuffer buffer, byte opcode, long session) {
+        int start = beginFrame(buffer);
+        buffer.put(opcode);
+        Varint.putVarLong(buffer, session);
+        endFrame(buffer, start);
+    }
+
+    /**
+     * Writes the response to CREATE, or to CLOSE with session 0.
+     *
+     * @param buffer the buffer to write to.
+     * @param opcode the request answered.
+     * @param session the id of the session.
+     */
+    public static void putSessionResponse(ByteBuffer buffer, byte opcode, long session) {
+        putSessionRequest(buffer, opcode, session);
+    }
+
+    /**
+     * Writes an ERROR response.
+     *
+     * @param buffer the buffer to write to.
+     * @param message the reason.
+     */
+    public static void putError(ByteBuffer buffer, String message) {
+        byte[] bytes = String.valueOf(message).getBytes(StandardCharsets.UTF_8);
+        int start = beginFrame(buffer);
+        buffer.put(ERROR);
+        Varint.putVarInt(buffer, bytes.length);
+        buffer.put(bytes);
+        endFrame(buffer, start);
+    }
+
+    /**
+     * Reads the message of an ERROR body, after its opcode.
+     *
+     * @param buffer the buffer positioned after the opcode.
+     * @return the message.
+     */
+    public static String getError(ByteBuffer buffer) {
+        byte[] bytes = new byte[Varint.getVarInt(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Calculates the most bytes a delta frame can take.
+     *
+     * @param model the board the delta describes.
+     * @param revealedCount the number of revealed cells in the delta.
+     * @param flagCount the number of flag changes in the delta.
+     * @return the capacity that always fits the frame.
+     */
+    public static int deltaBound(BoardModel model, int revealedCount, int flagCount) {
+        long mines = model.isGameStopped() ? model.getSpec().getMineCount() : 0;
+        long bound = 64L + 10L * revealedCount + (revealedCount + 1) / 2 + 5L * flagCount
+                + 10L * mines;
+        return (int) Math.min(Integer.MAX_VALUE - 8, bound);
+    }
+
+    /**
+     * Calculates the most bytes a STATE frame of a board takes, from the actual runs and counts
+     * of its bitsets rather than its cell count, so the state of a board with few revealed cells
+     * fits a pooled buffer whatever the size of the board.
+     *
+     * @param model the board.
+     * @return the capacity that always fits the frame.
+     */
+    public static int stateBound(BoardModel model) {
+        int cellCount = model.getCellCount();
+        long[] revealed = model.revealedBits();
+        long bound = 64L + 10L * runCount(revealed, cellCount)
+                + (Bits.cardinality(revealed) + 1) / 2 + 5L * Bits.cardinality(model.flaggedBits());
+        if (model.isGameStopped()) {
+            bound += 10L * runCount(model.mineBits(), cellCount);
+        }
+        return (int) Math.min(Integer.MAX_VALUE - 8, bound);
+    }
+
+    /**
+     * Writes a REVEAL or FLAG response: the delta of one move.
+     *
+     * @param buffer the buffer to write to; see {@link #deltaBound}.
+     * @param opcode the request answered.
+     * @param model the board after the move.
+     * @param revealed the cells the move revealed; sorted in place.
+     * @param flagChanges the cells whose flag the move changed; sorted in place.
+     */
+    public static void putDelta(ByteBuffer buffer, byte opcode, BoardModel model, int[] revealed,
+            int[] flagChanges) {
+        int start = beginFrame(buffer);
+        buffer.put(opcode);
+        writeDelta(buffer, model, revealed, flagChanges);
+        endFrame(buffer, start);
+    }
+
+    /**
+     * Writes a STATE response: the board's size and mine count, and a delta from an empty board
+     * to its current state. The runs are read straight from the board's bitsets, a word of 64
+     * cells at a time, so nothing is copied into intermediate arrays.
+     *
+     * @param buffer the buffer to write to; see {@link #stateBound}.
+     * @param model the board.
+     */
+    public static void putState(ByteBuffer buffer, BoardModel model) {
+        int cellCount = model.getCellCount();
+        long[] revealed = model.revealedBits();
+        int start = beginFrame(buffer);
+        buffer.put(STATE);
+        Varint.putVarInt(buffer, model.getSize());
+        Varint.putVarInt(buffer, model.getSpec().getMineCount());
+        GameStatus status = GameStatus.of(model);
+        buffer.put((byte) status.ordinal());
+        Varint.putVarInt(buffer, Math.max(0, model.getMineCount()));
+
+        putRuns(buffer, revealed, cellCount);
+        int pending = -1;
+        for (int id = Bits.next(revealed, 0, cellCount, true); id < cellCount;
+                id = Bits.next(revealed, id + 1, cellCount, true)) {
+            if (pending < 0) {
+                pending = countOf(model, id);
+            } else {
+                buffer.put((byte) (pending | countOf(model, id) << 4));
+                pending = -1;
+            }
+        }
+        if (pending >= 0) {
+            buffer.put((byte) pending);
+        }
+
+        long[] flagged = model.flaggedBits();
+        Varint.putVarInt(buffer, Bits.cardinality(flagged));
+        int previous = 0;
+        for (int id = Bits.next(flagged, 0, cellCount, true); id < cellCount;
+                id = Bits.next(flagged, id + 1, cellCount, true)) {
+            Varint.putVarLong(buffer, (long) (id - previous) << 1 | 1);
+            previous = id;
+        }
+
+        if (status != GameStatus.PLAYING) {
+            putRuns(buffer, model.mineBits(), cellCount);
+        }
+        endFrame(buffer, start);
+    }
+
+    private static void writeDelta(ByteBuffer buffer, BoardModel model, int[] revealed,
+            int[] flagChanges) {
+        GameStatus status = GameStatus.of(model);
+        buffer.put((byte) status.ordinal());
+        Varint.putVarInt(buffer, Math.max(0, model.getMineCount()));
+
+        Arrays.sort(revealed);
+        putIds(buffer, revealed, revealed.length);
+        for (int i = 0; i < revealed.length; i += 2) {
+            int low = countOf(model, revealed[i]);
+            int high = i + 1 < revealed.length ? countOf(model, revealed[i + 1]) : 0;
+            buffer.put((byte) (low | high << 4));
+        }
+
+        Arrays.sort(flagChanges);
+        Varint.putVarInt(buffer, flagChanges.length);
+        int previous = 0;
+        for (int id : flagChanges) {
+            Varint.putVarLong(buffer, (long) (id - previous) << 1 | (model.isFlagged(id) ? 1 : 0));
+            previous = id;
+        }
+
+        if (status != GameStatus.PLAYING) {
+            putRuns(buffer, model.mineBits(), model.getCellCount());
+        }
+    }
+
+    private static int countOf(BoardModel model, int id) {
+        return model.hasMine(id) ? MINE : model.neighborMineCount(id);
+    }
+
+    /**
+     * Writes sorted ids as runs of consecutive ids.
+     */
+    private static void putIds(ByteBuffer buffer, int[] ids, int count) {
+        int runs = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || ids[i] != ids[i - 1] + 1) {
+                runs++;
+            }
+        }
+        Varint.putVarInt(buffer, runs);
+        int end = 0;
+        int i = 0;
+        while (i < count) {
+            int runStart = i;
+            while (i + 1 < count && ids[i + 1] == ids[i] + 1) {
+                i++;
+            }
+            Varint.putVarInt(buffer, ids[runStart] - end);
+            Varint.putVarInt(buffer, i - runStart);
+            end = ids[i] + 1;
+            i++;
+        }
+    }
+
+    /**
+     * Writes the set bits of a bitset as runs, in the same format as {@link #putIds}.
+     */
+    private static void putRuns(ByteBuffer buffer, long[] words, int length) {
+        Varint.putVarInt(buffer, runCount(words, length));
+        int end = 0;
+        for (int runStart = Bits.next(words, 0, length, true); runStart < length;
+                runStart = Bits.next(words, end, length, true)) {
+            int runEnd = Bits.next(words, runStart, length, false);
+            Varint.putVarInt(buffer, runStart - end);
+            Varint.putVarInt(buffer, runEnd - runStart - 1);
+            end = runEnd;
+        }
+    }
+
+    /**
+     * Counts the runs of consecutive set bits of a bitset.
+     */
+    private static int runCount(long[] words, int length) {
+        int runs = 0;
+        for (int runStart = Bits.next(words, 0, length, true); runStart < length;
+                runStart = Bits.next(words, Bits.next(words, runStart, length, false), length,
+                        true)) {
+            runs++;
+        }
+        return runs;
+    }
+
+    /**
+     * Reads ids written as runs.
+     */
+    private static int[] getIds(ByteBuffer buffer) {
+        int runs = Varint.getVarInt(buffer);
+        int[] ids = new int[Math.min(runs * 4 + 16, 1 << 16)];
+        int count = 0;
+        int end = 0;
+        for (int r = 0; r < runs; r++) {
+            int start = end + Varint.getVarInt(buffer);
+            int length = Varint.getVarInt(buffer) + 1;
+            if (length <= 0 || (long) count + length > BoardSpec.MAX_CELLS) {
+                throw new IllegalArgumentException("Malformed id run");
+            }
+            if (count + length > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(ids.length * 2, count + length));
+            }
+            for (int i = 0; i < length; i++) {
+                ids[count++] = start + i;
+            }
+            end = start + length;
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Reads the delta of a REVEAL, FLAG or STATE body. For STATE, the size and mine count must
+     * have been read first.
+     *
+     * @param buffer the buffer positioned after the opcode.
+     * @return the decoded delta.
+     * @throws IllegalArgumentException if the delta is malformed.
+     */
+    public static MoveDelta getDelta(ByteBuffer buffer) {
+        int statusOrdinal = buffer.get();
+        if (statusOrdinal < 0 || statusOrdinal >= STATUSES.length) {
+            throw new IllegalArgumentException("Unknown game status " + statusOrdinal);
+        }
+        GameStatus status = STATUSES[statusOrdinal];
+        int minesLeft = Varint.getVarInt(buffer);
+
+        int[] revealed = getIds(buffer);
+        byte[] counts = new byte[revealed.length];
+        for (int i = 0; i < revealed.length; i += 2) {
+            int packed = buffer.get();
+            counts[i] = (byte) (packed & 0xF);
+            if (i + 1 < revealed.length) {
+                counts[i + 1] = (byte) ((packed >>> 4) & 0xF);
+            }
+        }
+
+        int flagCount = Varint.getVarInt(buffer);
+        if (flagCount > buffer.remaining()) {
+            throw new IllegalArgumentException("Malformed flag changes");
+        }
+        int[] flagChanges = new int[flagCount];
+        boolean[] flagged = new boolean[flagCount];
+        int previous = 0;
+        for (int i = 0; i < flagCount; i++) {
+            long entry = Varint.getVarLong(buffer);
+            previous += (int) (entry >>> 1);
+            flagChanges[i] = previous;
+            flagged[i] = (entry & 1) != 0;
+        }
+
+        int[] mines = status == GameStatus.PLAYING ? new int[0] : getIds(buffer);
+        return new MoveDelta(status, minesLeft, revealed, counts, flagChanges, flagged, mines);
+    }
+
+}
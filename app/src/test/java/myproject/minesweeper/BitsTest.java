@@ -0,0 +1,74 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class BitsTest {
+
+    @Test
+    public void testSetGetClear() {
+        long[] words = new long[Bits.words(130)];
+        assertEquals(3, words.length);
+        Bits.set(words, 0);
+        Bits.set(words, 63);
+        Bits.set(words, 64);
+        Bits.set(words, 129);
+        assertTrue(Bits.get(words, 63));
+        assertTrue(Bits.get(words, 64));
+        assertFalse(Bits.get(words, 65));
+        assertEquals(4, Bits.cardinality(words));
+        Bits.clear(words, 63);
+        assertFalse(Bits.get(words, 63));
+        assertArrayEquals(new int[] {0, 64, 129}, Bits.indices(words));
+    }
+
+    @Test
+    public void testIndicesGrowPastInitialCapacity() {
+        long[] words = new long[Bits.words(1000)];
+        for (int i = 0; i < 1000; i += 3) {
+            Bits.set(words, i);
+        }
+        int[] indices = Bits.indices(words);
+        assertEquals(334, indices.length);
+        for (int i = 0; i < indices.length; i++) {
+            assertEquals(3 * i, indices[i]);
+        }
+    }
+
+    @Test
+    public void testNextSetAndClearBits() {
+        long[] words = new long[Bits.words(200)];
+        for (int i = 60; i < 130; i++) {
+            Bits.set(words, i);
+        }
+        Bits.set(words, 199);
+        assertEquals(60, Bits.next(words, 0, 200, true));
+        assertEquals(64, Bits.next(words, 64, 200, true));
+        assertEquals(130, Bits.next(words, 60, 200, false));
+        assertEquals(199, Bits.next(words, 130, 200, true));
+        assertEquals(200, Bits.next(words, 199, 200, false));
+        assertEquals(150, Bits.next(words, 150, 200, false));
+        assertEquals(180, Bits.next(words, 130, 180, true));
+        assertEquals(200, Bits.next(words, 250, 200, true));
+    }
+
+    @Test
+    public void testNibbles() {
+        long[] words = new long[Bits.nibbleWords(40)];
+        assertEquals(3, words.length);
+        for (int i = 0; i < 40; i++) {
+            Bits.setNibble(words, i, i % 16);
+        }
+        for (int i = 0; i < 40; i++) {
+            assertEquals(i % 16, Bits.nibble(words, i));
+        }
+        Bits.setNibble(words, 17, 0);
+        Bits.incrementNibble(words, 17);
+        Bits.incrementNibble(words, 17);
+        assertEquals(2, Bits.nibble(words, 17));
+        assertEquals(0, Bits.nibble(words, 16));
+        assertEquals(2, Bits.nibble(words, 18));
+    }
+
+}
@@ -0,0 +1,370 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BoardModelTest {
+
+    private BoardModel model;
+
+    @BeforeEach
+    public void init() {
+        model = new BoardModel(5, 10);
+    }
+
+    @Test
+    public void testCellCount() {
+        assertEquals(61, model.getCellCount());
+        assertEquals(3 * 11 * 11 - 3 * 11 + 1, new BoardModel(11, 100).getCellCount());
+    }
+
+    @Test
+    public void testCellIdRoundTrip() {
+        for (int col = 0; col < model.colCount(); col++) {
+            for (int row = 0; row < model.cellCountInCol(col); row++) {
+                int id = model.cellId(col, row);
+                assertEquals(col, model.colOf(id));
+                assertEquals(row, model.rowOf(id));
+            }
+        }
+    }
+
+    @Test
+    public void testNeighbors() {
+        assertEquals(6, model.getNeighbors(model.cellId(4, 4)).length);
+        assertEquals(3, model.getNeighbors(model.cellId(0, 0)).length);
+        assertEquals(4, model.getNeighbors(model.cellId(2, 0)).length);
+        assertEquals(3, model.getNeighbors(model.cellId(8, 4)).length);
+    }
+
+    @Test
+    public void testNeighborsAreSymmetric() {
+        for (int id = 0; id < model.getCellCount(); id++) {
+            for (int neighbor : model.getNeighbors(id)) {
+                boolean found = false;
+                for (int back : model.getNeighbors(neighbor)) {
+                    found |= back == id;
+                }
+                assertTrue(found);
+            }
+        }
+    }
+
+    @Test
+    public void testDistributeMines() {
+        model.distributeMines(10);
+        int mines = 0;
+        for (int id = 0; id < model.getCellCount(); id++) {
+            if (model.hasMine(id)) {
+                mines++;
+            }
+        }
+        assertEquals(10, mines);
+    }
+
+    @Test
+    public void testToggleFlag() {
+        model.toggleFlag(0);
+        assertTrue(model.isFlagged(0));
+        assertEquals(9, model.getMineCount());
+        model.toggleFlag(0);
+        assertFalse(model.isFlagged(0));
+        assertEquals(10, model.getMineCount());
+    }
+
+    @Test
+    public void testRevealCascadeWinsEmptyBoard() {
+        model.addMine(0);
+        model.revealCell(model.cellId(4, 4));
+        assertTrue(model.isGameStopped());
+        assertTrue(model.isWon());
+        assertTrue(model.isFlagged(0));
+    }
+
+    @Test
+    public void testRevealMineLosesGame() {
+        model.addMine(0);
+        model.revealCell(0);
+        assertTrue(model.isGameStopped());
+        assertFalse(model.isWon());
+        assertEquals(0, model.getExplodedCell());
+        assertTrue(model.isRevealed(model.cellId(4, 4)));
+    }
+
+    @Test
+    public void testRevealCellReturnsNewlyRevealedCells() {
+        model.addMine(0);
+        int[] changed = model.revealCell(model.cellId(4, 4));
+        assertEquals(model.getCellCount() - 1, changed.length);
+        assertEquals(model.cellId(4, 4), changed[0]);
+        assertEquals(0, model.revealCell(model.cellId(4, 4)).length);
+    }
+
+    @Test
+    public void testRevealCellStopsAtFlags() {
+        model.addMine(0);
+        model.toggleFlag(model.cellId(8, 0));
+        int[] changed = model.revealCell(model.cellId(4, 4));
+        assertEquals(model.getCellCount() - 2, changed.length);
+        assertFalse(model.isRevealed(model.cellId(8, 0)));
+        assertFalse(model.isGameStopped());
+        assertEquals(0, model.revealCell(model.cellId(8, 0)).length);
+    }
+
+    @Test
+    public void testRevealCellOnLargeEmptyBoard() {
+        BoardModel large = new BoardModel(400, 1);
+        large.addMine(0);
+        int[] changed = large.revealCell(large.getCellCount() - 1);
+        assertEquals(large.getCellCount() - 1, changed.length);
+        assertTrue(large.isWon());
+    }
+
+    /**
+     * Reveals the first neighbor of cell 0, which counts the mine on cell 0, and returns it.
+     */
+    private int revealNextToCornerMine() {
+        model.addMine(0);
+        int number = model.getNeighbors(0)[0];
+        assertEquals(1, model.revealCell(number).length);
+        return number;
+    }
+
+    @Test
+    public void testChordRevealsUnflaggedNeighbors() {
+        int number = revealNextToCornerMine();
+        assertEquals(0, model.chord(number).length);
+        model.toggleFlag(0);
+        int[] changed = model.chord(number);
+        assertEquals(model.getCellCount() - 2, changed.length);
+        assertTrue(model.isWon());
+        assertEquals(0, model.chord(number).length);
+    }
+
+    @Test
+    public void testChordOnWrongFlagLosesGame() {
+        int number = revealNextToCornerMine();
+        for (int neighbor : model.getNeighbors(number)) {
+            if (neighbor != 0 && !model.isRevealed(neighbor)) {
+                model.toggleFlag(neighbor);
+                break;
+            }
+        }
+        model.chord(number);
+        assertTrue(model.isGameStopped());
+        assertFalse(model.isWon());
+        assertEquals(0, model.getExplodedCell());
+    }
+
+    @Test
+    public void testApplyBatchEndsGameOnce() {
+        int number = revealNextToCornerMine();
+        int far = model.cellId(8, 4);
+        int[] changed = model.applyBatch(List.of(MoveCommand.flag(0), MoveCommand.chord(number),
+                MoveCommand.flag(far)));
+        assertTrue(model.isWon());
+        assertEquals(model.getCellCount() - 1, changed.length);
+        assertEquals(0, changed[0]);
+        assertTrue(model.isRevealed(far));
+        assertEquals(0, model.applyBatch(List.of(MoveCommand.flag(0))).length);
+        assertTrue(model.isFlagged(0));
+    }
+
+    @Test
+    public void testApplyBatchStopsAtMine() {
+        model.addMine(0);
+        int safe = model.cellId(8, 4);
+        int[] changed = model.applyBatch(List.of(MoveCommand.flag(safe), MoveCommand.reveal(0),
+                MoveCommand.flag(safe)));
+        assertArrayEquals(new int[] {safe, 0}, changed);
+        assertFalse(model.isWon());
+        assertTrue(model.isFlagged(safe));
+    }
+
+    @Test
+    public void testApplyBatchSkipsFlagsThatChangeNothing() {
+        List<MoveCommand> commands = new ArrayList<>();
+        for (int id = 0; id <= 10; id++) {
+            commands.add(MoveCommand.flag(id));
+        }
+        int[] changed = model.applyBatch(commands);
+        // 10 mines give 10 flags, so the last flag has no effect
+        assertEquals(10, changed.length);
+        assertFalse(model.isFlagged(10));
+        assertEquals(0, model.applyBatch(List.of(MoveCommand.flag(10))).length);
+        assertArrayEquals(new int[] {3}, model.applyBatch(List.of(MoveCommand.flag(3))));
+        assertFalse(model.isFlagged(3));
+    }
+
+    @Test
+    public void testApplyBatchMatchesSingleMoves() {
+        BoardModel single = new BoardModel(BoardSpec.of(9, 20), 7);
+        single.distributeMines(20);
+        BoardModel batched = single.copy();
+        List<MoveCommand> commands = new ArrayList<>();
+        for (int id = 0; id < single.getCellCount(); id += 5) {
+            if (single.hasMine(id)) {
+                commands.add(MoveCommand.flag(id));
+                single.toggleFlag(id);
+            } else {
+                commands.add(MoveCommand.reveal(id));
+                single.revealCell(id);
+            }
+        }
+        batched.applyBatch(commands);
+        assertEquals(0, single.changedSince(batched.snapshot()).length);
+        assertEquals(single.getProgress(), batched.getProgress());
+        assertEquals(single.isGameStopped(), batched.isGameStopped());
+    }
+
+    @Test
+    public void test3BV() {
+        model.addMine(0);
+        assertEquals(1, model.get3BV());
+
+        BoardModel small = new BoardModel(2, 1);
+        small.addMine(small.cellId(1, 1));
+        assertEquals(6, small.get3BV());
+
+        BoardModel split = new BoardModel(5, 10);
+        for (int row = 0; row < split.cellCountInCol(4); row++) {
+            split.addMine(split.cellId(4, row));
+        }
+        assertEquals(2, split.get3BV());
+    }
+
+    @Test
+    public void testProgressAndRemainingSafeCells() {
+        model.addMine(0);
+        assertEquals(60, model.getRemainingSafeCells());
+        assertEquals(0.0, model.getProgress());
+        model.reveal(1);
+        assertEquals(59, model.getRemainingSafeCells());
+        assertEquals(1.0 / 60, model.getProgress(), 1e-9);
+        model.addMine(1);
+        assertEquals(59, model.getRemainingSafeCells());
+        model.revealCell(model.cellId(4, 4));
+        assertTrue(model.checkWin());
+        assertEquals(1.0, model.getProgress());
+    }
+
+    @Test
+    public void testSnapshotRestore() {
+        BoardModel board = new BoardModel(BoardSpec.of(9, 20), 5L);
+        board.distributeMines(20);
+        BoardSnapshot before = board.snapshot();
+        int safe = -1;
+        for (int id = 0; id < board.getCellCount() && safe < 0; id++) {
+            if (!board.hasMine(id)) {
+                safe = id;
+            }
+        }
+        board.toggleFlag(0 == safe ? 1 : 0);
+        int[] revealed = board.revealCell(safe);
+        double progress = board.getProgress();
+
+        BoardSnapshot after = board.snapshot();
+        assertEquals(revealed.length + 1, before.diff(after).length);
+        assertArrayEquals(before.diff(after), board.changedSince(before));
+
+        board.restore(before);
+        assertEquals(0, board.changedSince(before).length);
+        assertEquals(0.0, board.getProgress());
+        assertEquals(20, board.getMineCount());
+        assertFalse(board.isRevealed(safe));
+
+        board.restore(after);
+        assertEquals(progress, board.getProgress());
+        assertTrue(board.isRevealed(safe));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        BoardModel board = new BoardModel(BoardSpec.of(9, 20), 5L);
+        board.distributeMines(20);
+        BoardModel copy = board.copy();
+        for (int id = 0; id < board.getCellCount(); id++) {
+            assertEquals(board.hasMine(id), copy.hasMine(id));
+            assertEquals(board.neighborMineCount(id), copy.neighborMineCount(id));
+        }
+        int mine = 0;
+        while (!copy.hasMine(mine)) {
+            mine++;
+        }
+        copy.revealCell(mine);
+        assertTrue(copy.isGameStopped());
+        assertFalse(board.isGameStopped());
+        assertFalse(board.isRevealed(mine));
+    }
+
+    @Test
+    public void testRestoreRejectsOtherSize() {
+        BoardSnapshot snapshot = new BoardModel(5, 3).snapshot();
+        assertThrows(IllegalArgumentException.class,
+                () -> new BoardModel(6, 3).restore(snapshot));
+    }
+
+    @Test
+    public void testLossRevealsEveryUnflaggedCell() {
+        BoardModel board = new BoardModel(BoardSpec.of(7, 10), 9L);
+        board.distributeMines(10);
+        board.toggleFlag(3);
+        board.endGame(false);
+        for (int id = 0; id < board.getCellCount(); id++) {
+            assertEquals(id != 3, board.isRevealed(id));
+        }
+        // every cell is revealed or flagged, and no bit past the last cell is set
+        int[] changed = board.changedSince(new BoardModel(BoardSpec.of(7, 10), 9L).snapshot());
+        assertEquals(board.getCellCount(), changed.length);
+        assertEquals(board.getCellCount() - 1, changed[changed.length - 1]);
+    }
+
+    @Test
+    public void testFirstRevealPlacesMinesAroundIt() {
+        for (long seed = 0; seed < 20; seed++) {
+            BoardModel board = new BoardModel(BoardSpec.of(7, 40), seed);
+            board.placeMinesOnFirstReveal();
+            assertTrue(board.hasPendingMines());
+            assertEquals(board.getCellCount(), board.getRemainingSafeCells());
+
+            int first = board.cellId(3, 3);
+            int[] changed = board.revealCell(first);
+            assertFalse(board.hasPendingMines());
+            assertFalse(board.isGameStopped());
+            assertEquals(0, board.neighborMineCount(first));
+            assertTrue(changed.length >= 7);
+            assertEquals(board.getCellCount() - 40 - changed.length,
+                    board.getRemainingSafeCells());
+
+            BoardModel eager = new BoardModel(BoardSpec.of(7, 40), seed);
+            eager.distributeMinesAround(first);
+            for (int id = 0; id < board.getCellCount(); id++) {
+                assertEquals(eager.hasMine(id), board.hasMine(id));
+                assertEquals(eager.neighborMineCount(id), board.neighborMineCount(id));
+            }
+        }
+    }
+
+    @Test
+    public void testPendingMinesSurviveSnapshots() {
+        BoardModel board = new BoardModel(BoardSpec.of(5, 10), 2L);
+        board.placeMinesOnFirstReveal();
+        BoardModel copy = board.copy();
+        assertTrue(copy.hasPendingMines());
+        copy.revealCell(0);
+        assertFalse(copy.hasPendingMines());
+        assertFalse(copy.hasMine(0));
+        int placed = 0;
+        for (int id = 0; id < copy.getCellCount(); id++) {
+            placed += copy.hasMine(id) ? 1 : 0;
+            assertFalse(board.hasMine(id));
+        }
+        assertEquals(10, placed);
+        assertTrue(board.hasPendingMines());
+    }
+
+}
@@ -0,0 +1,45 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class BoardSpecTest {
+
+    @Test
+    public void testDifficultyPresets() {
+        assertEquals(BoardSpec.of(5, 10), Difficulty.EASY.getSpec());
+        assertEquals(BoardSpec.of(7, 25), Difficulty.MEDIUM.getSpec());
+        assertEquals(BoardSpec.of(9, 60), Difficulty.HARD.getSpec());
+        assertEquals(BoardSpec.of(11, 100), Difficulty.EXTREME.getSpec());
+        assertEquals(331, Difficulty.EXTREME.getSpec().getCellCount());
+    }
+
+    @Test
+    public void testWithDensity() {
+        BoardSpec spec = BoardSpec.withDensity(11, 0.5);
+        assertEquals(166, spec.getMineCount());
+        assertEquals(0.5, spec.getDensity(), 0.01);
+        assertEquals(0, BoardSpec.withDensity(3, 0).getMineCount());
+        assertEquals(18, BoardSpec.withDensity(3, 0.999).getMineCount());
+    }
+
+    @Test
+    public void testMaxSize() {
+        assertTrue(BoardSpec.cellCount(BoardSpec.MAX_SIZE) <= BoardSpec.MAX_CELLS);
+        assertTrue(BoardSpec.cellCount(BoardSpec.MAX_SIZE + 1) > BoardSpec.MAX_CELLS);
+        assertEquals(BoardSpec.MAX_SIZE, BoardSpec.of(BoardSpec.MAX_SIZE, 1).getSize());
+    }
+
+    @Test
+    public void testInvalidSpecs() {
+        assertThrows(IllegalArgumentException.class, () -> BoardSpec.of(0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> BoardSpec.of(BoardSpec.MAX_SIZE + 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> BoardSpec.of(2, 7));
+        assertThrows(IllegalArgumentException.class, () -> BoardSpec.of(5, -1));
+        assertThrows(IllegalArgumentException.class, () -> BoardSpec.withDensity(5, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> BoardSpec.withDensity(5, Double.NaN));
+    }
+
+}
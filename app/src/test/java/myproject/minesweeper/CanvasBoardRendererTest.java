@@ -0,0 +1,115 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+
+public class CanvasBoardRendererTest {
+
+    @BeforeAll
+    public static void setup() {
+        try {
+            Platform.startup(() -> {
+            });
+        } catch (IllegalStateException e) {
+            // the toolkit was started by another test class
+        }
+    }
+
+    private static GameBoard board(int size) {
+        GameBoard board = new GameBoard(BoardSpec.of(size, 10), 1L, RenderMode.CANVAS);
+        board.setLayoutX(400);
+        board.setLayoutY(325);
+        return board;
+    }
+
+    @Test
+    public void testNothingPaintedBeforeViewportIsSet() {
+        CanvasBoardRenderer canvas = board(200).getCanvas();
+        assertEquals(0, canvas.getWidth());
+        assertEquals(0, canvas.getHeight());
+        assertEquals(0, canvas.getPaintedCount());
+    }
+
+    @Test
+    public void testCanvasIsSizedToViewport() {
+        GameBoard board = board(200);
+        board.updateViewport(800, 650);
+        CanvasBoardRenderer canvas = board.getCanvas();
+
+        assertEquals(800, canvas.getWidth(), 1);
+        assertEquals(650, canvas.getHeight(), 1);
+        int painted = canvas.getPaintedCount();
+        assertTrue(painted > 0);
+        assertTrue(painted < 2000);
+        assertTrue(canvas.isInView(board.getModel().cellId(199, 199)));
+        assertFalse(canvas.isInView(0));
+    }
+
+    @Test
+    public void testZoomKeepsCanvasAtScreenResolution() {
+        GameBoard board = board(200);
+        board.updateViewport(800, 650);
+        int painted = board.getCanvas().getPaintedCount();
+
+        board.zoom(0.5, 400, 325);
+        CanvasBoardRenderer canvas = board.getCanvas();
+        assertEquals(800, canvas.getWidth(), 1);
+        assertEquals(650, canvas.getHeight(), 1);
+        Bounds covered = board.localToParent(canvas.getBoundsInParent());
+        assertEquals(0, covered.getMinX(), 1e-6);
+        assertEquals(0, covered.getMinY(), 1e-6);
+        assertEquals(800, covered.getMaxX(), 2);
+        assertEquals(650, covered.getMaxY(), 2);
+        assertTrue(canvas.getPaintedCount() > 3 * painted);
+    }
+
+    @Test
+    public void testHitTestMatchesPaintedCell() {
+        GameBoard board = board(50);
+        board.updateViewport(800, 650);
+        board.zoom(2, 500, 400);
+        board.pan(-120, 75);
+
+        Point2D point = board.parentToLocal(500, 400);
+        int id = board.cellAt(point.getX(), point.getY());
+        assertTrue(id >= 0);
+        assertTrue(board.getCanvas().isInView(id));
+        board.getCanvas().repaint(new int[] {id});
+        assertEquals(1, board.getCanvas().getPaintedCount());
+    }
+
+    @Test
+    public void testRepaintSkipsCellsOutOfView() {
+        GameBoard board = board(200);
+        board.updateViewport(800, 650);
+        CanvasBoardRenderer canvas = board.getCanvas();
+        int centre = board.getModel().cellId(199, 199);
+
+        board.pan(5000, 0);
+        assertFalse(canvas.isInView(centre));
+        canvas.repaint(new int[] {centre, 0});
+        assertEquals(0, canvas.getPaintedCount());
+
+        board.pan(-5000, 0);
+        assertTrue(canvas.isInView(centre));
+        canvas.repaint(new int[] {centre, 0});
+        assertEquals(1, canvas.getPaintedCount());
+    }
+
+    @Test
+    public void testViewportOutsideBoardPaintsNothing() {
+        GameBoard board = board(5);
+        board.getCanvas().setViewport(5000, 5000, 6000, 6000, 1);
+        assertEquals(0, board.getCanvas().getPaintedCount());
+        board.getCanvas().setViewport(-5000, -5000, 5000, 5000, 0.1);
+        assertEquals(61, board.getCanvas().getPaintedCount());
+        assertEquals(1000, board.getCanvas().getWidth());
+    }
+
+}
@@ -0,0 +1,52 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+public class CellStylesTest {
+
+    @BeforeAll
+    public static void setup() {
+        try {
+            Platform.startup(() -> {
+            });
+        } catch (IllegalStateException e) {
+            // the toolkit was started by another test class
+        }
+    }
+
+    @Test
+    public void testCountColors() {
+        assertEquals(Color.BLUE, CellStyles.countColor(1));
+        assertEquals(Color.GREEN, CellStyles.countColor(2));
+        assertEquals(Color.RED, CellStyles.countColor(3));
+        assertEquals(Color.PURPLE, CellStyles.countColor(4));
+        assertEquals(Color.MAROON, CellStyles.countColor(5));
+        assertEquals(Color.TURQUOISE, CellStyles.countColor(6));
+    }
+
+    @Test
+    public void testImagesAreSharedAcrossThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Callable<Image> load = CellStyles::mineImage;
+            Future<Image> first = executor.submit(load);
+            Future<Image> second = executor.submit(load);
+            assertSame(first.get(), second.get());
+            assertSame(CellStyles.mineImage(), first.get());
+        } finally {
+            executor.shutdown();
+        }
+        assertSame(CellStyles.flagImage(), HexCell.getFlagImg());
+        assertEquals(20, CellStyles.flagImage().getWidth(), 1e-9);
+    }
+
+}
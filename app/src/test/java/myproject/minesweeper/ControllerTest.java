@@ -27,6 +27,14 @@ public class ControllerTest {
         assertEquals("10:00", controller.convertToMinuteSeconds(600));
     }
 
+    @Test
+    public void testConvertToMinuteSecondsMillis() {
+        assertEquals("00:00.007", controller.convertToMinuteSecondsMillis(7));
+        assertEquals("00:30.042", controller.convertToMinuteSecondsMillis(30_042));
+        assertEquals("01:30.500", controller.convertToMinuteSecondsMillis(90_500));
+        assertEquals("100:00.000", controller.convertToMinuteSecondsMillis(6_000_000));
+    }
+
     
     static class MockComboBox {
         String selectedItem;
@@ -3,6 +3,10 @@ package myproject.minesweeper;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -15,8 +19,37 @@ public class GameBoardTest {
 
     @BeforeAll
     public static void setup() {
-        Platform.startup(() -> {
+        try {
+            Platform.startup(() -> {
+            });
+        } catch (IllegalStateException e) {
+            // the toolkit was started by another test class
+        }
+    }
+
+    /**
+     * Runs a test body on the FX thread and waits for it, so a failed assertion fails the test.
+     */
+    private static void onFxThread(Runnable body) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Platform.runLater(() -> {
+            try {
+                body.run();
+            } catch (Throwable t) {
+                failure.set(t);
+            } finally {
+                done.countDown();
+            }
         });
+        assertTrue(done.await(30, TimeUnit.SECONDS), "the FX thread did not run the test");
+        Throwable t = failure.get();
+        if (t instanceof Error error) {
+            throw error;
+        }
+        if (t != null) {
+            throw new AssertionError(t);
+        }
     }
 
 
@@ -110,6 +143,17 @@ public class GameBoardTest {
         });
     }
 
+    @Test
+    public void testAutoSolve() throws InterruptedException {
+        onFxThread(() -> {
+            board = new GameBoard(BoardSpec.of(5, 3), 4);
+            AutoSolver.Result result = AutoSolver.play(board);
+            assertTrue(board.isGameStopped());
+            assertEquals(result.isWon(), board.getModel().isWon());
+            assertTrue(board.getChildren().stream().anyMatch(child -> child instanceof Label));
+        });
+    }
+
     @Test
     public void testColCount() {
         Platform.runLater(() -> {
@@ -148,6 +192,20 @@ public class GameBoardTest {
         });
     }
 
+    @Test
+    public void testApplyBatchRepaintsChangedCells() throws InterruptedException {
+        onFxThread(() -> {
+            board = new GameBoard(Difficulty.EASY);
+            HexCell center = board.getCellList().get(4).get(4);
+            HexCell corner = board.getCellList().get(0).get(0);
+            board.applyBatch(List.of(MoveCommand.reveal(center.getCellId()),
+                    MoveCommand.flag(corner.getCellId())));
+            assertFalse(center.getCellCover().isVisible());
+            assertEquals(!corner.isRevealed(), corner.isFlagged());
+            assertEquals(corner.isRevealed(), !corner.getCellCover().isVisible());
+        });
+    }
+
     @Test
     public void testEndGameWithWin() {
         Platform.runLater(() -> {
@@ -0,0 +1,68 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class GameClockTest {
+
+    private long now = 5_000_000_000L;
+
+    private final GameClock clock = new GameClock(() -> now);
+
+    @Test
+    public void testCountsOnlyWhileRunning() {
+        assertFalse(clock.isRunning());
+        now += 1_000_000_000;
+        assertEquals(0, clock.getElapsedMillis());
+
+        clock.start();
+        now += 1_234_567_890;
+        assertTrue(clock.isRunning());
+        assertEquals(1234, clock.getElapsedMillis());
+        assertEquals(1_234_567_890, clock.getElapsedNanos());
+
+        clock.pause();
+        now += 60_000_000_000L;
+        assertFalse(clock.isRunning());
+        assertEquals(1234, clock.getElapsedMillis());
+
+        clock.start();
+        now += 766_000_000;
+        assertEquals(2000, clock.getElapsedMillis());
+    }
+
+    @Test
+    public void testRepeatedStartAndPauseChangeNothing() {
+        clock.start();
+        now += 10_000_000;
+        clock.start();
+        now += 10_000_000;
+        clock.pause();
+        clock.pause();
+        now += 10_000_000;
+        assertEquals(20, clock.getElapsedMillis());
+    }
+
+    @Test
+    public void testResetToResumedTime() {
+        clock.start();
+        now += 5_000_000;
+        clock.reset(42_137);
+        assertFalse(clock.isRunning());
+        assertEquals(42_137, clock.getElapsedMillis());
+        clock.start();
+        now += 3_000_000;
+        assertEquals(42_140, clock.getElapsedMillis());
+    }
+
+    @Test
+    public void testSystemClockIsMonotonic() throws InterruptedException {
+        GameClock system = new GameClock();
+        system.start();
+        long before = system.getElapsedNanos();
+        Thread.sleep(5);
+        assertTrue(system.getElapsedNanos() >= before + 5_000_000);
+    }
+
+}
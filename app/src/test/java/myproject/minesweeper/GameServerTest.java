@@ -0,0 +1,120 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class GameServerTest {
+
+    private SessionManager manager;
+    private GameServer server;
+
+    @BeforeEach
+    public void start() throws IOException {
+        manager = new SessionManager(2, 100, 1 << 16, Duration.ofMinutes(5));
+        server = new GameServer(manager, 0);
+        server.start();
+    }
+
+    @AfterEach
+    public void stop() throws IOException {
+        server.close();
+        manager.close();
+    }
+
+    @Test
+    public void testCommands() throws IOException {
+        try (GameClient client = new GameClient(server.getPort())) {
+            long id = client.create(BoardSpec.of(5, 3), 7);
+
+            MoveDelta state = client.state(id);
+            assertEquals(GameStatus.PLAYING, state.getStatus());
+            assertEquals(3, state.getMinesLeft());
+            assertEquals(0, state.getRevealed().length);
+
+            MoveDelta flag = client.flag(id, 0);
+            assertArrayEquals(new int[] {0}, flag.getFlagChanges());
+            assertTrue(flag.isFlagged(0));
+            assertEquals(2, flag.getMinesLeft());
+            // a flagged cell cannot be revealed
+            assertEquals(0, client.reveal(id, 0).getRevealed().length);
+            assertArrayEquals(new int[] {0}, client.state(id).getFlagChanges());
+
+            client.closeSession(id);
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> client.state(id));
+            assertEquals("Unknown session " + id, e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRevealMatchesBoard() throws IOException {
+        BoardSpec spec = BoardSpec.of(20, 30);
+        BoardModel expected = new BoardModel(spec, 11);
+        expected.distributeMines(spec.getMineCount());
+        int start = 0;
+        while (expected.hasMine(start)) {
+            start++;
+        }
+        int[] revealed = expected.revealCell(start);
+
+        try (GameClient client = new GameClient(server.getPort())) {
+            long id = client.create(spec, 11);
+            MoveDelta delta = client.reveal(id, start);
+            assertArrayEquals(Arrays.stream(revealed).sorted().toArray(),
+                    delta.getRevealed());
+            for (int i = 0; i < revealed.length; i++) {
+                int cell = delta.getRevealed()[i];
+                assertEquals(expected.neighborMineCount(cell), delta.getCount(i));
+            }
+            assertArrayEquals(delta.getRevealed(), client.state(id).getRevealed());
+        }
+    }
+
+    @Test
+    public void testGameOverSendsMines() throws IOException {
+        try (GameClient client = new GameClient(server.getPort())) {
+            long id = client.create(BoardSpec.of(5, 0), 1);
+            MoveDelta delta = client.reveal(id, 30);
+            assertEquals(GameStatus.WON, delta.getStatus());
+            assertEquals(61, delta.getRevealed().length);
+            assertEquals(0, delta.getMines().length);
+            // once the game is over nothing changes
+            assertEquals(0, client.reveal(id, 0).getRevealed().length);
+        }
+    }
+
+    @Test
+    public void testErrors() throws IOException {
+        assertEquals("Unknown command 9", error(new byte[] {9, 0}));
+        assertEquals("Malformed request", error(new byte[] {WireProtocol.REVEAL, 1}));
+        try (GameClient client = new GameClient(server.getPort())) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> client.create(BoardSpec.of(300, 0), 1));
+            long id = client.create(BoardSpec.of(5, 3), 1);
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> client.reveal(id, 99));
+            assertTrue(e.getMessage().startsWith("No cell 99"), e.getMessage());
+            // the connection is still usable after an error
+            assertEquals(GameStatus.PLAYING, client.state(id).getStatus());
+        }
+    }
+
+    private String error(byte[] request) {
+        ByteBuffer response = server.handle(ByteBuffer.wrap(request));
+        response.flip();
+        assertEquals(response.remaining() - 4, response.getInt());
+        assertEquals(WireProtocol.ERROR, response.get());
+        String message = WireProtocol.getError(response);
+        server.getBufferPool().release(response);
+        return message;
+    }
+
+}
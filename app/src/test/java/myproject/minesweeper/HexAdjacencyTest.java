@@ -0,0 +1,88 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.ref.WeakReference;
+
+import org.junit.jupiter.api.Test;
+
+public class HexAdjacencyTest {
+
+    @Test
+    public void testSharedPerSize() {
+        assertSame(HexAdjacency.forSize(7), HexAdjacency.forSize(7));
+        assertSame(HexAdjacency.forSize(7), new BoardModel(7, 25).getAdjacency());
+        assertNotSame(HexAdjacency.forSize(7), HexAdjacency.forSize(9));
+    }
+
+    @Test
+    public void testOtherSizesAreCollectedWithTheirBoards() throws InterruptedException {
+        int preset = System.identityHashCode(HexAdjacency.forSize(11));
+        WeakReference<HexAdjacency> table = new WeakReference<>(HexAdjacency.forSize(301));
+        for (int size = 100; size < 140; size++) {
+            new BoardModel(size, 1);
+        }
+        for (int i = 0; i < 100 && (table.get() != null || HexAdjacency.sharedCount() > 8); i++) {
+            System.gc();
+            Thread.sleep(10);
+            HexAdjacency.forSize(3);
+        }
+        assertNull(table.get());
+        assertTrue(HexAdjacency.sharedCount() <= 8, "cached " + HexAdjacency.sharedCount());
+        assertEquals(preset, System.identityHashCode(HexAdjacency.forSize(11)));
+    }
+
+    @Test
+    public void testDegrees() {
+        HexAdjacency adjacency = HexAdjacency.forSize(5);
+        assertTrue(adjacency.hasTable());
+        assertEquals(6, adjacency.degree(adjacency.cellId(4, 4)));
+        assertEquals(3, adjacency.degree(adjacency.cellId(0, 0)));
+        assertEquals(4, adjacency.degree(adjacency.cellId(0, 1)));
+
+        int edges = 0;
+        for (int id = 0; id < adjacency.getCellCount(); id++) {
+            edges += adjacency.end(id) - adjacency.start(id);
+        }
+        // 6 per cell minus the missing links of the 6 corners and 18 other rim cells
+        assertEquals(6 * 61 - (6 * 3 + 18 * 2), edges);
+    }
+
+    @Test
+    public void testTableIsSymmetric() {
+        HexAdjacency adjacency = HexAdjacency.forSize(6);
+        for (int id = 0; id < adjacency.getCellCount(); id++) {
+            for (int i = adjacency.start(id); i < adjacency.end(id); i++) {
+                int neighbor = adjacency.neighbor(i);
+                boolean found = false;
+                for (int j = adjacency.start(neighbor); j < adjacency.end(neighbor); j++) {
+                    found |= adjacency.neighbor(j) == id;
+                }
+                assertTrue(found);
+            }
+        }
+    }
+
+    @Test
+    public void testNeighborsBufferMatchesTable() {
+        HexAdjacency adjacency = HexAdjacency.forSize(4);
+        int[] buffer = new int[6];
+        for (int id = 0; id < adjacency.getCellCount(); id++) {
+            int count = adjacency.neighbors(id, buffer);
+            assertEquals(adjacency.degree(id), count);
+            for (int i = 0; i < count; i++) {
+                assertEquals(adjacency.neighbor(adjacency.start(id) + i), buffer[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testLargeBoardComputesNeighbors() {
+        HexAdjacency adjacency = HexAdjacency.forSize(1000);
+        assertFalse(adjacency.hasTable());
+        int[] buffer = new int[6];
+        assertEquals(6, adjacency.neighbors(adjacency.cellId(999, 999), buffer));
+        assertEquals(3, adjacency.neighbors(0, buffer));
+    }
+
+}
@@ -0,0 +1,100 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class HexGeometryTest {
+
+    private final HexGeometry geometry = HexGeometry.forRadius(15);
+
+    @Test
+    public void testCentreOfBoard() {
+        assertEquals(0, geometry.centerX(7, 6));
+        assertEquals(0, geometry.centerY(7, 6, 6), 1e-9);
+    }
+
+    @Test
+    public void testCellAtFindsEveryCell() {
+        HexAdjacency adjacency = HexAdjacency.forSize(7);
+        for (int col = 0; col < 13; col++) {
+            for (int row = 0; row < adjacency.cellCountInCol(col); row++) {
+                int id = adjacency.cellId(col, row);
+                double x = geometry.centerX(7, col);
+                double y = geometry.centerY(7, col, row);
+                assertEquals(id, geometry.cellIdAt(adjacency, x, y));
+                // just inside each of the six sides
+                for (int side = 0; side < 6; side++) {
+                    double angle = Math.PI / 6 + side * Math.PI / 3;
+                    double distance = geometry.getApothem() * 0.95;
+                    assertEquals(id, geometry.cellIdAt(adjacency,
+                            x + distance * Math.cos(angle), y + distance * Math.sin(angle)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCellAtCrossesIntoNeighbor() {
+        HexAdjacency adjacency = HexAdjacency.forSize(5);
+        int centre = adjacency.cellId(4, 4);
+        int[] neighbors = new int[6];
+        adjacency.neighbors(centre, neighbors);
+        for (int side = 0; side < 6; side++) {
+            double angle = Math.PI / 6 + side * Math.PI / 3;
+            double distance = geometry.getApothem() * 1.05;
+            int hit = geometry.cellIdAt(adjacency, distance * Math.cos(angle),
+                    distance * Math.sin(angle));
+            assertNotEquals(centre, hit);
+            assertTrue(java.util.Arrays.stream(neighbors).anyMatch(n -> n == hit));
+        }
+    }
+
+    @Test
+    public void testCellAtOutsideBoard() {
+        HexAdjacency adjacency = HexAdjacency.forSize(5);
+        assertEquals(-1, geometry.cellIdAt(adjacency, 1000, 0));
+        assertEquals(-1, geometry.cellIdAt(adjacency, 0, -1000));
+        assertEquals(-1, geometry.cellIdAt(adjacency, -150, -150));
+        assertEquals(-1, geometry.cellIdAt(adjacency, 1e12, 1e12));
+    }
+
+    @Test
+    public void testPolygonPointsAreTranslatedCorners() {
+        double[] xs = new double[6];
+        double[] ys = new double[6];
+        geometry.corners(10, -20, xs, ys);
+        double[] points = geometry.polygonPoints(10, -20);
+        assertEquals(12, points.length);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(xs[i], points[2 * i], 1e-9);
+            assertEquals(ys[i], points[2 * i + 1], 1e-9);
+        }
+        assertNotSame(points, geometry.polygonPoints(10, -20));
+        assertEquals(geometry.getRadius(), geometry.polygonPoints(0, 0)[0], 1e-9);
+    }
+
+    @Test
+    public void testForEachCellInVisitsCellsNearRectangle() {
+        HexAdjacency adjacency = HexAdjacency.forSize(9);
+        boolean[] visited = new boolean[adjacency.getCellCount()];
+        geometry.forEachCellIn(adjacency, -40, -10, 70, 55, id -> {
+            assertFalse(visited[id]);
+            visited[id] = true;
+        });
+        for (int col = 0; col < 17; col++) {
+            for (int row = 0; row < adjacency.cellCountInCol(col); row++) {
+                double x = geometry.centerX(9, col);
+                double y = geometry.centerY(9, col, row);
+                boolean near = x + geometry.getRadius() >= -40 && x - geometry.getRadius() <= 70
+                        && y + geometry.getApothem() >= -10 && y - geometry.getApothem() <= 55;
+                assertEquals(near, visited[adjacency.cellId(col, row)]);
+            }
+        }
+
+        int[] count = new int[1];
+        geometry.forEachCellIn(adjacency, 5000, 5000, 6000, 6000, id -> count[0]++);
+        assertEquals(0, count[0]);
+    }
+
+}
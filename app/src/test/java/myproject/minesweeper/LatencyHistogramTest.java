@@ -0,0 +1,82 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LatencyHistogramTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testBucketsCoverEveryDuration() {
+        long previousUpper = -1;
+        for (int bucket = 0; bucket < LatencyHistogram.bucket(Long.MAX_VALUE) + 1; bucket++) {
+            long lower = LatencyHistogram.lowerBound(bucket);
+            long upper = LatencyHistogram.upperBound(bucket);
+            assertEquals(previousUpper + 1, lower);
+            assertEquals(bucket, LatencyHistogram.bucket(lower));
+            assertEquals(bucket, LatencyHistogram.bucket(upper));
+            assertTrue(upper - lower <= Math.max(0, lower / 8));
+            previousUpper = upper;
+        }
+        assertEquals(Long.MAX_VALUE, previousUpper);
+    }
+
+    @Test
+    public void testPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMinNanos());
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertEquals(500_500, histogram.getMeanNanos(), 1e-6);
+        long median = histogram.getPercentileNanos(0.5);
+        assertTrue(median >= 500_000 && median <= 500_000 * 1.125, "median " + median);
+        long p99 = histogram.getPercentileNanos(0.99);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000, "p99 " + p99);
+        assertEquals(1_000_000, histogram.getPercentileNanos(1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(0));
+    }
+
+    @Test
+    public void testEmptyAndNegative() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileNanos(0.5));
+        assertEquals(0, histogram.getMinNanos());
+        assertEquals("no samples", histogram.toString());
+        histogram.record(-5);
+        assertEquals(0, histogram.getMaxNanos());
+        histogram.record(1_500_000);
+        assertEquals("p50 0.00 ms, p99 1.50 ms, max 1.50 ms", histogram.toString());
+    }
+
+    @Test
+    public void testExport() throws IOException {
+        LatencyHistogram engine = new LatencyHistogram();
+        engine.record(3);
+        engine.record(3);
+        engine.record(1000);
+        LatencyHistogram render = new LatencyHistogram();
+        render.record(16_000_000);
+        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+        histograms.put("engine", engine);
+        histograms.put("render", render);
+        Path file = dir.resolve("latency.csv");
+        LatencyHistogram.export(file, histograms);
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(List.of("metric,fromNanos,toNanos,count", "engine,3,3,2",
+                "engine,960,1023,1", "render,15728640,16777215,1"), lines);
+    }
+
+}
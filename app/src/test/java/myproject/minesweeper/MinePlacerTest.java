@@ -0,0 +1,59 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+public class MinePlacerTest {
+
+    @Test
+    public void testSampleIsDistinct() {
+        int[] ids = MinePlacer.sample(1000, 1000, new SplittableRandom(1));
+        boolean[] seen = new boolean[1000];
+        for (int id : ids) {
+            assertFalse(seen[id]);
+            seen[id] = true;
+        }
+    }
+
+    @Test
+    public void testSameSeedSameSample() {
+        assertArrayEquals(MinePlacer.sample(331, 100, new SplittableRandom(42)),
+                MinePlacer.sample(331, 100, new SplittableRandom(42)));
+    }
+
+    @Test
+    public void testNextFailsWhenExhausted() {
+        MinePlacer placer = new MinePlacer(2, new SplittableRandom(3));
+        placer.next();
+        placer.next();
+        assertThrows(NoSuchElementException.class, placer::next);
+    }
+
+    @Test
+    public void testSampleIsUniform() {
+        // 61 cells of an EASY board, 10 mines each: every cell is expected 10/61 * trials times
+        int trials = 20000;
+        int[] hits = new int[61];
+        SplittableRandom random = new SplittableRandom(7);
+        for (int t = 0; t < trials; t++) {
+            for (int id : MinePlacer.sample(61, 10, random)) {
+                hits[id]++;
+            }
+        }
+        double expected = trials * 10.0 / 61;
+        for (int count : hits) {
+            assertEquals(expected, count, expected * 0.1);
+        }
+    }
+
+    @Test
+    public void testDistributeMinesAtFullDensity() {
+        BoardModel model = new BoardModel(BoardSpec.of(30, 2610));
+        model.distributeMines(2610, new SplittableRandom(5));
+        assertEquals(1, model.getRemainingSafeCells());
+    }
+
+}
@@ -0,0 +1,190 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+public class MoveLogTest {
+
+    @Test
+    public void testVarintRoundTrip() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        long[] values = {0, 1, 127, 128, 300, Integer.MAX_VALUE, Long.MAX_VALUE};
+        for (long value : values) {
+            Varint.putVarLong(buffer, value);
+        }
+        assertEquals(1 + 1 + 1 + 2 + 2 + 5 + 9, buffer.position());
+        buffer.flip();
+        for (long value : values) {
+            assertEquals(value, Varint.getVarLong(buffer));
+        }
+    }
+
+    @Test
+    public void testLogRoundTrip() {
+        MoveLog log = new MoveLog(Difficulty.HARD.getSpec(), -42L, 1_700_000_000_000L);
+        log.append(MoveAction.REVEAL, 120, 1_700_000_000_500L);
+        log.append(MoveAction.FLAG, 3, 1_700_000_001_000L);
+        log.append(MoveAction.REVEAL, 200, 1_700_000_000_900L);
+
+        MoveLog decoded = MoveLog.fromByteArray(log.toByteArray());
+        assertEquals(Difficulty.HARD.getSpec(), decoded.getSpec());
+        assertEquals(-42L, decoded.getSeed());
+        assertEquals(3, decoded.getMoveCount());
+
+        List<String> moves = new ArrayList<>();
+        decoded.forEachMove((action, cellId, time) -> moves.add(action + " " + cellId + " " + time));
+        assertEquals(List.of("REVEAL 120 1700000000500", "FLAG 3 1700000001000",
+                "REVEAL 200 1700000001000"), moves);
+    }
+
+    @Test
+    public void testSnapshotIsUnaffectedByLaterMoves() {
+        MoveLog log = new MoveLog(Difficulty.HARD.getSpec(), 7L, 0, true);
+        for (int i = 0; i < 40; i++) {
+            log.append(MoveAction.REVEAL, i, i * 10L);
+        }
+        MoveLog snapshot = log.snapshot();
+        byte[] before = log.toByteArray();
+
+        // enough moves to make the log grow its buffer
+        for (int i = 40; i < 200; i++) {
+            log.append(MoveAction.FLAG, i, i * 10L);
+        }
+        assertArrayEquals(before, snapshot.toByteArray());
+        assertEquals(40, snapshot.getMoveCount());
+        assertTrue(snapshot.hasSafeStart());
+
+        snapshot.append(MoveAction.CHORD, 1000, 5000L);
+        assertEquals(200, log.getMoveCount());
+        List<String> moves = new ArrayList<>();
+        log.forEachMove((action, cellId, time) -> moves.add(action + " " + cellId));
+        assertEquals("FLAG 40", moves.get(40));
+        List<String> captured = new ArrayList<>();
+        snapshot.forEachMove((action, cellId, time) -> captured.add(action + " " + cellId));
+        assertEquals(41, captured.size());
+        assertEquals("CHORD 1000", captured.get(40));
+    }
+
+    @Test
+    public void testRejectsOtherData() {
+        assertThrows(IllegalArgumentException.class,
+                () -> MoveLog.fromByteArray(new byte[] {1, 2, 3, 4, 5}));
+    }
+
+    @Test
+    public void testRejectsUnknownAction() {
+        MoveLog log = new MoveLog(Difficulty.EASY.getSpec(), 5, 0);
+        log.append(MoveAction.REVEAL, 5, 1);
+        byte[] bytes = log.toByteArray();
+        // the move is the key 5 << 2 | REVEAL and the delay, one byte each
+        assertEquals(5 << 2, bytes[bytes.length - 2]);
+        bytes[bytes.length - 2] |= 3;
+        assertThrows(IllegalArgumentException.class, () -> MoveLog.fromByteArray(bytes));
+    }
+
+    @Test
+    public void testRejectsTruncatedLogs() {
+        MoveLog log = new MoveLog(Difficulty.EASY.getSpec(), -3, 1_700_000_000_000L, true);
+        log.append(MoveAction.REVEAL, 30, 1_700_000_000_400L);
+        log.append(MoveAction.FLAG, 60, 1_700_000_090_000L);
+        byte[] bytes = log.toByteArray();
+        for (int length = 0; length < bytes.length; length++) {
+            byte[] cut = Arrays.copyOf(bytes, length);
+            try {
+                // a cut between two moves is a valid, shorter log
+                assertTrue(MoveLog.fromByteArray(cut).getMoveCount() < 2);
+            } catch (IllegalArgumentException e) {
+                // expected for any other cut
+            }
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> MoveLog.fromByteArray(Arrays.copyOf(bytes, 10)));
+    }
+
+    @Test
+    public void testRejectsCellsOffTheBoard() {
+        MoveLog outside = new MoveLog(Difficulty.EASY.getSpec(), 5, 0);
+        outside.append(MoveAction.REVEAL, 61, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> MoveLog.fromByteArray(outside.toByteArray()));
+        MoveLog negative = new MoveLog(Difficulty.EASY.getSpec(), 5, 0);
+        negative.append(MoveAction.FLAG, -1, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> MoveLog.fromByteArray(negative.toByteArray()));
+
+        MoveLog last = new MoveLog(Difficulty.EASY.getSpec(), 5, 0);
+        last.append(MoveAction.REVEAL, 60, 1);
+        assertEquals(1, MoveLog.fromByteArray(last.toByteArray()).getMoveCount());
+    }
+
+    @Test
+    public void testSameSeedSameMines() {
+        BoardModel first = new BoardModel(Difficulty.EXTREME.getSpec(), 99);
+        BoardModel second = new BoardModel(Difficulty.EXTREME.getSpec(), 99);
+        first.distributeMines(100);
+        second.distributeMines(100);
+        for (int id = 0; id < first.getCellCount(); id++) {
+            assertEquals(first.hasMine(id), second.hasMine(id));
+        }
+    }
+
+    @Test
+    public void testReplayRebuildsGame() {
+        BoardSpec spec = Difficulty.MEDIUM.getSpec();
+        BoardModel played = new BoardModel(spec, 1234);
+        played.distributeMines(spec.getMineCount());
+        MoveLog log = new MoveLog(spec, 1234, 0);
+        Random random = new Random(5);
+        for (int move = 0; move < 40 && !played.isGameStopped(); move++) {
+            int cellId = random.nextInt(played.getCellCount());
+            MoveAction action = random.nextInt(4) == 0 ? MoveAction.FLAG : MoveAction.REVEAL;
+            log.append(action, cellId, move * 100L);
+            Replay.apply(played, action, cellId);
+        }
+
+        BoardModel replayed = Replay.replay(MoveLog.fromByteArray(log.toByteArray()));
+        for (int id = 0; id < played.getCellCount(); id++) {
+            assertEquals(played.hasMine(id), replayed.hasMine(id));
+            assertEquals(played.isRevealed(id), replayed.isRevealed(id));
+            assertEquals(played.isFlagged(id), replayed.isFlagged(id));
+        }
+        assertEquals(played.isGameStopped(), replayed.isGameStopped());
+        assertEquals(played.getMineCount(), replayed.getMineCount());
+    }
+
+    @Test
+    public void testReplayPlacesMinesAroundFirstReveal() {
+        BoardSpec spec = Difficulty.MEDIUM.getSpec();
+        BoardModel played = new BoardModel(spec, 77);
+        played.distributeMinesAround(40);
+        played.revealCell(40);
+        MoveLog log = new MoveLog(spec, 77, 0, true);
+        log.append(MoveAction.REVEAL, 40, 10);
+
+        MoveLog decoded = MoveLog.fromByteArray(log.toByteArray());
+        assertTrue(decoded.hasSafeStart());
+        BoardModel replayed = Replay.replay(decoded);
+        assertFalse(replayed.isGameStopped());
+        for (int id = 0; id < played.getCellCount(); id++) {
+            assertEquals(played.hasMine(id), replayed.hasMine(id));
+            assertEquals(played.isRevealed(id), replayed.isRevealed(id));
+        }
+    }
+
+    @Test
+    public void testReadsVersionOneLogs() {
+        byte[] current = new MoveLog(Difficulty.EASY.getSpec(), 5, 0).toByteArray();
+        byte[] legacy = new byte[current.length - 1];
+        System.arraycopy(current, 0, legacy, 0, 5);
+        System.arraycopy(current, 6, legacy, 5, current.length - 6);
+        legacy[4] = 1;
+        MoveLog decoded = MoveLog.fromByteArray(legacy);
+        assertEquals(Difficulty.EASY.getSpec(), decoded.getSpec());
+        assertFalse(decoded.hasSafeStart());
+    }
+
+}
@@ -0,0 +1,85 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+public class NeighborCountsTest {
+
+    private static byte[] bruteForce(HexAdjacency adjacency, boolean[] mines) {
+        byte[] counts = new byte[mines.length];
+        for (int id = 0; id < mines.length; id++) {
+            for (int i = adjacency.start(id); i < adjacency.end(id); i++) {
+                if (mines[adjacency.neighbor(i)]) {
+                    counts[id]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static byte[] unpack(long[] counts, int cellCount) {
+        byte[] unpacked = new byte[cellCount];
+        for (int id = 0; id < cellCount; id++) {
+            unpacked[id] = (byte) Bits.nibble(counts, id);
+        }
+        return unpacked;
+    }
+
+    @Test
+    public void testKernelsAgree() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int size = 1; size <= 12; size++) {
+            HexAdjacency adjacency = HexAdjacency.forSize(size);
+            int cellCount = adjacency.getCellCount();
+            boolean[] mines = new boolean[cellCount];
+            long[] mineBits = new long[Bits.words(cellCount)];
+            for (int id = 0; id < cellCount; id++) {
+                mines[id] = random.nextInt(3) == 0;
+                if (mines[id]) {
+                    Bits.set(mineBits, id);
+                }
+            }
+            byte[] expected = bruteForce(adjacency, mines);
+
+            long[] scattered = new long[Bits.nibbleWords(cellCount)];
+            NeighborCounts.scatter(adjacency, mineBits, scattered);
+            assertArrayEquals(expected, unpack(scattered, cellCount));
+
+            long[] dense = new long[Bits.nibbleWords(cellCount)];
+            Arrays.fill(dense, -1L);
+            NeighborCounts.dense(adjacency, mineBits, dense);
+            assertArrayEquals(expected, unpack(dense, cellCount));
+        }
+    }
+
+    @Test
+    public void testModelCountsMatchAfterDensePlacement() {
+        BoardModel model = new BoardModel(BoardSpec.withDensity(20, 0.6), 3);
+        model.distributeMines(model.getSpec().getMineCount());
+        HexAdjacency adjacency = model.getAdjacency();
+        for (int id = 0; id < model.getCellCount(); id++) {
+            int count = 0;
+            for (int neighbor : model.getNeighbors(id)) {
+                count += model.hasMine(neighbor) ? 1 : 0;
+            }
+            assertEquals(count, model.neighborMineCount(id));
+        }
+        assertTrue(adjacency.hasTable());
+    }
+
+    @Test
+    public void testAddMineUpdatesNeighbors() {
+        BoardModel model = new BoardModel(5, 10);
+        int centre = model.cellId(4, 4);
+        model.addMine(centre);
+        model.addMine(centre);
+        for (int neighbor : model.getNeighbors(centre)) {
+            assertEquals(1, model.neighborMineCount(neighbor));
+        }
+        assertEquals(0, model.neighborMineCount(centre));
+    }
+
+}
@@ -0,0 +1,84 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class NoGuessGeneratorTest {
+
+    private NoGuessGenerator generator = new NoGuessGenerator(4, 5000);
+
+    @AfterEach
+    public void close() {
+        generator.close();
+    }
+
+    @Test
+    public void testStartZoneHasNoMines() {
+        BoardSpec spec = Difficulty.HARD.getSpec();
+        int start = NoGuessGenerator.centerCell(spec);
+        for (long seed = 0; seed < 50; seed++) {
+            BoardModel model = new BoardModel(spec, seed);
+            model.distributeMinesAround(start);
+            assertFalse(model.hasMine(start));
+            assertEquals(0, model.neighborMineCount(start));
+            assertEquals(spec.getMineCount(), model.getCellCount() - model.getRemainingSafeCells());
+        }
+    }
+
+    @Test
+    public void testDenseBoardKeepsStartCellSafe() {
+        BoardSpec spec = BoardSpec.of(5, 58);
+        BoardModel model = new BoardModel(spec, 3);
+        model.distributeMinesAround(30);
+        assertFalse(model.hasMine(30));
+        assertEquals(3, model.getRemainingSafeCells());
+    }
+
+    @Test
+    public void testGeneratedLayoutIsSolvedWithoutGuessing() {
+        for (Difficulty difficulty : new Difficulty[] {Difficulty.EASY, Difficulty.MEDIUM}) {
+            SolvableLayout layout = generator.generate(difficulty.getSpec(), 17L);
+            assertEquals(difficulty.getSpec(), layout.getSpec());
+            assertTrue(NoGuessGenerator.isSolvable(layout.toModel(), layout.getStartCell()));
+
+            BoardModel model = layout.toModel();
+            model.revealCell(layout.getStartCell());
+            AutoSolver.Result result = AutoSolver.play(model);
+            assertTrue(result.isWon());
+            assertEquals(0, result.getGuesses());
+        }
+    }
+
+    @Test
+    public void testFailsWhenNoLayoutPasses() {
+        // with two safe cells the second one can only be found by guessing
+        BoardSpec spec = BoardSpec.of(3, 17);
+        assertThrows(IllegalStateException.class, () -> new NoGuessGenerator(2, 4)
+                .generate(spec, 0, 1L));
+    }
+
+    @Test
+    public void testPoolHandsOutLayoutsOfTheDifficulty() {
+        try (SolvableBoardPool pool = new SolvableBoardPool(new NoGuessGenerator(2, 5000),
+                new NoGuessGenerator(2, 5000), 1)) {
+            SolvableLayout layout = pool.take(Difficulty.EASY);
+            assertEquals(Difficulty.EASY.getSpec(), layout.getSpec());
+            assertTrue(NoGuessGenerator.isSolvable(layout.toModel(), layout.getStartCell()));
+        }
+    }
+
+    @Test
+    public void testPoolTakesWithoutTheRefillGenerator() {
+        NoGuessGenerator refills = new NoGuessGenerator(1, 5000);
+        refills.close();
+        try (SolvableBoardPool pool =
+                new SolvableBoardPool(refills, new NoGuessGenerator(2, 5000), 1)) {
+            SolvableLayout layout = pool.take(Difficulty.MEDIUM);
+            assertEquals(Difficulty.MEDIUM.getSpec(), layout.getSpec());
+            assertEquals(0, pool.available(Difficulty.MEDIUM));
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class PrefetcherTest {
+
+    private final AtomicInteger built = new AtomicInteger();
+    private final Prefetcher<BoardSpec, BoardModel> prefetcher =
+            new Prefetcher<>("test-prefetch", spec -> {
+                built.incrementAndGet();
+                BoardModel model = new BoardModel(spec, 1L);
+                model.placeMinesOnFirstReveal();
+                return model;
+            });
+
+    @AfterEach
+    public void close() {
+        prefetcher.close();
+    }
+
+    @Test
+    public void testTakesPrefetchedValueOnce() throws Exception {
+        BoardSpec spec = Difficulty.HARD.getSpec();
+        prefetcher.prefetch(spec);
+        BoardModel first = prefetcher.take(spec).get(5, TimeUnit.SECONDS);
+        assertEquals(spec, first.getSpec());
+        assertEquals(1, built.get());
+
+        BoardModel second = prefetcher.take(spec).get(5, TimeUnit.SECONDS);
+        assertNotSame(first, second);
+        assertEquals(2, built.get());
+    }
+
+    @Test
+    public void testOtherKeyBuildsFreshValue() throws Exception {
+        prefetcher.prefetch(Difficulty.EASY.getSpec());
+        BoardModel model = prefetcher.take(Difficulty.EXTREME.getSpec()).get(5, TimeUnit.SECONDS);
+        assertEquals(Difficulty.EXTREME.getSpec(), model.getSpec());
+        assertTrue(model.hasPendingMines());
+    }
+
+    @Test
+    public void testBuildsOnBackgroundThread() throws Exception {
+        Prefetcher<Integer, String> names = new Prefetcher<>("named-prefetch",
+                key -> Thread.currentThread().getName());
+        try {
+            assertEquals("named-prefetch", names.take(1).get(5, TimeUnit.SECONDS));
+        } finally {
+            names.close();
+        }
+    }
+
+}
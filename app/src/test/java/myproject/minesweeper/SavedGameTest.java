@@ -0,0 +1,167 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.file.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SavedGameTest {
+
+    @TempDir
+    Path dir;
+
+    private AutoSaver saver;
+
+    @AfterEach
+    public void close() {
+        if (saver != null) {
+            saver.close();
+        }
+    }
+
+    private static BoardModel playedBoard(int size, int mines, long seed) {
+        BoardModel model = new BoardModel(BoardSpec.of(size, mines), seed);
+        model.placeMinesOnFirstReveal();
+        model.revealCell(model.cellId(size - 1, size - 1));
+        for (int id = 0; id < model.getCellCount(); id += 7) {
+            if (model.hasMine(id)) {
+                model.toggleFlag(id);
+            }
+        }
+        return model;
+    }
+
+    private static void assertSameBoard(BoardModel expected, BoardModel actual) {
+        assertEquals(expected.getSpec(), actual.getSpec());
+        assertEquals(expected.getSeed(), actual.getSeed());
+        assertEquals(0, expected.changedSince(actual.snapshot()).length);
+        for (int id = 0; id < expected.getCellCount(); id++) {
+            assertEquals(expected.neighborMineCount(id), actual.neighborMineCount(id));
+        }
+        assertEquals(expected.getMineCount(), actual.getMineCount());
+        assertEquals(expected.getProgress(), actual.getProgress());
+        assertEquals(expected.hasPendingMines(), actual.hasPendingMines());
+        assertEquals(expected.isGameStopped(), actual.isGameStopped());
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        BoardModel model = playedBoard(20, 150, 3);
+        MoveLog log = new MoveLog(model.getSpec(), model.getSeed(), 1000, true);
+        log.append(MoveAction.REVEAL, model.cellId(19, 19), 1500);
+        Path file = dir.resolve("game.hexsave");
+        SavedGame.of(model, 42_137, log).write(file);
+
+        SavedGame loaded = SavedGame.read(file);
+        assertEquals(42_137, loaded.getElapsedMillis());
+        assertSameBoard(model, loaded.toModel());
+        assertArrayEquals(log.toByteArray(), loaded.getMoveLog().toByteArray());
+    }
+
+    @Test
+    public void testPendingMinesAndLostGames() throws IOException {
+        BoardModel fresh = new BoardModel(BoardSpec.of(9, 20), 5);
+        fresh.placeMinesOnFirstReveal();
+        Path file = dir.resolve("fresh.hexsave");
+        SavedGame.of(fresh, 0, null).write(file);
+        BoardModel loaded = SavedGame.read(file).toModel();
+        assertTrue(loaded.hasPendingMines());
+        assertNull(SavedGame.read(file).getMoveLog());
+        loaded.revealCell(0);
+        fresh.revealCell(0);
+        assertSameBoard(fresh, loaded);
+
+        BoardModel lost = playedBoard(9, 20, 5);
+        for (int id = 0; !lost.isGameStopped(); id++) {
+            if (lost.hasMine(id) && !lost.isFlagged(id)) {
+                lost.revealCell(id);
+            }
+        }
+        SavedGame.of(lost, 7, null).write(file);
+        BoardModel reloaded = SavedGame.read(file).toModel();
+        assertSameBoard(lost, reloaded);
+        assertEquals(lost.getExplodedCell(), reloaded.getExplodedCell());
+    }
+
+    @Test
+    public void testLargeBoard() throws IOException {
+        BoardModel model = playedBoard(500, 75_000, 11);
+        Path file = dir.resolve("large.hexsave");
+        SavedGame.of(model, 1, null).write(file);
+        assertSameBoard(model, SavedGame.read(file).toModel());
+    }
+
+    @Test
+    public void testReadsVersionOne() throws IOException {
+        BoardModel model = playedBoard(9, 20, 4);
+        Path file = dir.resolve("old.hexsave");
+        SavedGame.of(model, 0, null).write(file);
+        byte[] current = Files.readAllBytes(file);
+
+        // Version 1 kept the time as an int of seconds where version 2 keeps a long of millis.
+        ByteBuffer old = ByteBuffer.allocate(current.length - Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        old.put(current, 0, 22).putInt(95).put(current, 30, current.length - 30);
+        old.put(4, (byte) 1);
+        Files.write(file, old.array());
+
+        SavedGame loaded = SavedGame.read(file);
+        assertEquals(95_000, loaded.getElapsedMillis());
+        assertSameBoard(model, loaded.toModel());
+    }
+
+    @Test
+    public void testRejectsOtherFiles() throws IOException {
+        Path file = dir.resolve("game.hexsave");
+        SavedGame.of(playedBoard(9, 20, 1), 0, null).write(file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IllegalArgumentException.class, () -> SavedGame.read(file));
+        bytes[0]++;
+        Files.write(file, bytes);
+        assertThrows(IllegalArgumentException.class, () -> SavedGame.read(file));
+    }
+
+    @Test
+    public void testAutoSaverWritesLatestGame() throws Exception {
+        Path file = dir.resolve("autosave.hexsave");
+        saver = new AutoSaver(file);
+        assertNull(saver.load());
+        BoardModel model = playedBoard(9, 20, 2);
+        for (int second = 1; second <= 50; second++) {
+            saver.save(SavedGame.of(model, second * 1000L, null));
+        }
+        saver.flush();
+        assertEquals(50_000, saver.load().getElapsedMillis());
+        assertSameBoard(model, saver.load().toModel());
+
+        saver.discard();
+        saver.flush();
+        assertFalse(Files.exists(file));
+        assertNull(saver.load());
+    }
+
+    @Test
+    public void testAutoSaverKeepsGameSavedAfterDiscard() throws Exception {
+        Path file = dir.resolve("autosave.hexsave");
+        saver = new AutoSaver(file);
+        BoardModel model = playedBoard(9, 20, 3);
+        for (int game = 1; game <= 50; game++) {
+            // the old game is saved, then discarded for a new one, which is saved at once
+            saver.save(SavedGame.of(model, 1, null));
+            saver.discard();
+            saver.save(SavedGame.of(model, game * 1000L, null));
+            saver.flush();
+            SavedGame saved = saver.load();
+            assertNotNull(saved, "game " + game);
+            assertEquals(game * 1000L, saved.getElapsedMillis());
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class SessionManagerTest {
+
+    private SessionManager manager = new SessionManager(4, 1000, 1 << 16, Duration.ofMinutes(5));
+
+    @AfterEach
+    public void close() {
+        manager.close();
+    }
+
+    @Test
+    public void testSessionPlaysLikeModel() {
+        BoardSpec spec = BoardSpec.of(7, 10);
+        long id = manager.create(spec, 99L).join();
+        BoardModel expected = new BoardModel(spec, 99L);
+        expected.distributeMines(spec.getMineCount());
+
+        int safe = 0;
+        while (expected.hasMine(safe)) {
+            safe++;
+        }
+        assertArrayEquals(expected.revealCell(safe), manager.reveal(id, safe).join());
+        assertEquals(GameStatus.PLAYING, manager.execute(id, GameSession::getStatus).join());
+        assertEquals(1, manager.getSessionCount());
+    }
+
+    @Test
+    public void testFlagToggles() {
+        long id = manager.create(BoardSpec.of(5, 3), 1L).join();
+        assertTrue(manager.toggleFlag(id, 0).join());
+        assertEquals(2, (int) manager.execute(id, s -> s.getModel().getMineCount()).join());
+        assertFalse(manager.toggleFlag(id, 0).join());
+    }
+
+    @Test
+    public void testUnknownSessionAndCell() {
+        long id = manager.create(BoardSpec.of(5, 3), 1L).join();
+        CompletionException unknown = assertThrows(CompletionException.class,
+                () -> manager.reveal(id + 1000, 0).join());
+        assertTrue(unknown.getCause() instanceof IllegalArgumentException);
+        CompletionException badCell = assertThrows(CompletionException.class,
+                () -> manager.reveal(id, 61).join());
+        assertTrue(badCell.getCause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void testLimits() {
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.create(BoardSpec.of(200, 10), 1L));
+        try (SessionManager small = new SessionManager(2, 4, 1000, Duration.ofMinutes(5))) {
+            for (int i = 0; i < 4; i++) {
+                small.create(BoardSpec.of(5, 3), i).join();
+            }
+            CompletionException full = assertThrows(CompletionException.class,
+                    () -> small.create(BoardSpec.of(5, 3), 9L).join());
+            assertTrue(full.getCause() instanceof IllegalStateException);
+            assertEquals(4, small.getSessionCount());
+        }
+    }
+
+    @Test
+    public void testRemoveAndIdleEviction() throws Exception {
+        long id = manager.create(BoardSpec.of(5, 3), 1L).join();
+        assertTrue(manager.remove(id).join());
+        assertFalse(manager.remove(id).join());
+
+        try (SessionManager shortLived = new SessionManager(1, 10, 1000,
+                Duration.ofMillis(50))) {
+            shortLived.create(BoardSpec.of(5, 3), 1L).join();
+            assertEquals(1, shortLived.getSessionCount());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (shortLived.getSessionCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, shortLived.getSessionCount());
+        }
+    }
+
+    @Test
+    public void testConcurrentClientsOnManySessions() throws Exception {
+        int sessions = 200;
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            ids.add(manager.create(BoardSpec.of(6, 8), i).join());
+        }
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (long id : ids) {
+                results.add(clients.submit(() -> {
+                    int revealed = 0;
+                    for (int cell = 0; cell < 91; cell++) {
+                        revealed += manager.reveal(id, cell).join().length;
+                    }
+                    return revealed;
+                }));
+            }
+            for (int i = 0; i < sessions; i++) {
+                int revealed = results.get(i).get();
+                BoardModel model = manager.execute(ids.get(i), GameSession::getModel).join();
+                assertTrue(revealed > 0);
+                assertTrue(model.isGameStopped());
+            }
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+}
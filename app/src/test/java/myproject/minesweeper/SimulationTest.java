@@ -0,0 +1,51 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+
+import org.junit.jupiter.api.Test;
+
+public class SimulationTest {
+
+    @Test
+    public void testReportCountsEveryGame() {
+        Simulation.Report report = Simulation.simulate(Difficulty.EASY.getSpec(), 101, 4, 7L);
+        assertEquals(101, report.getGames());
+        assertTrue(report.getWins() > 0 && report.getWins() <= 101);
+        assertTrue(report.getMovesPerGame() >= 1);
+        assertTrue(report.getCascadeSize() >= 1);
+        assertTrue(report.getGamesPerSecond() > 0);
+    }
+
+    @Test
+    public void testSameSeedAndThreadsSameResults() {
+        BoardSpec spec = Difficulty.MEDIUM.getSpec();
+        Simulation.Report first = Simulation.simulate(spec, 60, 3, 11L);
+        Simulation.Report second = Simulation.simulate(spec, 60, 3, 11L);
+        assertEquals(first.getWins(), second.getWins());
+        assertEquals(first.getMovesPerGame(), second.getMovesPerGame());
+        assertEquals(first.getCascadeSize(), second.getCascadeSize());
+    }
+
+    @Test
+    public void testEmptyBoardsAreAlwaysWon() {
+        Simulation.Report report = Simulation.simulate(BoardSpec.of(6, 0), 20, 2, 1L);
+        assertEquals(1.0, report.getWinRate());
+        assertEquals(1.0, report.getMovesPerGame());
+        assertEquals(BoardSpec.cellCount(6), report.getCascadeSize(), 1e-9);
+    }
+
+    @Test
+    public void testRunParsesOptions() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Simulation.run(new String[] {"--simulate", "10", "--size", "5", "--mines", "4",
+                "--threads", "2", "--seed", "3"}, new PrintStream(bytes));
+        String out = bytes.toString();
+        assertTrue(out.startsWith("Simulated 10 games of BoardSpec[size=5, mines=4] on 2 threads"),
+                out);
+        assertThrows(IllegalArgumentException.class,
+                () -> Simulation.run(new String[] {"--simulate", "10", "--fast"}, System.out));
+    }
+
+}
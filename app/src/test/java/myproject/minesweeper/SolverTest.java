@@ -0,0 +1,287 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class SolverTest {
+
+    private static BoardModel board(int size, int mines, long seed) {
+        BoardModel model = new BoardModel(BoardSpec.of(size, mines), seed);
+        model.distributeMines(mines);
+        return model;
+    }
+
+    private static void play(BoardModel model, Hint hint) {
+        int id = hint.getCellId();
+        if (hint.getAction() == MoveAction.FLAG) {
+            model.toggleFlag(id);
+            return;
+        }
+        if (model.isFlagged(id)) {
+            model.toggleFlag(id);
+        }
+        model.revealCell(id);
+    }
+
+    @Test
+    public void testCertainHintsAreCorrect() {
+        int[][] specs = {{5, 10}, {7, 25}, {9, 40}, {11, 100}, {20, 120}};
+        for (int[] spec : specs) {
+            for (long seed = 0; seed < 40; seed++) {
+                BoardModel model = board(spec[0], spec[1], seed);
+                Solver solver = new Solver(model);
+                Hint hint;
+                int moves = 0;
+                while ((hint = solver.hint()) != null) {
+                    if (hint.isCertain()) {
+                        assertEquals(hint.getAction() == MoveAction.FLAG,
+                                model.hasMine(hint.getCellId()), "seed " + seed + ": " + hint);
+                    }
+                    play(model, hint);
+                    assertTrue(++moves <= model.getCellCount(), "no progress");
+                }
+                assertTrue(model.isGameStopped());
+            }
+        }
+    }
+
+    @Test
+    public void testKnownMovesAreCorrect() {
+        for (long seed = 0; seed < 40; seed++) {
+            BoardModel model = board(9, 40, seed);
+            Solver solver = new Solver(model);
+            Hint hint = solver.hint();
+            while (hint != null) {
+                List<MoveCommand> known = solver.knownMoves();
+                for (MoveCommand command : known) {
+                    if (command.getAction() == MoveAction.REVEAL) {
+                        assertFalse(model.hasMine(command.getCellId()), "seed " + seed);
+                    } else if (!model.isFlagged(command.getCellId())) {
+                        assertTrue(model.hasMine(command.getCellId()), "seed " + seed);
+                    }
+                }
+                if (known.isEmpty()) {
+                    play(model, hint);
+                } else {
+                    model.applyBatch(known);
+                }
+                hint = solver.hint();
+            }
+        }
+    }
+
+    @Test
+    public void testCertainMovesAreCorrect() {
+        int enumerated = 0;
+        for (long seed = 0; seed < 40; seed++) {
+            BoardModel model = board(9, 40, seed);
+            Solver solver = new Solver(model);
+            Hint hint = solver.hint();
+            while (hint != null) {
+                boolean stuck = solver.knownMoves().isEmpty();
+                List<MoveCommand> certain = solver.certainMoves();
+                for (MoveCommand command : certain) {
+                    if (command.getAction() == MoveAction.REVEAL) {
+                        assertFalse(model.hasMine(command.getCellId()), "seed " + seed);
+                    } else if (!model.isFlagged(command.getCellId())) {
+                        assertTrue(model.hasMine(command.getCellId()), "seed " + seed);
+                    }
+                }
+                if (certain.isEmpty()) {
+                    play(model, solver.hint());
+                } else {
+                    enumerated += stuck ? 1 : 0;
+                    model.applyBatch(certain);
+                }
+                hint = solver.hint();
+            }
+        }
+        assertTrue(enumerated > 0, "the rules were never stuck on a certain cell");
+    }
+
+    @Test
+    public void testFirstHintIsCornerGuess() {
+        BoardModel model = board(7, 25, 1);
+        Hint hint = new Solver(model).hint();
+        assertEquals(MoveAction.REVEAL, hint.getAction());
+        assertFalse(hint.isCertain());
+        assertEquals(25.0 / model.getCellCount(), hint.getMineProbability(), 1e-9);
+        assertEquals(3, model.getAdjacency().degree(hint.getCellId()));
+    }
+
+    @Test
+    public void testFollowsMovesMadeElsewhere() {
+        BoardModel model = new BoardModel(BoardSpec.of(5, 2));
+        model.addMine(0);
+        model.addMine(2);
+        Solver solver = new Solver(model);
+        assertFalse(solver.hint().isCertain());
+        // the cascade from the far corner stops around the two mines and leaves cell 1 covered
+        model.revealCell(model.getCellCount() - 1);
+        assertFalse(model.isGameStopped());
+        Hint hint = solver.hint();
+        assertEquals(MoveAction.REVEAL, hint.getAction());
+        assertEquals(1, hint.getCellId());
+        assertTrue(hint.isCertain());
+        assertTrue(solver.isKnownMine(0));
+        assertTrue(solver.isKnownMine(2));
+        model.revealCell(1);
+        assertNull(solver.hint());
+    }
+
+    @Test
+    public void testGuessesMatchExactProbabilities() {
+        for (long seed = 0; seed < 60; seed++) {
+            BoardModel model = board(3, 5, seed);
+            Solver solver = new Solver(model);
+            Hint hint;
+            while ((hint = solver.hint()) != null) {
+                if (!hint.isCertain() && revealedCount(model) > 0) {
+                    double[] exact = bruteForce(model);
+                    double min = 1;
+                    for (int id = 0; id < exact.length; id++) {
+                        if (!model.isRevealed(id)) {
+                            min = Math.min(min, exact[id]);
+                        }
+                    }
+                    assertEquals(exact[hint.getCellId()], hint.getMineProbability(), 1e-9);
+                    assertEquals(min, hint.getMineProbability(), 1e-9, "seed " + seed);
+                }
+                play(model, hint);
+            }
+        }
+    }
+
+    @Test
+    public void testKeptComponentsMatchFreshSolver() {
+        for (long seed = 0; seed < 20; seed++) {
+            BoardModel model = board(20, 250, seed);
+            Solver solver = new Solver(model);
+            Hint hint;
+            while ((hint = solver.hint()) != null) {
+                if (!hint.isCertain()) {
+                    Hint fresh = new Solver(model).hint();
+                    assertFalse(fresh.isCertain(), "seed " + seed);
+                    assertEquals(fresh.getMineProbability(), hint.getMineProbability(), 1e-9,
+                            "seed " + seed);
+                }
+                play(model, hint);
+            }
+        }
+    }
+
+    private static int revealedCount(BoardModel model) {
+        int count = 0;
+        for (int id = 0; id < model.getCellCount(); id++) {
+            if (model.isRevealed(id)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Enumerates every placement of the mines over the covered cells that matches the revealed
+     * counts.
+     */
+    private static double[] bruteForce(BoardModel model) {
+        int cellCount = model.getCellCount();
+        HexAdjacency adjacency = model.getAdjacency();
+        double[] mineCounts = new double[cellCount];
+        double total = 0;
+        for (int set = 0; set < 1 << cellCount; set++) {
+            if (Integer.bitCount(set) != model.getSpec().getMineCount()) {
+                continue;
+            }
+            boolean matches = true;
+            for (int id = 0; id < cellCount && matches; id++) {
+                if (!model.isRevealed(id)) {
+                    continue;
+                }
+                int count = 0;
+                for (int i = adjacency.start(id); i < adjacency.end(id); i++) {
+                    count += set >>> adjacency.neighbor(i) & 1;
+                }
+                matches = (set >>> id & 1) == 0 && count == model.neighborMineCount(id);
+            }
+            if (matches) {
+                total++;
+                for (int id = 0; id < cellCount; id++) {
+                    mineCounts[id] += set >>> id & 1;
+                }
+            }
+        }
+        for (int id = 0; id < cellCount; id++) {
+            mineCounts[id] /= total;
+        }
+        return mineCounts;
+    }
+
+    @Test
+    public void testAutoSolverWinsWithoutGuessing() {
+        BoardModel model = new BoardModel(BoardSpec.of(6, 2));
+        model.addMine(0);
+        model.addMine(model.getCellCount() - 1);
+        model.revealCell(model.getCellCount() / 2);
+
+        AutoSolver.Result result = AutoSolver.play(model);
+        assertTrue(result.isWon());
+        assertEquals(0, result.getGuesses());
+        assertTrue(model.isFlagged(0));
+        assertTrue(model.isFlagged(model.getCellCount() - 1));
+    }
+
+    /**
+     * Plays a board whose flags all sit on safe cells, far from where the solver starts.
+     */
+    private static BoardModel boardWithWrongFlags(long seed) {
+        BoardModel model = board(9, 40, seed);
+        for (int id = model.getCellCount() - 1; model.getMineCount() > 0; id--) {
+            if (!model.hasMine(id)) {
+                model.toggleFlag(id);
+            }
+        }
+        return model;
+    }
+
+    @Test
+    public void testAutoSolverTakesBackWrongFlags() {
+        for (long seed = 0; seed < 20; seed++) {
+            BoardModel model = boardWithWrongFlags(seed);
+            AutoSolver.Result result = AutoSolver.play(model);
+            assertTrue(model.isGameStopped(), "seed " + seed);
+            assertTrue(result.getMoves() <= 2 * model.getCellCount(), "no progress");
+        }
+    }
+
+    @Test
+    public void testKnownMovesNeverFlagWithoutFlagsLeft() {
+        for (long seed = 0; seed < 20; seed++) {
+            BoardModel model = boardWithWrongFlags(seed);
+            Solver solver = new Solver(model);
+            int moves = 0;
+            while (!model.isGameStopped()) {
+                List<MoveCommand> known = solver.knownMoves();
+                if (known.isEmpty()) {
+                    play(model, solver.hint());
+                } else {
+                    model.applyBatch(known);
+                }
+                assertTrue(++moves <= 2 * model.getCellCount(), "no progress, seed " + seed);
+            }
+        }
+    }
+
+    @Test
+    public void testAutoSolverFinishesLargeBoards() {
+        BoardModel model = board(60, 800, 3);
+        AutoSolver.Result result = AutoSolver.play(model);
+        assertTrue(model.isGameStopped());
+        assertEquals(result.isWon(), model.isWon());
+        assertTrue(result.getGuesses() >= 1);
+    }
+
+}
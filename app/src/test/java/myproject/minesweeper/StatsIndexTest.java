@@ -0,0 +1,65 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+public class StatsIndexTest {
+
+    private static final BoardSpec EASY = Difficulty.EASY.getSpec();
+
+    private static GameRecord game(boolean won, long timeMillis) {
+        return new GameRecord(0, EASY, 1, won, timeMillis, 10, 5);
+    }
+
+    @Test
+    public void testEmptySpec() {
+        StatsIndex index = new StatsIndex();
+        assertEquals(0, index.getGames(EASY));
+        assertEquals(-1, index.getBestTime(EASY));
+        assertEquals(-1, index.getPercentileTime(EASY, 0.5));
+        assertEquals(0, index.getShareSlowerThan(EASY, 1000));
+    }
+
+    @Test
+    public void testStreaksAndTimes() {
+        StatsIndex index = new StatsIndex();
+        index.addAll(List.of(game(true, 5000), game(true, 3000), game(false, 100),
+                game(true, 4000), game(true, 9000), game(true, 1000)));
+        assertEquals(6, index.getGames(EASY));
+        assertEquals(5, index.getWins(EASY));
+        assertEquals(3, index.getCurrentStreak(EASY));
+        assertEquals(3, index.getBestStreak(EASY));
+        assertEquals(1000, index.getBestTime(EASY));
+        assertEquals(4000, index.getPercentileTime(EASY, 0.5));
+        assertEquals(9000, index.getPercentileTime(EASY, 1));
+        assertEquals(0.6, index.getShareSlowerThan(EASY, 3000), 1e-9);
+        assertEquals(0, index.getGames(Difficulty.HARD.getSpec()));
+
+        index.add(game(false, 100));
+        assertEquals(0, index.getCurrentStreak(EASY));
+        index.add(game(true, 500));
+        assertEquals(500, index.getBestTime(EASY));
+        assertThrows(IllegalArgumentException.class, () -> index.getPercentileTime(EASY, 0));
+    }
+
+    @Test
+    public void testMillionGames() {
+        SplittableRandom random = new SplittableRandom(3);
+        List<GameRecord> records = new ArrayList<>();
+        for (int i = 0; i < 1_000_000; i++) {
+            records.add(game(random.nextInt(3) > 0, 10_000 + random.nextInt(1_000_000)));
+        }
+        StatsIndex index = new StatsIndex();
+        index.addAll(records);
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            index.add(game(true, 10_000 + random.nextInt(1_000_000)));
+            assertTrue(index.getPercentileTime(EASY, 0.9) > index.getBestTime(EASY));
+        }
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+    }
+
+}
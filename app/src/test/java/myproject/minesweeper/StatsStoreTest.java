@@ -0,0 +1,80 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StatsStoreTest {
+
+    private static final BoardSpec EASY = Difficulty.EASY.getSpec();
+
+    @TempDir
+    Path dir;
+
+    private StatsStore store;
+
+    @AfterEach
+    public void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    public void testRecordsSurviveRestart() throws Exception {
+        Path file = dir.resolve("stats.csv");
+        store = new StatsStore(file);
+        List<CompletableFuture<Void>> written = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            written.add(store.record(new GameRecord(i, EASY, i, i % 4 != 0, 1000 + i, 20, 8)));
+        }
+        store.record(new GameRecord(200, BoardSpec.of(30, 200), 7, true, 60_000, 500, 300))
+                .get();
+        for (CompletableFuture<Void> done : written) {
+            assertTrue(done.isDone());
+        }
+        assertEquals(200, store.getIndex().getGames(EASY));
+        store.close();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(202, lines.size());
+        assertTrue(lines.get(201).contains("CUSTOM"));
+
+        store = new StatsStore(file);
+        store.loaded().get();
+        StatsIndex index = store.getIndex();
+        assertEquals(200, index.getGames(EASY));
+        assertEquals(150, index.getWins(EASY));
+        assertEquals(3, index.getBestStreak(EASY));
+        assertEquals(1001, index.getBestTime(EASY));
+        assertEquals(60_000, index.getBestTime(BoardSpec.of(30, 200)));
+    }
+
+    @Test
+    public void testSkipsTruncatedRow() throws Exception {
+        Path file = dir.resolve("stats.csv");
+        store = new StatsStore(file);
+        store.record(new GameRecord(1, EASY, 1, true, 2000, 20, 8)).get();
+        store.close();
+        Files.write(file, "2,EASY,5,10,3,tr".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        store = new StatsStore(file);
+        store.record(new GameRecord(3, EASY, 4, true, 1500, 20, 8)).get();
+        assertEquals(2, store.getIndex().getWins(EASY));
+        store.close();
+
+        store = new StatsStore(file);
+        store.loaded().get();
+        assertEquals(2, store.getIndex().getGames(EASY));
+        assertEquals(1500, store.getIndex().getBestTime(EASY));
+    }
+
+}
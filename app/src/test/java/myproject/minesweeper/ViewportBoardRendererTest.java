@@ -0,0 +1,110 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javafx.application.Platform;
+
+public class ViewportBoardRendererTest {
+
+    @BeforeAll
+    public static void setup() {
+        try {
+            Platform.startup(() -> {
+            });
+        } catch (IllegalStateException e) {
+            // the toolkit was started by another test class
+        }
+    }
+
+    @Test
+    public void testNoCellsBeforeViewportIsSet() {
+        GameBoard board = new GameBoard(BoardSpec.of(200, 100), 1L, RenderMode.VIEWPORT);
+        assertEquals(0, board.getViewport().getActiveCount());
+        assertNull(board.getCell(0));
+    }
+
+    @Test
+    public void testOnlyVisibleCellsAreMaterialized() {
+        GameBoard board = new GameBoard(BoardSpec.of(200, 100), 1L, RenderMode.VIEWPORT);
+        ViewportBoardRenderer viewport = board.getViewport();
+        viewport.setViewport(-100, -100, 100, 100);
+
+        int active = viewport.getActiveCount();
+        assertTrue(active > 0);
+        assertTrue(active < 500);
+        int centre = board.getModel().cellId(199, 199);
+        HexCell cell = board.getCell(centre);
+        assertNotNull(cell);
+        assertEquals(centre, cell.getCellId());
+        assertEquals(0, cell.getLayoutX(), 1e-9);
+        assertEquals(0, cell.getLayoutY(), 1e-9);
+    }
+
+    @Test
+    public void testCellsArePooledAndRebound() {
+        GameBoard board = new GameBoard(BoardSpec.of(200, 100), 1L, RenderMode.VIEWPORT);
+        ViewportBoardRenderer viewport = board.getViewport();
+        viewport.setViewport(-100, -100, 100, 100);
+        int active = viewport.getActiveCount();
+        int nodes = viewport.getChildren().size();
+
+        // 450 pixels to the right is a whole number of hexagons, so the same count is visible
+        viewport.setViewport(350, -100, 550, 100);
+        assertEquals(active, viewport.getActiveCount());
+        assertEquals(nodes, viewport.getChildren().size());
+        assertEquals(0, viewport.getPooledCount());
+        assertNull(board.getCell(board.getModel().cellId(199, 199)));
+
+        viewport.setViewport(-100, -100, 100, 100);
+        assertEquals(active, viewport.getActiveCount());
+        assertEquals(nodes, viewport.getChildren().size());
+        for (Object node : viewport.getChildren()) {
+            HexCell cell = (HexCell) node;
+            if (cell.isVisible()) {
+                assertSame(cell, board.getCell(cell.getCellId()));
+            }
+        }
+    }
+
+    @Test
+    public void testViewportOutsideBoardIsEmpty() {
+        GameBoard board = new GameBoard(BoardSpec.of(5, 3), 1L, RenderMode.VIEWPORT);
+        board.getViewport().setViewport(5000, 5000, 6000, 6000);
+        assertEquals(0, board.getViewport().getActiveCount());
+        board.getViewport().setViewport(-5000, -5000, 5000, 5000);
+        assertEquals(61, board.getViewport().getActiveCount());
+    }
+
+    @Test
+    public void testCellAtMatchesMaterializedCell() {
+        GameBoard board = new GameBoard(BoardSpec.of(50, 10), 3L, RenderMode.VIEWPORT);
+        board.updateViewport(400, 400);
+        int id = board.cellAt(30, 20);
+        HexCell cell = board.getCell(id);
+        assertNotNull(cell);
+        assertTrue(cell.ifContainsMouseXY(30, 20));
+    }
+
+    @Test
+    public void testZoomKeepsPivotInPlace() {
+        GameBoard board = new GameBoard(BoardSpec.of(50, 10), 3L, RenderMode.VIEWPORT);
+        board.setLayoutX(400);
+        board.setLayoutY(325);
+        board.updateViewport(800, 800);
+        int before = board.cellAt(board.parentToLocal(500, 400).getX(),
+                board.parentToLocal(500, 400).getY());
+
+        board.zoom(2, 500, 400);
+        assertEquals(2, board.getZoom(), 1e-9);
+        int after = board.cellAt(board.parentToLocal(500, 400).getX(),
+                board.parentToLocal(500, 400).getY());
+        assertEquals(before, after);
+
+        board.zoom(100, 500, 400);
+        assertEquals(GameBoard.MAX_ZOOM, board.getZoom(), 1e-9);
+    }
+
+}
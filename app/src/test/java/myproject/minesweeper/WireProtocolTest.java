@@ -0,0 +1,263 @@
+package myproject.minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class WireProtocolTest {
+
+    private static BoardModel board(int size, int mines, long seed) {
+        BoardModel model = new BoardModel(BoardSpec.of(size, mines), seed);
+        model.distributeMines(mines);
+        return model;
+    }
+
+    private static int firstSafeCell(BoardModel model) {
+        int id = 0;
+        while (model.hasMine(id)) {
+            id++;
+        }
+        return id;
+    }
+
+    /**
+     * Reads back a frame, checking its length and opcode.
+     */
+    private static ByteBuffer body(ByteBuffer frame, byte opcode) {
+        frame.flip();
+        assertEquals(frame.remaining() - 4, frame.getInt());
+        assertEquals(opcode, frame.get());
+        return frame;
+    }
+
+    @Test
+    public void testRevealDeltaRoundTrip() {
+        BoardModel model = board(30, 60, 3);
+        int[] revealed = model.revealCell(firstSafeCell(model));
+        int[] sorted = Arrays.stream(revealed).sorted().toArray();
+
+        ByteBuffer buffer = ByteBuffer.allocate(WireProtocol.deltaBound(model, revealed.length, 0));
+        WireProtocol.putDelta(buffer, WireProtocol.REVEAL, model, revealed, new int[0]);
+        MoveDelta delta = WireProtocol.getDelta(body(buffer, WireProtocol.REVEAL));
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals(GameStatus.PLAYING, delta.getStatus());
+        assertEquals(60, delta.getMinesLeft());
+        assertArrayEquals(sorted, delta.getRevealed());
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(model.neighborMineCount(sorted[i]), delta.getCount(i));
+        }
+        assertEquals(0, delta.getFlagChanges().length);
+        assertEquals(0, delta.getMines().length);
+    }
+
+    @Test
+    public void testCascadeIsSentAsRuns() {
+        BoardModel model = board(100, 0, 1);
+        int[] revealed = model.revealCell(0);
+        assertEquals(model.getCellCount(), revealed.length);
+
+        ByteBuffer buffer = ByteBuffer.allocate(WireProtocol.deltaBound(model, revealed.length, 0));
+        WireProtocol.putDelta(buffer, WireProtocol.REVEAL, model, revealed, new int[0]);
+        // one run, then half a byte of count per cell
+        assertTrue(buffer.position() < 32 + revealed.length / 2, "" + buffer.position());
+
+        MoveDelta delta = WireProtocol.getDelta(body(buffer, WireProtocol.REVEAL));
+        assertEquals(GameStatus.WON, delta.getStatus());
+        assertEquals(model.getCellCount(), delta.getRevealed().length);
+        assertEquals(model.getCellCount() - 1, delta.getRevealed()[revealed.length - 1]);
+    }
+
+    @Test
+    public void testFlagChanges() {
+        BoardModel model = board(10, 20, 5);
+        model.toggleFlag(40);
+        model.toggleFlag(7);
+        ByteBuffer buffer = ByteBuffer.allocate(WireProtocol.deltaBound(model, 0, 3));
+        WireProtocol.putDelta(buffer, WireProtocol.FLAG, model, new int[0], new int[] {40, 12, 7});
+        MoveDelta delta = WireProtocol.getDelta(body(buffer, WireProtocol.FLAG));
+
+        assertArrayEquals(new int[] {7, 12, 40}, delta.getFlagChanges());
+        assertTrue(delta.isFlagged(0));
+        assertFalse(delta.isFlagged(1));
+        assertTrue(delta.isFlagged(2));
+        assertEquals(18, delta.getMinesLeft());
+    }
+
+    @Test
+    public void testLossSendsEveryMine() {
+        BoardModel model = board(10, 20, 5);
+        int mine = 0;
+        while (!model.hasMine(mine)) {
+            mine++;
+        }
+        int[] revealed = model.revealCell(mine);
+
+        ByteBuffer buffer = ByteBuffer.allocate(WireProtocol.deltaBound(model, revealed.length, 0));
+        WireProtocol.putDelta(buffer, WireProtocol.REVEAL, model, revealed, new int[0]);
+        MoveDelta delta = WireProtocol.getDelta(body(buffer, WireProtocol.REVEAL));
+
+        assertEquals(GameStatus.LOST, delta.getStatus());
+        assertArrayEquals(new int[] {mine}, delta.getRevealed());
+        assertEquals(WireProtocol.MINE, delta.getCount(0));
+        int[] mines = delta.getMines();
+        assertEquals(20, mines.length);
+        for (int id : mines) {
+            assertTrue(model.hasMine(id));
+        }
+    }
+
+    @Test
+    public void testStateMatchesBoard() {
+        BoardModel model = board(15, 30, 9);
+        model.revealCell(firstSafeCell(model));
+        int cellCount = model.getCellCount();
+        int covered = 0;
+        while (model.isRevealed(covered)) {
+            covered++;
+        }
+        model.toggleFlag(covered);
+        ByteBuffer buffer = ByteBuffer.allocate(WireProtocol.stateBound(model));
+        WireProtocol.putState(buffer, model);
+
+        ByteBuffer body = body(buffer, WireProtocol.STATE);
+        assertEquals(15, Varint.getVarInt(body));
+        assertEquals(30, Varint.getVarInt(body));
+        MoveDelta delta = WireProtocol.getDelta(body);
+        int[] revealed = new int[cellCount];
+        int count = 0;
+        for (int id = 0; id < cellCount; id++) {
+            if (model.isRevealed(id)) {
+                revealed[count++] = id;
+            }
+        }
+        assertArrayEquals(Arrays.copyOf(revealed, count), delta.getRevealed());
+        assertArrayEquals(new int[] {covered}, delta.getFlagChanges());
+        assertTrue(delta.isFlagged(0));
+        for (int i = 0; i < count; i++) {
+            assertEquals(model.neighborMineCount(revealed[i]), delta.getCount(i));
+        }
+    }
+
+    @Test
+    public void testStateOfLostGameMatchesDelta() {
+        BoardModel model = board(40, 300, 4);
+        model.revealCell(firstSafeCell(model));
+        model.toggleFlag(model.getCellCount() - 1);
+        int mine = 0;
+        while (!model.hasMine(mine) || model.isFlagged(mine)) {
+            mine++;
+        }
+        model.revealCell(mine);
+        ByteBuffer buffer = ByteBuffer.allocate(WireProtocol.stateBound(model));
+        WireProtocol.putState(buffer, model);
+
+        ByteBuffer body = body(buffer, WireProtocol.STATE);
+        Varint.getVarInt(body);
+        Varint.getVarInt(body);
+        MoveDelta delta = WireProtocol.getDelta(body);
+        assertFalse(body.hasRemaining());
+        assertEquals(GameStatus.LOST, delta.getStatus());
+        assertEquals(300, delta.getMines().length);
+        for (int id : delta.getMines()) {
+            assertTrue(model.hasMine(id));
+        }
+        int[] revealed = delta.getRevealed();
+        for (int i = 0; i < revealed.length; i++) {
+            assertTrue(model.isRevealed(revealed[i]));
+            assertEquals(model.hasMine(revealed[i]) ? WireProtocol.MINE
+                    : model.neighborMineCount(revealed[i]), delta.getCount(i));
+        }
+    }
+
+    @Test
+    public void testStateBoundFollowsContentNotSize() {
+        BoardModel model = board(578, 300_000, 2);
+        assertTrue(model.getCellCount() > 1_000_000);
+        model.revealCell(firstSafeCell(model));
+        model.toggleFlag(model.getCellCount() - 1);
+        int bound = WireProtocol.stateBound(model);
+        assertTrue(bound < 16 * 1024, "bound " + bound);
+        ByteBuffer buffer = ByteBuffer.allocate(bound);
+        WireProtocol.putState(buffer, model);
+        assertTrue(buffer.position() <= bound);
+    }
+
+    @Test
+    public void testRequestsAndErrors() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        WireProtocol.putCreate(buffer, BoardSpec.of(8, 12), -5L);
+        ByteBuffer body = body(buffer, WireProtocol.CREATE);
+        assertEquals(0, Varint.getVarLong(body));
+        assertEquals(8, Varint.getVarInt(body));
+        assertEquals(12, Varint.getVarInt(body));
+        assertEquals(-5L, body.getLong());
+
+        WireProtocol.putCellRequest(buffer.clear(), WireProtocol.REVEAL, 1L << 40, 300);
+        body = body(buffer, WireProtocol.REVEAL);
+        assertEquals(1L << 40, Varint.getVarLong(body));
+        assertEquals(300, Varint.getVarInt(body));
+
+        WireProtocol.putError(buffer.clear(), "No cell \u00e9");
+        assertEquals("No cell \u00e9", WireProtocol.getError(body(buffer, WireProtocol.ERROR)));
+    }
+
+    @Test
+    public void testMalformedDelta() {
+        ByteBuffer badStatus = ByteBuffer.wrap(new byte[] {9, 0, 0, 0});
+        assertThrows(IllegalArgumentException.class, () -> WireProtocol.getDelta(badStatus));
+        // one run of 2^31 ids
+        ByteBuffer hugeRun = ByteBuffer.wrap(new byte[] {0, 0, 1, 0, -1, -1, -1, -1, 7});
+        assertThrows(IllegalArgumentException.class, () -> WireProtocol.getDelta(hugeRun));
+    }
+
+    @Test
+    public void testBufferPool() {
+        BufferPool pool = new BufferPool(128, 2);
+        ByteBuffer first = pool.acquire();
+        assertTrue(first.isDirect());
+        assertEquals(128, first.capacity());
+        first.putInt(1);
+        pool.release(first);
+        assertEquals(1, pool.getPooledCount());
+
+        ByteBuffer again = pool.acquire(100);
+        assertSame(first, again);
+        assertEquals(0, again.position());
+
+        ByteBuffer large = pool.acquire(1000);
+        assertEquals(1000, large.capacity());
+        assertFalse(large.isDirect());
+        pool.release(large);
+        assertEquals(0, pool.getPooledCount());
+
+        pool.release(again);
+        pool.release(pool.acquire());
+        pool.release(ByteBuffer.allocateDirect(128));
+        assertEquals(2, pool.getPooledCount());
+    }
+
+    @Test
+    public void testLargeBufferIsWrittenInPooledChunks() throws IOException {
+        BufferPool pool = new BufferPool(128, 2);
+        ByteBuffer large = pool.acquire(1000);
+        for (int i = 0; i < 1000; i++) {
+            large.put((byte) i);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pool.writeTo(large.flip(), Channels.newChannel(out));
+
+        byte[] bytes = out.toByteArray();
+        assertEquals(1000, bytes.length);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals((byte) i, bytes[i]);
+        }
+        assertEquals(1, pool.getPooledCount());
+    }
+
+}